@@ -0,0 +1,102 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model.benchmark;
+
+import be.yildizgames.common.model.EntityId;
+import be.yildizgames.common.model.PlayerId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent lookups of interned ids, reporting throughput and sampled latency percentiles.
+ * The thread count can be changed with the JMH -t option, the ScalabilityHarness covers the full 1..N curves,
+ * virtual threads and the insertion of new values.
+ *
+ * @author Grégory Van den Borre
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentInterningBenchmark {
+
+    private static final int POPULATION = 100_000;
+
+    /**
+     * Few values all threads hit, to contend on the same slots.
+     */
+    private static final int HOT = 16;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        for (int i = 0; i < POPULATION; i++) {
+            EntityId.valueOf(i);
+            PlayerId.valueOf(i);
+        }
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public EntityId entityIdLookup() {
+        return EntityId.valueOf(ThreadLocalRandom.current().nextInt(POPULATION));
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public PlayerId playerIdLookup() {
+        return PlayerId.valueOf(ThreadLocalRandom.current().nextInt(POPULATION));
+    }
+
+    @Benchmark
+    @Group("hot")
+    @GroupThreads(4)
+    public EntityId hotEntityId() {
+        return EntityId.valueOf(ThreadLocalRandom.current().nextInt(HOT));
+    }
+
+    @Benchmark
+    @Group("hot")
+    @GroupThreads(4)
+    public PlayerId hotPlayerId() {
+        return PlayerId.valueOf(POPULATION - 1 - ThreadLocalRandom.current().nextInt(HOT));
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model.benchmark;
+
+import be.yildizgames.common.model.EntityId;
+import be.yildizgames.common.model.EntityIdBitmap;
+import be.yildizgames.common.model.EntityIdMap;
+import be.yildizgames.common.model.EntityIdSet;
+import be.yildizgames.common.model.IntIdMap;
+import be.yildizgames.common.model.PlayerId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups in id keyed collections, the JDK ones against the primitive ones.
+ * Keys are drawn from twice the collection size, so about half of the lookups miss.
+ *
+ * @author Grégory Van den Borre
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IdCollectionBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    @Param({"UNIFORM", "SKEWED"})
+    private KeyDistribution distribution;
+
+    private EntityId[] entityKeys;
+
+    private PlayerId[] playerKeys;
+
+    private Map<EntityId, Integer> entityHashMap;
+
+    private EntityIdMap<Integer> entityIdMap;
+
+    private Set<EntityId> entityHashSet;
+
+    private EntityIdSet entityIdSet;
+
+    private EntityIdBitmap entityIdBitmap;
+
+    private Map<PlayerId, Integer> playerHashMap;
+
+    private IntIdMap<PlayerId, Integer> playerIdMap;
+
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.entityHashMap = new HashMap<>();
+        this.entityIdMap = new EntityIdMap<>();
+        this.entityHashSet = new HashSet<>();
+        this.entityIdSet = new EntityIdSet();
+        this.entityIdBitmap = new EntityIdBitmap();
+        this.playerHashMap = new HashMap<>();
+        this.playerIdMap = new IntIdMap<>();
+        for (int i = 0; i < this.size; i++) {
+            Integer value = i;
+            EntityId id = EntityId.valueOf(i * 2L);
+            this.entityHashMap.put(id, value);
+            this.entityIdMap.put(id, value);
+            this.entityHashSet.add(id);
+            this.entityIdSet.add(id);
+            this.entityIdBitmap.add(id);
+            PlayerId player = PlayerId.valueOf(i * 2);
+            this.playerHashMap.put(player, value);
+            this.playerIdMap.put(player, value);
+        }
+        long[] keys = this.distribution.keys(this.size * 2L);
+        this.entityKeys = new EntityId[keys.length];
+        this.playerKeys = new PlayerId[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            this.entityKeys[i] = EntityId.valueOf(keys[i]);
+            this.playerKeys[i] = PlayerId.valueOf((int) keys[i]);
+        }
+    }
+
+    @Benchmark
+    public Integer entityHashMapGet() {
+        return this.entityHashMap.get(this.entityKeys[this.next()]);
+    }
+
+    @Benchmark
+    public Integer entityIdMapGet() {
+        return this.entityIdMap.get(this.entityKeys[this.next()]);
+    }
+
+    @Benchmark
+    public boolean entityHashSetContains() {
+        return this.entityHashSet.contains(this.entityKeys[this.next()]);
+    }
+
+    @Benchmark
+    public boolean entityIdSetContains() {
+        return this.entityIdSet.contains(this.entityKeys[this.next()]);
+    }
+
+    @Benchmark
+    public boolean entityIdBitmapContains() {
+        return this.entityIdBitmap.contains(this.entityKeys[this.next()]);
+    }
+
+    @Benchmark
+    public Integer playerHashMapGet() {
+        return this.playerHashMap.get(this.playerKeys[this.next()]);
+    }
+
+    @Benchmark
+    public Integer playerIdMapGet() {
+        return this.playerIdMap.get(this.playerKeys[this.next()]);
+    }
+
+    private int next() {
+        this.index = (this.index + 1) & (KeyDistribution.KEY_COUNT - 1);
+        return this.index;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model.benchmark;
+
+import be.yildizgames.common.model.ActionId;
+import be.yildizgames.common.model.EntityId;
+import be.yildizgames.common.model.PlayerId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of retrieving already interned ids.
+ * With a population of 1024, int ids are served by their dense cache, with a larger one they go through the table.
+ *
+ * @author Grégory Van den Borre
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IdInterningBenchmark {
+
+    @Param({"1024", "1000000"})
+    private int population;
+
+    @Param({"SEQUENTIAL", "UNIFORM", "SKEWED"})
+    private KeyDistribution distribution;
+
+    private long[] keys;
+
+    private int[] intKeys;
+
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.keys = this.distribution.keys(this.population);
+        this.intKeys = this.distribution.intKeys(this.population);
+        for (int i = 0; i < this.population; i++) {
+            EntityId.valueOf(i);
+            PlayerId.valueOf(i);
+            ActionId.valueOf(i);
+        }
+    }
+
+    @Benchmark
+    public EntityId entityIdHit() {
+        return EntityId.valueOf(this.keys[this.next()]);
+    }
+
+    @Benchmark
+    public PlayerId playerIdHit() {
+        return PlayerId.valueOf(this.intKeys[this.next()]);
+    }
+
+    @Benchmark
+    public ActionId actionIdHit() {
+        return ActionId.valueOf(this.intKeys[this.next()]);
+    }
+
+    private int next() {
+        this.index = (this.index + 1) & (KeyDistribution.KEY_COUNT - 1);
+        return this.index;
+    }
+}
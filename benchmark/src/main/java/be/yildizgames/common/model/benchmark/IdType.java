@@ -0,0 +1,74 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model.benchmark;
+
+import be.yildizgames.common.model.ActionId;
+import be.yildizgames.common.model.EntityId;
+import be.yildizgames.common.model.PlayerId;
+import be.yildizgames.common.model.WorldId;
+
+/**
+ * Interned id types covered by the scalability harness.
+ *
+ * @author Grégory Van den Borre
+ */
+public enum IdType {
+
+    ENTITY {
+        @Override
+        public Object valueOf(final long value) {
+            return EntityId.valueOf(value);
+        }
+    },
+
+    PLAYER {
+        @Override
+        public Object valueOf(final long value) {
+            return PlayerId.valueOf((int) value);
+        }
+    },
+
+    WORLD {
+        @Override
+        public Object valueOf(final long value) {
+            return WorldId.valueOf((int) value);
+        }
+    },
+
+    ACTION {
+        @Override
+        public Object valueOf(final long value) {
+            return ActionId.valueOf((int) value);
+        }
+    };
+
+    /**
+     * Retrieve the interned id for a value.
+     *
+     * @param value Id value, truncated to an int for the int ids.
+     * @return The interned id.
+     */
+    public abstract Object valueOf(long value);
+}
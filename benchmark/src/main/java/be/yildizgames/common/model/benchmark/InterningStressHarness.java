@@ -0,0 +1,130 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Stress the interning of new values by many threads at once and check that every value has a single instance.
+ * <p>
+ * At each round, all threads wait on a barrier and then intern the same batch of values never seen before, in
+ * different orders, so they race on every insertion. The first instance stored for a value is the reference, any
+ * other instance returned for it is a duplicate. The process exits with status 1 if a duplicate was found.
+ * <p>
+ * Arguments are key=value pairs, all optional: threads (default available processors * 2), rounds (default 200),
+ * batch (values per round, default 10000), types (comma separated IdType names), kind (PLATFORM or VIRTUAL).
+ *
+ * @author Grégory Van den Borre
+ */
+public final class InterningStressHarness {
+
+    private InterningStressHarness() {
+        super();
+    }
+
+    public static void main(final String[] args) throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors() * 2;
+        int rounds = 200;
+        int batch = 10_000;
+        String types = "ENTITY,PLAYER,WORLD,ACTION";
+        ScalabilityHarness.ThreadKind kind = ScalabilityHarness.ThreadKind.PLATFORM;
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            switch (option[0]) {
+                case "threads":
+                    threads = Integer.parseInt(option[1]);
+                    break;
+                case "rounds":
+                    rounds = Integer.parseInt(option[1]);
+                    break;
+                case "batch":
+                    batch = Integer.parseInt(option[1]);
+                    break;
+                case "types":
+                    types = option[1];
+                    break;
+                case "kind":
+                    kind = ScalabilityHarness.ThreadKind.valueOf(option[1].toUpperCase());
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        long duplicates = 0;
+        for (String name : types.split(",")) {
+            IdType type = IdType.valueOf(name.trim().toUpperCase());
+            long found = stress(type, kind, threads, rounds, batch);
+            System.out.println(type + ": " + found + " duplicate(s) in " + rounds + " rounds of " + batch
+                    + " values with " + threads + " " + kind + " threads");
+            duplicates += found;
+        }
+        if (duplicates > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static long stress(final IdType type, final ScalabilityHarness.ThreadKind kind, final int threads,
+                               final int rounds, final int batch) throws Exception {
+        AtomicLong duplicates = new AtomicLong();
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        long base = (1L << 28) + (long) type.ordinal() * rounds * batch;
+        try (ExecutorService executor = kind.executor(threads)) {
+            AtomicReferenceArray<AtomicReferenceArray<Object>> reference = new AtomicReferenceArray<>(rounds);
+            for (int round = 0; round < rounds; round++) {
+                reference.set(round, new AtomicReferenceArray<>(batch));
+            }
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int round = 0; round < rounds; round++) {
+                        barrier.await();
+                        AtomicReferenceArray<Object> instances = reference.get(round);
+                        long first = base + (long) round * batch;
+                        for (int i = 0; i < batch; i++) {
+                            int index = (thread & 1) == 0 ? i : batch - 1 - i;
+                            Object id = type.valueOf(first + index);
+                            Object previous = instances.compareAndExchange(index, null, id);
+                            if (previous != null && previous != id) {
+                                duplicates.incrementAndGet();
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return duplicates.get();
+    }
+}
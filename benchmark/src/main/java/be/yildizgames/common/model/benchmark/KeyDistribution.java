@@ -0,0 +1,94 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model.benchmark;
+
+import java.util.SplittableRandom;
+
+/**
+ * Distribution of the keys used by the benchmarks.
+ *
+ * @author Grégory Van den Borre
+ */
+public enum KeyDistribution {
+
+    /**
+     * Keys in increasing order, wrapping at the population size.
+     */
+    SEQUENTIAL,
+
+    /**
+     * Keys drawn uniformly from the population.
+     */
+    UNIFORM,
+
+    /**
+     * Keys drawn mostly from the lowest values, as a few hot entities and players receive most of the traffic.
+     */
+    SKEWED;
+
+    /**
+     * Number of keys generated, a power of two so benchmarks can cycle on them with a mask.
+     */
+    public static final int KEY_COUNT = 1 << 12;
+
+    /**
+     * Generate keys.
+     *
+     * @param population Number of distinct values, from 0 to population - 1.
+     * @return KEY_COUNT keys.
+     */
+    public long[] keys(final long population) {
+        SplittableRandom random = new SplittableRandom(42);
+        long[] keys = new long[KEY_COUNT];
+        for (int i = 0; i < keys.length; i++) {
+            switch (this) {
+                case SEQUENTIAL:
+                    keys[i] = i % population;
+                    break;
+                case UNIFORM:
+                    keys[i] = random.nextLong(population);
+                    break;
+                default:
+                    keys[i] = (long) (population * Math.pow(random.nextDouble(), 4));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Generate int keys.
+     *
+     * @param population Number of distinct values, from 0 to population - 1.
+     * @return KEY_COUNT keys.
+     */
+    public int[] intKeys(final int population) {
+        long[] keys = this.keys(population);
+        int[] result = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            result[i] = (int) keys[i];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model.benchmark;
+
+/**
+ * Latency histogram with log linear buckets: 16 buckets per power of two, so a value is recorded with about 6% of
+ * precision. Recording is a shift and an increment, not thread safe, every thread records in its own histogram and
+ * they are merged at the end.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+
+    private final long[] counts = new long[SUB_COUNT * (64 - SUB_BITS + 1)];
+
+    private long total;
+
+    private long max;
+
+    /**
+     * Record a value.
+     *
+     * @param nanos Value to record, in nanoseconds.
+     */
+    public void record(final long nanos) {
+        long value = Math.max(0, nanos);
+        this.counts[index(value)]++;
+        this.total++;
+        this.max = Math.max(this.max, value);
+    }
+
+    /**
+     * Add the values of another histogram to this one.
+     *
+     * @param other Histogram to add.
+     */
+    public void add(final LatencyHistogram other) {
+        for (int i = 0; i < this.counts.length; i++) {
+            this.counts[i] += other.counts[i];
+        }
+        this.total += other.total;
+        this.max = Math.max(this.max, other.max);
+    }
+
+    /**
+     * Compute a percentile.
+     *
+     * @param percentile Percentile, from 0 to 100.
+     * @return The lowest bucket value under which the percentile of the recorded values is.
+     */
+    public long percentile(final double percentile) {
+        long threshold = (long) Math.ceil(this.total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < this.counts.length; i++) {
+            seen += this.counts[i];
+            if (seen >= threshold && seen > 0) {
+                return Math.min(valueOf(i), this.max);
+            }
+        }
+        return this.max;
+    }
+
+    /**
+     * @return The number of recorded values.
+     */
+    public long getTotal() {
+        return this.total;
+    }
+
+    /**
+     * @return The highest recorded value.
+     */
+    public long getMax() {
+        return this.max;
+    }
+
+    private static int index(final long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+        return ((exponent - SUB_BITS + 1) << SUB_BITS) | sub;
+    }
+
+    private static long valueOf(final int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int exponent = (index >>> SUB_BITS) + SUB_BITS - 1;
+        long sub = index & (SUB_COUNT - 1);
+        return ((SUB_COUNT | sub) + 1) << (exponent - SUB_BITS);
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measure how id interning scales with the number of threads, on platform and virtual threads.
+ * <p>
+ * For every id type, workload, thread kind and thread count (1, 2, 4... and the maximum), the threads call valueOf in
+ * a loop for a fixed duration. The throughput counts every call, while only one call in LATENCY_SAMPLING is timed, so
+ * reading the clock does not weigh on the measured operation. One CSV line is printed per run with the throughput and
+ * the latency percentiles, ready to be plotted as curves.
+ * <p>
+ * Interned ids are never released and the pools only grow, so every run is measured in a fresh JVM, started with the
+ * same JVM options and class path: each one preloads the population, warms up and measures with the same pool content,
+ * whatever the runs before it.
+ * <p>
+ * Workloads:
+ * <ul>
+ *     <li>LOOKUP: values already interned,</li>
+ *     <li>INTERN: values never seen before,</li>
+ *     <li>MIXED: 90% of lookups and 10% of new values.</li>
+ * </ul>
+ * New values are limited to a budget per run, a thread stops once its share is used even if the duration has not
+ * elapsed.
+ * <p>
+ * Arguments are key=value pairs, all optional: threads (maximum, default available processors * 2), duration (ms per
+ * run, default 2000), types (comma separated IdType names), workloads, kinds (PLATFORM,VIRTUAL), population (number of
+ * values already interned, default 100000), budget (new values per run, default 2000000).
+ *
+ * @author Grégory Van den Borre
+ */
+public final class ScalabilityHarness {
+
+    /**
+     * Share of lookups in the MIXED workload, in percent.
+     */
+    private static final int MIXED_LOOKUP_PERCENT = 90;
+
+    /**
+     * One call in this number is timed for the latency percentiles, must be a power of two.
+     */
+    private static final int LATENCY_SAMPLING = 64;
+
+    /**
+     * Option set on the forked JVM measuring a single run.
+     */
+    private static final String SINGLE = "single";
+
+    /**
+     * Next value never interned, new values are taken above the preloaded population, only one run uses it per JVM.
+     */
+    private static final AtomicLong FRESH = new AtomicLong(1L << 24);
+
+    private ScalabilityHarness() {
+        super();
+    }
+
+    public static void main(final String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int maxThreads = Integer.parseInt(options.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors() * 2)));
+        long duration = Long.parseLong(options.getOrDefault("duration", "2000"));
+        int population = Integer.parseInt(options.getOrDefault("population", "100000"));
+        long budget = Long.parseLong(options.getOrDefault("budget", "2000000"));
+        List<IdType> types = values(IdType.class, options.getOrDefault("types", "ENTITY,PLAYER,WORLD,ACTION"));
+        List<Workload> workloads = values(Workload.class, options.getOrDefault("workloads", "LOOKUP,INTERN,MIXED"));
+        List<ThreadKind> kinds = values(ThreadKind.class, options.getOrDefault("kinds", "PLATFORM,VIRTUAL"));
+
+        if (maxThreads < 1) {
+            throw new IllegalArgumentException("Invalid thread count: " + maxThreads);
+        }
+        if (options.containsKey(SINGLE)) {
+            IdType type = types.get(0);
+            Workload workload = workloads.get(0);
+            ThreadKind kind = kinds.get(0);
+            for (long i = 0; i < population; i++) {
+                type.valueOf(i);
+            }
+            run(type, workload, kind, maxThreads, duration / 2, population, budget);
+            Result result = run(type, workload, kind, maxThreads, duration, population, budget);
+            System.out.println(type + "," + workload + "," + kind + "," + maxThreads + ","
+                    + (long) result.throughput() + ","
+                    + result.latency().percentile(50) + ","
+                    + result.latency().percentile(99) + ","
+                    + result.latency().percentile(99.9) + ","
+                    + result.latency().getMax());
+            return;
+        }
+        System.out.println("type,workload,kind,threads,ops_per_second,p50_ns,p99_ns,p999_ns,max_ns");
+        for (IdType type : types) {
+            for (Workload workload : workloads) {
+                for (ThreadKind kind : kinds) {
+                    for (int threads = 1; ; threads = Math.min(threads << 1, maxThreads)) {
+                        fork(SINGLE + "=true", "types=" + type, "workloads=" + workload, "kinds=" + kind,
+                                "threads=" + threads, "duration=" + duration, "population=" + population,
+                                "budget=" + budget);
+                        if (threads == maxThreads) {
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Run the harness in a new JVM with the same options and class path, its output is printed in this one.
+     *
+     * @param args Harness arguments.
+     */
+    private static void fork(final String... args) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElseThrow());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(ScalabilityHarness.class.getName());
+        command.addAll(List.of(args));
+        Process process = new ProcessBuilder(command).inheritIO().start();
+        int exit = process.waitFor();
+        if (exit != 0) {
+            throw new IllegalStateException("Run failed with exit code " + exit + ": " + String.join(" ", args));
+        }
+    }
+
+    private static Result run(final IdType type, final Workload workload, final ThreadKind kind, final int threads,
+                              final long durationMillis, final int population, final long budget) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Sample>> futures = new ArrayList<>();
+        long share = budget / threads;
+        try (ExecutorService executor = kind.executor(threads)) {
+            for (int t = 0; t < threads; t++) {
+                long seed = t;
+                futures.add(executor.submit(() -> work(type, workload, population, share, durationMillis, seed, start)));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            LatencyHistogram total = new LatencyHistogram();
+            long operations = 0;
+            for (Future<Sample> future : futures) {
+                Sample sample = future.get();
+                operations += sample.operations();
+                total.add(sample.latency());
+            }
+            double seconds = (System.nanoTime() - begin) / 1e9;
+            return new Result(operations / seconds, total);
+        }
+    }
+
+    private static Sample work(final IdType type, final Workload workload, final int population, final long budget,
+                               final long durationMillis, final long seed, final CountDownLatch start)
+            throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        SplittableRandom random = new SplittableRandom(seed);
+        long fresh = FRESH.getAndAdd(budget);
+        long freshEnd = fresh + budget;
+        start.await();
+        long deadline = System.nanoTime() + durationMillis * 1_000_000L;
+        Object sink = null;
+        long operations = 0;
+        while (true) {
+            for (int i = 0; i < 256; i++) {
+                long value;
+                if (workload == Workload.LOOKUP
+                        || workload == Workload.MIXED && random.nextInt(100) < MIXED_LOOKUP_PERCENT) {
+                    value = random.nextInt(population);
+                } else if (fresh < freshEnd) {
+                    value = fresh++;
+                } else {
+                    return new Sample(operations, histogram);
+                }
+                if ((operations & (LATENCY_SAMPLING - 1)) == 0) {
+                    long before = System.nanoTime();
+                    sink = type.valueOf(value);
+                    histogram.record(System.nanoTime() - before);
+                } else {
+                    sink = type.valueOf(value);
+                }
+                operations++;
+            }
+            if (sink == null || System.nanoTime() >= deadline) {
+                return new Sample(operations, histogram);
+            }
+        }
+    }
+
+    private static Map<String, String> parse(final String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected key=value: " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private static <E extends Enum<E>> List<E> values(final Class<E> type, final String names) {
+        return Arrays.stream(names.split(","))
+                .map(String::trim)
+                .map(String::toUpperCase)
+                .map(name -> Enum.valueOf(type, name))
+                .toList();
+    }
+
+    /**
+     * Mix of lookups and new values.
+     */
+    public enum Workload {
+        LOOKUP, INTERN, MIXED
+    }
+
+    /**
+     * Kind of threads running the workload.
+     */
+    public enum ThreadKind {
+
+        PLATFORM {
+            @Override
+            ExecutorService executor(final int threads) {
+                return Executors.newFixedThreadPool(threads);
+            }
+        },
+
+        VIRTUAL {
+            @Override
+            ExecutorService executor(final int threads) {
+                return Executors.newVirtualThreadPerTaskExecutor();
+            }
+        };
+
+        abstract ExecutorService executor(int threads);
+    }
+
+    private record Result(double throughput, LatencyHistogram latency) {
+    }
+
+    private record Sample(long operations, LatencyHistogram latency) {
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model.benchmark;
+
+import be.yildizgames.common.model.PlayerId;
+import be.yildizgames.common.model.WorldId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ValueObject equals and hashCode, on identical instances, equal values of other types and different values.
+ *
+ * @author Grégory Van den Borre
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValueObjectBenchmark {
+
+    private PlayerId[] players;
+
+    private WorldId[] worlds;
+
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        int[] keys = KeyDistribution.UNIFORM.intKeys(100_000);
+        this.players = new PlayerId[keys.length];
+        this.worlds = new WorldId[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            this.players[i] = PlayerId.valueOf(keys[i]);
+            this.worlds[i] = WorldId.valueOf(keys[i]);
+        }
+    }
+
+    @Benchmark
+    public boolean equalsSame() {
+        int i = this.next();
+        return this.players[i].equals(this.players[i]);
+    }
+
+    @Benchmark
+    public boolean equalsOtherType() {
+        int i = this.next();
+        return this.players[i].equals(this.worlds[i]);
+    }
+
+    @Benchmark
+    public boolean equalsOtherValue() {
+        int i = this.next();
+        return this.players[i].equals(this.players[(i + 1) & (KeyDistribution.KEY_COUNT - 1)]);
+    }
+
+    @Benchmark
+    public int hashCodeValue() {
+        return this.players[this.next()].hashCode();
+    }
+
+    private int next() {
+        this.index = (this.index + 1) & (KeyDistribution.KEY_COUNT - 1);
+        return this.index;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model.benchmark;
+
+import be.yildizgames.common.model.Version;
+import be.yildizgames.common.model.VersionCompatibility;
+import be.yildizgames.common.model.VersionConstraintSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Version parsing, comparison and handshake checks, with a handful of distinct versions as seen on a login server.
+ *
+ * @author Grégory Van den Borre
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VersionBenchmark {
+
+    private static final int COUNT = 8;
+
+    private String[] texts;
+
+    private byte[][] bytes;
+
+    private Version[] versions;
+
+    private Version server;
+
+    private VersionCompatibility compatibility;
+
+    private VersionConstraintSet features;
+
+    private long[] mask;
+
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.texts = new String[COUNT];
+        this.bytes = new byte[COUNT][];
+        this.versions = new Version[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            this.texts[i] = (i % 3 == 0 ? "beta" : "release") + ".1." + i + "." + (i * 3) + "." + (1000 + i);
+            this.bytes[i] = this.texts[i].getBytes(StandardCharsets.US_ASCII);
+            this.versions[i] = Version.parse(this.texts[i]);
+        }
+        this.server = Version.release(1, 4, 0, 0);
+        this.compatibility = VersionCompatibility.of(List.of(this.versions), List.of(this.server),
+                (c, s) -> c.getMajor() == s.getMajor() && c.getMinor() <= s.getMinor());
+        List<String> constraints = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            constraints.add((i % 2 == 0 ? ">=1." : "[1.0, 1.") + i + (i % 2 == 0 ? "" : ")"));
+        }
+        this.features = VersionConstraintSet.parse(constraints);
+        this.mask = new long[this.features.maskLength()];
+    }
+
+    @Benchmark
+    public Version parseString() {
+        return Version.parse(this.texts[this.next()]);
+    }
+
+    @Benchmark
+    public long parsePackedString() {
+        return Version.parsePacked(this.texts[this.next()]);
+    }
+
+    @Benchmark
+    public long parsePackedBytes() {
+        byte[] value = this.bytes[this.next()];
+        return Version.parsePacked(value, 0, value.length);
+    }
+
+    @Benchmark
+    public int compare() {
+        int i = this.next();
+        return this.versions[i].compareTo(this.versions[(i + 1) & (COUNT - 1)]);
+    }
+
+    @Benchmark
+    public boolean equalsVersion() {
+        int i = this.next();
+        return this.versions[i].equals(this.versions[(i + 1) & (COUNT - 1)]);
+    }
+
+    @Benchmark
+    public int hashCodeVersion() {
+        return this.versions[this.next()].hashCode();
+    }
+
+    @Benchmark
+    public boolean compatible() {
+        return this.compatibility.isCompatible(this.versions[this.next()], this.server);
+    }
+
+    @Benchmark
+    public long[] resolveFeatures() {
+        this.features.resolve(this.versions[this.next()].getPacked(), this.mask);
+        return this.mask;
+    }
+
+    private int next() {
+        this.index = (this.index + 1) & (COUNT - 1);
+        return this.index;
+    }
+}
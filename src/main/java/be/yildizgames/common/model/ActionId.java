@@ -24,11 +24,13 @@
 
 package be.yildizgames.common.model;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * An id represent an unique instance of a class of object. The same id can be shared between different class but two objects of the same class cannot have the same id.
+ * <p>
+ * Immutable and thread safe class, valueOf can be called concurrently from any thread.
+ * <p>
+ * Values from 0 to 1023 are served from a preallocated array, this range can be changed at startup with the
+ * system property be.yildizgames.common.model.ActionId.cache.
  *
  * @author Grégory Van den Borre
  */
@@ -37,7 +39,8 @@ public class ActionId extends ValueObject {
     /**
      * List of all registered id with their value as key.
      */
-    private static final Map<Integer, ActionId> LIST = new HashMap<>();
+    private static final ConcurrentIntInternPool<ActionId> LIST = new ConcurrentIntInternPool<>(ActionId::new,
+            CacheSize.of(ActionId.class));
 
     /**
      * Constant value for the world.
@@ -46,7 +49,7 @@ public class ActionId extends ValueObject {
     /**
      * Constant id for the world.
      */
-    public static final ActionId WORLD = new ActionId(ActionId.WORLD_VALUE);
+    public static final ActionId WORLD = ActionId.valueOf(ActionId.WORLD_VALUE);
 
     /**
      * Full constructor, private to prevent use, to create an id, retrieve it from Id.get.
@@ -55,7 +58,6 @@ public class ActionId extends ValueObject {
      */
     private ActionId(final int idValue) {
         super(idValue);
-        ActionId.LIST.putIfAbsent(idValue, this);
     }
 
     /**
@@ -65,10 +67,14 @@ public class ActionId extends ValueObject {
      * @return The Id with the internal value correspond to the parameter.
      */
     public static ActionId valueOf(final int value) {
-        if (!ActionId.LIST.containsKey(value)) {
-            ActionId.LIST.put(value, new ActionId(value));
-        }
-        return ActionId.LIST.get(value);
+        return ActionId.LIST.intern(value);
+    }
+
+    /**
+     * @return The pool of the interned ids, for the metrics.
+     */
+    static InternPool pool() {
+        return ActionId.LIST;
     }
 
     /**
@@ -0,0 +1,211 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Container storing its values in a sorted array, used for sparse values, up to ARRAY_MAX_SIZE values.
+ *
+ * @author Grégory Van den Borre
+ */
+final class ArrayContainer extends RoaringContainer {
+
+    /**
+     * Sorted values.
+     */
+    private char[] content;
+
+    /**
+     * Number of values.
+     */
+    private int cardinality;
+
+    ArrayContainer() {
+        this(new char[4], 0);
+    }
+
+    ArrayContainer(final char[] content, final int cardinality) {
+        super();
+        this.content = content;
+        this.cardinality = cardinality;
+    }
+
+    @Override
+    RoaringContainer add(final int low) {
+        int index = Arrays.binarySearch(this.content, 0, this.cardinality, (char) low);
+        if (index >= 0) {
+            return this;
+        }
+        if (this.cardinality == ARRAY_MAX_SIZE) {
+            return this.toBitmap().add(low);
+        }
+        index = -index - 1;
+        if (this.cardinality == this.content.length) {
+            this.content = Arrays.copyOf(this.content, Math.min(ARRAY_MAX_SIZE, Math.max(4, this.cardinality * 2)));
+        }
+        System.arraycopy(this.content, index, this.content, index + 1, this.cardinality - index);
+        this.content[index] = (char) low;
+        this.cardinality++;
+        return this;
+    }
+
+    @Override
+    RoaringContainer remove(final int low) {
+        int index = Arrays.binarySearch(this.content, 0, this.cardinality, (char) low);
+        if (index >= 0) {
+            System.arraycopy(this.content, index + 1, this.content, index, this.cardinality - index - 1);
+            this.cardinality--;
+        }
+        return this;
+    }
+
+    @Override
+    boolean contains(final int low) {
+        return Arrays.binarySearch(this.content, 0, this.cardinality, (char) low) >= 0;
+    }
+
+    @Override
+    int cardinality() {
+        return this.cardinality;
+    }
+
+    @Override
+    int numberOfRuns() {
+        int runs = 0;
+        for (int i = 0; i < this.cardinality; i++) {
+            if (i == 0 || this.content[i] != this.content[i - 1] + 1) {
+                runs++;
+            }
+        }
+        return runs;
+    }
+
+    @Override
+    void forEach(final long base, final LongConsumer action) {
+        for (int i = 0; i < this.cardinality; i++) {
+            action.accept(base | this.content[i]);
+        }
+    }
+
+    @Override
+    void forEachLow(final IntConsumer action) {
+        for (int i = 0; i < this.cardinality; i++) {
+            action.accept(this.content[i]);
+        }
+    }
+
+    @Override
+    BitmapContainer toBitmap() {
+        BitmapContainer bitmap = new BitmapContainer();
+        for (int i = 0; i < this.cardinality; i++) {
+            bitmap.set(this.content[i]);
+        }
+        return bitmap;
+    }
+
+    @Override
+    ArrayContainer copy() {
+        return new ArrayContainer(Arrays.copyOf(this.content, Math.max(1, this.cardinality)), this.cardinality);
+    }
+
+    @Override
+    int sizeInBytes() {
+        return this.cardinality * Character.BYTES;
+    }
+
+    /**
+     * Keep the values depending on their presence in another container.
+     *
+     * @param other Container to check.
+     * @param keep  <code>true</code> to keep the values present in other, false to keep the values absent from it.
+     * @return A new container.
+     */
+    ArrayContainer filter(final RoaringContainer other, final boolean keep) {
+        char[] result = new char[Math.max(1, this.cardinality)];
+        int size = 0;
+        for (int i = 0; i < this.cardinality; i++) {
+            if (other.contains(this.content[i]) == keep) {
+                result[size++] = this.content[i];
+            }
+        }
+        return new ArrayContainer(result, size);
+    }
+
+    /**
+     * Count the values also present in another container.
+     *
+     * @param other Container to check.
+     * @return The number of values present in both containers.
+     */
+    int countIn(final RoaringContainer other) {
+        int count = 0;
+        for (int i = 0; i < this.cardinality; i++) {
+            if (other.contains(this.content[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Merge two sorted arrays.
+     *
+     * @param a First operand.
+     * @param b Second operand.
+     * @return A new container, a bitmap if the union is too large for an array.
+     */
+    static RoaringContainer or(final ArrayContainer a, final ArrayContainer b) {
+        char[] result = new char[a.cardinality + b.cardinality];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < a.cardinality && j < b.cardinality) {
+            char va = a.content[i];
+            char vb = b.content[j];
+            if (va < vb) {
+                result[size++] = va;
+                i++;
+            } else if (va > vb) {
+                result[size++] = vb;
+                j++;
+            } else {
+                result[size++] = va;
+                i++;
+                j++;
+            }
+        }
+        while (i < a.cardinality) {
+            result[size++] = a.content[i++];
+        }
+        while (j < b.cardinality) {
+            result[size++] = b.content[j++];
+        }
+        ArrayContainer union = new ArrayContainer(result, size);
+        return size > ARRAY_MAX_SIZE ? union.toBitmap() : union;
+    }
+}
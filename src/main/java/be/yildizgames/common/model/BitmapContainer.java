@@ -0,0 +1,305 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Container storing its values as bits of a fixed 8KB bitmap, used for more than ARRAY_MAX_SIZE values.
+ *
+ * @author Grégory Van den Borre
+ */
+final class BitmapContainer extends RoaringContainer {
+
+    /**
+     * Number of 64 bits words to hold 65536 bits.
+     */
+    private static final int WORDS = 1024;
+
+    /**
+     * Bits, value v is the bit v % 64 of the word v / 64.
+     */
+    private final long[] words;
+
+    /**
+     * Number of bits set.
+     */
+    private int cardinality;
+
+    BitmapContainer() {
+        this(new long[WORDS], 0);
+    }
+
+    private BitmapContainer(final long[] words, final int cardinality) {
+        super();
+        this.words = words;
+        this.cardinality = cardinality;
+    }
+
+    @Override
+    RoaringContainer add(final int low) {
+        this.set(low);
+        return this;
+    }
+
+    @Override
+    RoaringContainer remove(final int low) {
+        long bit = 1L << low;
+        int index = low >>> 6;
+        if ((this.words[index] & bit) != 0) {
+            this.words[index] &= ~bit;
+            this.cardinality--;
+            if (this.cardinality <= ARRAY_MAX_SIZE) {
+                return this.toArray();
+            }
+        }
+        return this;
+    }
+
+    @Override
+    boolean contains(final int low) {
+        return (this.words[low >>> 6] & (1L << low)) != 0;
+    }
+
+    @Override
+    int cardinality() {
+        return this.cardinality;
+    }
+
+    @Override
+    int numberOfRuns() {
+        int runs = 0;
+        long previousTop = 0;
+        for (long word : this.words) {
+            runs += Long.bitCount(word & ~((word << 1) | previousTop));
+            previousTop = word >>> 63;
+        }
+        return runs;
+    }
+
+    @Override
+    void forEach(final long base, final LongConsumer action) {
+        for (int i = 0; i < WORDS; i++) {
+            long word = this.words[i];
+            while (word != 0) {
+                action.accept(base | ((i << 6) + Long.numberOfTrailingZeros(word)));
+                word &= word - 1;
+            }
+        }
+    }
+
+    @Override
+    void forEachLow(final IntConsumer action) {
+        for (int i = 0; i < WORDS; i++) {
+            long word = this.words[i];
+            while (word != 0) {
+                action.accept((i << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    @Override
+    BitmapContainer toBitmap() {
+        return this;
+    }
+
+    @Override
+    BitmapContainer copy() {
+        return new BitmapContainer(this.words.clone(), this.cardinality);
+    }
+
+    @Override
+    int sizeInBytes() {
+        return BITMAP_BYTES;
+    }
+
+    /**
+     * Set a bit.
+     *
+     * @param low Value to add.
+     */
+    void set(final int low) {
+        long bit = 1L << low;
+        int index = low >>> 6;
+        if ((this.words[index] & bit) == 0) {
+            this.words[index] |= bit;
+            this.cardinality++;
+        }
+    }
+
+    /**
+     * Set a range of bits.
+     *
+     * @param start First value, inclusive.
+     * @param end   Last value, exclusive.
+     */
+    void setRange(final int start, final int end) {
+        this.applyRange(start, end, true);
+    }
+
+    /**
+     * Copy this bitmap if it is the original container, to avoid modifying an operand.
+     *
+     * @param source Container this bitmap was obtained from.
+     * @return A copy if this is source, this otherwise.
+     */
+    BitmapContainer copyIfSame(final RoaringContainer source) {
+        return this == source ? this.copy() : this;
+    }
+
+    /**
+     * Add the values of another container to this one.
+     *
+     * @param other Values to add.
+     * @return This container.
+     */
+    BitmapContainer orInPlace(final RoaringContainer other) {
+        if (other instanceof BitmapContainer) {
+            long[] otherWords = ((BitmapContainer) other).words;
+            for (int i = 0; i < WORDS; i++) {
+                this.words[i] |= otherWords[i];
+            }
+            this.computeCardinality();
+        } else if (other instanceof RunContainer) {
+            ((RunContainer) other).forEachRun(this::setRange);
+        } else {
+            other.forEachLow(this::set);
+        }
+        return this;
+    }
+
+    /**
+     * Keep only the values also present in another bitmap.
+     *
+     * @param other Values to keep.
+     * @return This container.
+     */
+    BitmapContainer andInPlace(final BitmapContainer other) {
+        for (int i = 0; i < WORDS; i++) {
+            this.words[i] &= other.words[i];
+        }
+        this.computeCardinality();
+        return this;
+    }
+
+    /**
+     * Remove the values present in another container.
+     *
+     * @param other Values to remove.
+     * @return This container.
+     */
+    BitmapContainer andNotInPlace(final RoaringContainer other) {
+        if (other instanceof BitmapContainer) {
+            long[] otherWords = ((BitmapContainer) other).words;
+            for (int i = 0; i < WORDS; i++) {
+                this.words[i] &= ~otherWords[i];
+            }
+            this.computeCardinality();
+        } else if (other instanceof RunContainer) {
+            ((RunContainer) other).forEachRun((start, end) -> this.applyRange(start, end, false));
+        } else {
+            other.forEachLow(this::clear);
+        }
+        return this;
+    }
+
+    /**
+     * @return An array container if the cardinality is low enough, this bitmap otherwise.
+     */
+    RoaringContainer normalize() {
+        return this.cardinality <= ARRAY_MAX_SIZE ? this.toArray() : this;
+    }
+
+    /**
+     * Compute the cardinality of the intersection of two bitmaps.
+     *
+     * @param a First operand.
+     * @param b Second operand.
+     * @return The number of bits set in both bitmaps.
+     */
+    static int andCardinality(final BitmapContainer a, final BitmapContainer b) {
+        int count = 0;
+        for (int i = 0; i < WORDS; i++) {
+            count += Long.bitCount(a.words[i] & b.words[i]);
+        }
+        return count;
+    }
+
+    private void clear(final int low) {
+        long bit = 1L << low;
+        int index = low >>> 6;
+        if ((this.words[index] & bit) != 0) {
+            this.words[index] &= ~bit;
+            this.cardinality--;
+        }
+    }
+
+    private void applyRange(final int start, final int end, final boolean set) {
+        if (start >= end) {
+            return;
+        }
+        int first = start >>> 6;
+        int last = (end - 1) >>> 6;
+        for (int i = first; i <= last; i++) {
+            long mask = -1L;
+            if (i == first) {
+                mask &= -1L << start;
+            }
+            if (i == last) {
+                mask &= -1L >>> -end;
+            }
+            int before = Long.bitCount(this.words[i]);
+            if (set) {
+                this.words[i] |= mask;
+            } else {
+                this.words[i] &= ~mask;
+            }
+            this.cardinality += Long.bitCount(this.words[i]) - before;
+        }
+    }
+
+    private void computeCardinality() {
+        int count = 0;
+        for (long word : this.words) {
+            count += Long.bitCount(word);
+        }
+        this.cardinality = count;
+    }
+
+    private ArrayContainer toArray() {
+        char[] content = new char[Math.max(1, this.cardinality)];
+        int size = 0;
+        for (int i = 0; i < WORDS; i++) {
+            long word = this.words[i];
+            while (word != 0) {
+                content[size++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return new ArrayContainer(content, size);
+    }
+}
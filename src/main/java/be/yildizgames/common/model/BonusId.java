@@ -24,13 +24,32 @@
  */
 package be.yildizgames.common.model;
 
+/**
+ * Thread safe class, ids are interned, values from 0 to 1023 are served from a preallocated array, this range can be
+ * changed at startup with the system property be.yildizgames.common.model.BonusId.cache.
+ *
+ * @author Grégory Van den Borre
+ */
 public class BonusId extends ValueObject {
 
+    /**
+     * List of all registered id with their value as key.
+     */
+    private static final ConcurrentIntInternPool<BonusId> LIST = new ConcurrentIntInternPool<>(BonusId::new,
+            CacheSize.of(BonusId.class));
+
     private BonusId(int value) {
         super(value);
     }
 
     public static BonusId valueOf(int value) {
-        return new BonusId(value);
+        return BonusId.LIST.intern(value);
+    }
+
+    /**
+     * @return The pool of the interned ids, for the metrics.
+     */
+    static InternPool pool() {
+        return BonusId.LIST;
     }
 }
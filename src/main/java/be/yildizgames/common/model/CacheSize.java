@@ -0,0 +1,70 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+/**
+ * Size of the dense caches of the id and value classes, read from the system property [class name].cache.
+ * The property must be set before the class is initialized. The value is clamped between 0, disabling the cache, and
+ * {@link #MAX}: it is read in static initializers, where an invalid size would make the class unusable.
+ *
+ * @author Grégory Van den Borre
+ */
+final class CacheSize {
+
+    /**
+     * Size used when the property is not set or not a number.
+     */
+    static final int DEFAULT = 1024;
+
+    /**
+     * Largest size allowed.
+     */
+    static final int MAX = 1 << 20;
+
+    private CacheSize() {
+        super();
+    }
+
+    /**
+     * Read the cache size for a class.
+     *
+     * @param type Class using the cache.
+     * @return The number of values to cache, between 0 and MAX.
+     */
+    static int of(final Class<?> type) {
+        return CacheSize.of(type.getName() + ".cache");
+    }
+
+    /**
+     * Read a cache size from a system property.
+     *
+     * @param property System property name.
+     * @return The number of values to cache, between 0 and MAX.
+     */
+    static int of(final String property) {
+        int size = Integer.getInteger(property, DEFAULT);
+        return Math.max(0, Math.min(size, MAX));
+    }
+}
@@ -0,0 +1,613 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Store entity components as structure of arrays: every component is a dense primitive column, the values of an entity
+ * are in the same row of all the columns, and a sparse index maps the ids to their row.
+ * Adding and removing an entity is O(1), a removed row is filled with the last one so the rows stay dense, and
+ * iterating over the rows reads the columns linearly. Rows can be split across a fork join pool for parallel systems,
+ * every task receiving a contiguous range.
+ * <p>
+ * The row of an entity changes when another one is removed, it must not be kept across structural modifications.
+ * <p>
+ * Not thread safe, the rows can be processed in parallel as long as no entity is added nor removed meanwhile.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class ComponentStore {
+
+    /**
+     * Sparse index, from id value to row.
+     */
+    private final EntityIdLongMap index;
+
+    /**
+     * Component columns.
+     */
+    private final List<Column> columns = new ArrayList<>();
+
+    /**
+     * Id value of every row.
+     */
+    private long[] ids;
+
+    /**
+     * Number of rows.
+     */
+    private int size;
+
+    /**
+     * Create a new empty store.
+     */
+    public ComponentStore() {
+        this(16);
+    }
+
+    /**
+     * Create a new empty store.
+     *
+     * @param expectedSize Number of entities expected to be stored before the store grows.
+     * @throws IllegalArgumentException If expectedSize is negative.
+     */
+    public ComponentStore(final int expectedSize) {
+        super();
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Invalid expected size: " + expectedSize);
+        }
+        this.index = new EntityIdLongMap(expectedSize, -1L);
+        this.ids = new long[Math.max(expectedSize, 1)];
+    }
+
+    /**
+     * Create a new int column, existing rows are set to 0.
+     *
+     * @return The created column.
+     */
+    public IntColumn intColumn() {
+        return this.register(new IntColumn(this.ids.length));
+    }
+
+    /**
+     * Create a new long column, existing rows are set to 0.
+     *
+     * @return The created column.
+     */
+    public LongColumn longColumn() {
+        return this.register(new LongColumn(this.ids.length));
+    }
+
+    /**
+     * Create a new float column, existing rows are set to 0.
+     *
+     * @return The created column.
+     */
+    public FloatColumn floatColumn() {
+        return this.register(new FloatColumn(this.ids.length));
+    }
+
+    /**
+     * Create a new double column, existing rows are set to 0.
+     *
+     * @return The created column.
+     */
+    public DoubleColumn doubleColumn() {
+        return this.register(new DoubleColumn(this.ids.length));
+    }
+
+    /**
+     * Add an entity, its components are set to 0.
+     *
+     * @param id Id to add.
+     * @return The row of the entity, the existing one if it was already present.
+     * @throws NullPointerException If id is null.
+     */
+    public int add(final EntityId id) {
+        return this.add(id.value);
+    }
+
+    /**
+     * Add an entity, its components are set to 0.
+     *
+     * @param id Id value to add.
+     * @return The row of the entity, the existing one if it was already present.
+     */
+    public int add(final long id) {
+        long existing = this.index.get(id);
+        if (existing >= 0) {
+            return (int) existing;
+        }
+        int row = this.size;
+        this.index.put(id, row);
+        if (row == this.ids.length) {
+            int capacity = Math.max(row + (row >> 1), row + 1);
+            this.ids = Arrays.copyOf(this.ids, capacity);
+            for (Column c : this.columns) {
+                c.grow(capacity);
+            }
+        }
+        this.ids[row] = id;
+        this.size++;
+        return row;
+    }
+
+    /**
+     * Remove an entity, the last row is moved to its place.
+     *
+     * @param id Id to remove.
+     * @return <code>true</code> if the entity was present.
+     * @throws NullPointerException If id is null.
+     */
+    public boolean remove(final EntityId id) {
+        return this.remove(id.value);
+    }
+
+    /**
+     * Remove an entity, the last row is moved to its place.
+     *
+     * @param id Id value to remove.
+     * @return <code>true</code> if the entity was present.
+     */
+    public boolean remove(final long id) {
+        long removed = this.index.remove(id);
+        if (removed < 0) {
+            return false;
+        }
+        int row = (int) removed;
+        int last = --this.size;
+        if (row != last) {
+            long moved = this.ids[last];
+            this.ids[row] = moved;
+            this.index.put(moved, row);
+        }
+        for (Column c : this.columns) {
+            c.move(last, row);
+        }
+        return true;
+    }
+
+    /**
+     * Remove all entities, the columns and the capacity are kept.
+     */
+    public void clear() {
+        for (Column c : this.columns) {
+            c.reset(this.size);
+        }
+        this.index.clear();
+        this.size = 0;
+    }
+
+    /**
+     * Retrieve the row of an entity.
+     *
+     * @param id Id to get.
+     * @return The row, or -1 if the entity is not present.
+     * @throws NullPointerException If id is null.
+     */
+    public int rowOf(final EntityId id) {
+        return this.rowOf(id.value);
+    }
+
+    /**
+     * Retrieve the row of an entity.
+     *
+     * @param id Id value to get.
+     * @return The row, or -1 if the entity is not present.
+     */
+    public int rowOf(final long id) {
+        return (int) this.index.get(id);
+    }
+
+    /**
+     * Check if an entity is present.
+     *
+     * @param id Id to check.
+     * @return <code>true</code> if the entity is present.
+     * @throws NullPointerException If id is null.
+     */
+    public boolean contains(final EntityId id) {
+        return this.index.containsKey(id);
+    }
+
+    /**
+     * Check if an entity is present.
+     *
+     * @param id Id value to check.
+     * @return <code>true</code> if the entity is present.
+     */
+    public boolean contains(final long id) {
+        return this.index.containsKey(id);
+    }
+
+    /**
+     * Retrieve the id value of a row.
+     *
+     * @param row Row to get.
+     * @return The id value stored in that row.
+     * @throws IndexOutOfBoundsException If the row is not lower than the size.
+     */
+    public long idAt(final int row) {
+        return this.ids[this.checkRow(row)];
+    }
+
+    /**
+     * @return The number of entities, rows are numbered from 0 to size - 1.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Call an action for every row, in row order.
+     *
+     * @param action Action to call with every row and its id value.
+     */
+    public void forEach(final RowConsumer action) {
+        long[] i = this.ids;
+        for (int row = 0; row < this.size; row++) {
+            action.accept(row, i[row]);
+        }
+    }
+
+    /**
+     * Process all the rows in parallel, they are split in contiguous ranges until a range is not larger than the
+     * threshold. The call returns when all ranges are processed.
+     *
+     * @param pool      Pool running the tasks.
+     * @param threshold Maximum number of rows processed by a single task.
+     * @param action    Action to call with every range.
+     * @throws IllegalArgumentException If threshold is lower than 1.
+     */
+    public void parallelForEach(final ForkJoinPool pool, final int threshold, final RangeConsumer action) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Invalid threshold: " + threshold);
+        }
+        if (this.size <= threshold) {
+            action.accept(0, this.size);
+        } else {
+            pool.invoke(new RangeTask(action, threshold, 0, this.size));
+        }
+    }
+
+    private <C extends Column> C register(final C column) {
+        this.columns.add(column);
+        return column;
+    }
+
+    private int checkRow(final int row) {
+        return ComponentStore.checkRow(row, this.size);
+    }
+
+    private static int checkRow(final int row, final int size) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", size: " + size);
+        }
+        return row;
+    }
+
+    /**
+     * Receive the rows of the store.
+     */
+    @FunctionalInterface
+    public interface RowConsumer {
+
+        /**
+         * Receive a row.
+         *
+         * @param row Row index.
+         * @param id  Id value stored in that row.
+         */
+        void accept(int row, long id);
+    }
+
+    /**
+     * Receive a range of rows of the store.
+     */
+    @FunctionalInterface
+    public interface RangeConsumer {
+
+        /**
+         * Receive a range.
+         *
+         * @param from First row, inclusive.
+         * @param to   Last row, exclusive.
+         */
+        void accept(int from, int to);
+    }
+
+    /**
+     * Fork join task splitting a range in two halves until it is small enough.
+     */
+    private static final class RangeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient RangeConsumer action;
+
+        private final int threshold;
+
+        private final int from;
+
+        private final int to;
+
+        private RangeTask(final RangeConsumer action, final int threshold, final int from, final int to) {
+            super();
+            this.action = action;
+            this.threshold = threshold;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= this.threshold) {
+                this.action.accept(this.from, this.to);
+            } else {
+                int middle = (this.from + this.to) >>> 1;
+                RecursiveAction.invokeAll(
+                        new RangeTask(this.action, this.threshold, this.from, middle),
+                        new RangeTask(this.action, this.threshold, middle, this.to));
+            }
+        }
+    }
+
+    /**
+     * Column of the store, storing one component value per row.
+     */
+    abstract static class Column {
+
+        /**
+         * Grow the column.
+         *
+         * @param capacity New capacity.
+         */
+        abstract void grow(int capacity);
+
+        /**
+         * Move a value to another row and reset the source one.
+         *
+         * @param from Source row.
+         * @param to   Destination row.
+         */
+        abstract void move(int from, int to);
+
+        /**
+         * Reset the first rows to 0.
+         *
+         * @param size Number of rows to reset.
+         */
+        abstract void reset(int size);
+    }
+
+    /**
+     * Column of int values.
+     */
+    public final class IntColumn extends Column {
+
+        private int[] values;
+
+        private IntColumn(final int capacity) {
+            super();
+            this.values = new int[capacity];
+        }
+
+        /**
+         * Retrieve the value of a row.
+         *
+         * @param row Row to get.
+         * @return The value.
+         * @throws IndexOutOfBoundsException If the row is not lower than the store size.
+         */
+        public int get(final int row) {
+            return this.values[ComponentStore.this.checkRow(row)];
+        }
+
+        /**
+         * Set the value of a row.
+         *
+         * @param row   Row to set.
+         * @param value Value to set.
+         * @throws IndexOutOfBoundsException If the row is not lower than the store size.
+         */
+        public void set(final int row, final int value) {
+            this.values[ComponentStore.this.checkRow(row)] = value;
+        }
+
+        @Override
+        void grow(final int capacity) {
+            this.values = Arrays.copyOf(this.values, capacity);
+        }
+
+        @Override
+        void move(final int from, final int to) {
+            this.values[to] = this.values[from];
+            this.values[from] = 0;
+        }
+
+        @Override
+        void reset(final int size) {
+            Arrays.fill(this.values, 0, size, 0);
+        }
+    }
+
+    /**
+     * Column of long values.
+     */
+    public final class LongColumn extends Column {
+
+        private long[] values;
+
+        private LongColumn(final int capacity) {
+            super();
+            this.values = new long[capacity];
+        }
+
+        /**
+         * Retrieve the value of a row.
+         *
+         * @param row Row to get.
+         * @return The value.
+         * @throws IndexOutOfBoundsException If the row is not lower than the store size.
+         */
+        public long get(final int row) {
+            return this.values[ComponentStore.this.checkRow(row)];
+        }
+
+        /**
+         * Set the value of a row.
+         *
+         * @param row   Row to set.
+         * @param value Value to set.
+         * @throws IndexOutOfBoundsException If the row is not lower than the store size.
+         */
+        public void set(final int row, final long value) {
+            this.values[ComponentStore.this.checkRow(row)] = value;
+        }
+
+        @Override
+        void grow(final int capacity) {
+            this.values = Arrays.copyOf(this.values, capacity);
+        }
+
+        @Override
+        void move(final int from, final int to) {
+            this.values[to] = this.values[from];
+            this.values[from] = 0L;
+        }
+
+        @Override
+        void reset(final int size) {
+            Arrays.fill(this.values, 0, size, 0L);
+        }
+    }
+
+    /**
+     * Column of float values.
+     */
+    public final class FloatColumn extends Column {
+
+        private float[] values;
+
+        private FloatColumn(final int capacity) {
+            super();
+            this.values = new float[capacity];
+        }
+
+        /**
+         * Retrieve the value of a row.
+         *
+         * @param row Row to get.
+         * @return The value.
+         * @throws IndexOutOfBoundsException If the row is not lower than the store size.
+         */
+        public float get(final int row) {
+            return this.values[ComponentStore.this.checkRow(row)];
+        }
+
+        /**
+         * Set the value of a row.
+         *
+         * @param row   Row to set.
+         * @param value Value to set.
+         * @throws IndexOutOfBoundsException If the row is not lower than the store size.
+         */
+        public void set(final int row, final float value) {
+            this.values[ComponentStore.this.checkRow(row)] = value;
+        }
+
+        @Override
+        void grow(final int capacity) {
+            this.values = Arrays.copyOf(this.values, capacity);
+        }
+
+        @Override
+        void move(final int from, final int to) {
+            this.values[to] = this.values[from];
+            this.values[from] = 0f;
+        }
+
+        @Override
+        void reset(final int size) {
+            Arrays.fill(this.values, 0, size, 0f);
+        }
+    }
+
+    /**
+     * Column of double values.
+     */
+    public final class DoubleColumn extends Column {
+
+        private double[] values;
+
+        private DoubleColumn(final int capacity) {
+            super();
+            this.values = new double[capacity];
+        }
+
+        /**
+         * Retrieve the value of a row.
+         *
+         * @param row Row to get.
+         * @return The value.
+         * @throws IndexOutOfBoundsException If the row is not lower than the store size.
+         */
+        public double get(final int row) {
+            return this.values[ComponentStore.this.checkRow(row)];
+        }
+
+        /**
+         * Set the value of a row.
+         *
+         * @param row   Row to set.
+         * @param value Value to set.
+         * @throws IndexOutOfBoundsException If the row is not lower than the store size.
+         */
+        public void set(final int row, final double value) {
+            this.values[ComponentStore.this.checkRow(row)] = value;
+        }
+
+        @Override
+        void grow(final int capacity) {
+            this.values = Arrays.copyOf(this.values, capacity);
+        }
+
+        @Override
+        void move(final int from, final int to) {
+            this.values[to] = this.values[from];
+            this.values[from] = 0d;
+        }
+
+        @Override
+        void reset(final int size) {
+            Arrays.fill(this.values, 0, size, 0d);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * Concurrent intern pool for value objects, identified by their primitive int value.
+ * <p>
+ * Values in the range [0, cacheSize[ are served from a dense array indexed by the value, a lookup is then a single
+ * bound check without hashing nor probing. The array is allocated upfront, its objects are created on first use and
+ * published with a compare and set.
+ * <p>
+ * The other values are delegated to a ConcurrentLongInternPool, with the int values widened to long: both pools share
+ * the same open addressing table and resize protocol, and the same usage counters.
+ * <p>
+ * Thread safe class.
+ *
+ * @param <T> Type of the interned objects.
+ * @author Grégory Van den Borre
+ */
+final class ConcurrentIntInternPool<T extends ValueObject> implements InternPool {
+
+    /**
+     * Default initial capacity.
+     */
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * Estimated size of an array header.
+     */
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    /**
+     * Create the object to intern for a value not yet in the pool.
+     */
+    private final IntFunction<T> factory;
+
+    /**
+     * Objects for the values in the range [0, cache length[, indexed by their value.
+     */
+    private final AtomicReferenceArray<T> cache;
+
+    /**
+     * Number of objects interned in the dense array.
+     */
+    private final AtomicInteger cached = new AtomicInteger();
+
+    /**
+     * Usage counters, shared with the table.
+     */
+    private final PoolStatistics statistics = new PoolStatistics();
+
+    /**
+     * Pool for the values outside of the dense array.
+     */
+    private final ConcurrentLongInternPool<T> table;
+
+    /**
+     * Create a new pool.
+     *
+     * @param factory   Create the object to intern for a value not yet in the pool.
+     * @param cacheSize Number of values, starting from 0, served by the dense array.
+     */
+    ConcurrentIntInternPool(final IntFunction<T> factory, final int cacheSize) {
+        this(factory, cacheSize, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a new pool.
+     *
+     * @param factory      Create the object to intern for a value not yet in the pool.
+     * @param cacheSize    Number of values, starting from 0, served by the dense array.
+     * @param expectedSize Number of objects expected to be interned in the table before the first resize.
+     */
+    ConcurrentIntInternPool(final IntFunction<T> factory, final int cacheSize, final int expectedSize) {
+        super();
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("Invalid cache size: " + cacheSize);
+        }
+        this.factory = factory;
+        this.cache = new AtomicReferenceArray<>(cacheSize);
+        this.table = new ConcurrentLongInternPool<>(v -> factory.apply((int) v), t -> t.value, expectedSize, this.statistics);
+    }
+
+    /**
+     * Retrieve the object interned for a value, creating it if it does not exist yet.
+     * Concurrent calls with the same value always return the same instance.
+     *
+     * @param value Value to retrieve.
+     * @return The unique object for that value.
+     */
+    T intern(final int value) {
+        if (value >= 0 && value < this.cache.length()) {
+            T interned = this.cache.get(value);
+            if (interned == null) {
+                return this.internInCache(value);
+            }
+            this.statistics.hit();
+            return interned;
+        }
+        return this.table.intern(value);
+    }
+
+    /**
+     * Retrieve the object interned for a value, without creating it.
+     *
+     * @param value Value to retrieve.
+     * @return The interned object, or null if none exists for that value.
+     */
+    T get(final int value) {
+        if (value >= 0 && value < this.cache.length()) {
+            return this.cache.get(value);
+        }
+        return this.table.get(value);
+    }
+
+    @Override
+    public int size() {
+        return this.cached.get() + this.table.size();
+    }
+
+    /**
+     * @return The current table capacity.
+     */
+    int capacity() {
+        return this.table.capacity();
+    }
+
+    /**
+     * @return The number of values served by the dense array.
+     */
+    int cacheSize() {
+        return this.cache.length();
+    }
+
+    @Override
+    public long overheadBytes() {
+        return ARRAY_HEADER_BYTES + 4L * this.cache.length() + this.table.overheadBytes();
+    }
+
+    @Override
+    public PoolStatistics statistics() {
+        return this.statistics;
+    }
+
+    private T internInCache(final int value) {
+        this.statistics.miss();
+        T candidate = this.factory.apply(value);
+        if (this.cache.compareAndSet(value, null, candidate)) {
+            this.statistics.insert();
+            this.cached.incrementAndGet();
+            return candidate;
+        }
+        this.statistics.contention();
+        return this.cache.get(value);
+    }
+}
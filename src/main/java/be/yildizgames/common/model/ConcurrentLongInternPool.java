@@ -0,0 +1,325 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Concurrent intern pool for objects identified by a primitive long value.
+ * <p>
+ * The pool is an open addressing table with linear probing. Entries are never removed, a lookup is a lock free read
+ * of the table slots and a new entry is published with a single compare and set on an empty slot, an interned object is
+ * then safely published to every thread.
+ * <p>
+ * When the table is too full, one thread copies it into a larger one. The larger table is linked from the old one
+ * before the copy starts, and every empty slot of the old table is marked as moved. A lookup reaching a moved slot
+ * knows the value is not in the old table and continues in the larger one without waiting, an insertion reaching it
+ * is done in the larger one, where the copied entries are also placed with a compare and set. Only the threads whose
+ * insertion requires another resize while a copy is running wait for that copy to complete.
+ * <p>
+ * The number of entries is kept in a LongAdder, so insertions do not contend on a single counter. It is only summed
+ * after a sample of the insertions, and after every insertion that needed to probe, was done in a small table or in a
+ * table still being filled by a copy: the table can exceed its load factor by a few entries, but never gets full.
+ * <p>
+ * Entries are strongly referenced and never removed.
+ * <p>
+ * Thread safe class.
+ *
+ * @param <T> Type of the interned objects.
+ * @author Grégory Van den Borre
+ */
+final class ConcurrentLongInternPool<T> implements LongInternPool<T> {
+
+    /**
+     * Marker set in the empty slots of a table being copied.
+     */
+    private static final Object MOVED = new Object();
+
+    /**
+     * Estimated size of an array header.
+     */
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    /**
+     * Default initial capacity.
+     */
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * Largest table in which every insertion checks the size.
+     */
+    private static final int SMALL_TABLE = 64;
+
+    /**
+     * Mask of the slot indexes checking the size after an insertion without probing, one in 32.
+     */
+    private static final int SAMPLE_MASK = 31;
+
+    /**
+     * Create the object to intern for a value not yet in the pool.
+     */
+    private final LongFunction<T> factory;
+
+    /**
+     * Retrieve the value of an interned object.
+     */
+    private final ToLongFunction<T> valueExtractor;
+
+    /**
+     * Number of interned objects.
+     */
+    private final LongAdder size = new LongAdder();
+
+    /**
+     * Usage counters.
+     */
+    private final PoolStatistics statistics;
+
+    /**
+     * Lock held by the thread resizing the table.
+     */
+    private final ReentrantLock resizeLock = new ReentrantLock();
+
+    /**
+     * Current table.
+     */
+    private volatile Table table;
+
+    /**
+     * Create a new pool.
+     *
+     * @param factory        Create the object to intern for a value not yet in the pool.
+     * @param valueExtractor Retrieve the value of an interned object.
+     */
+    ConcurrentLongInternPool(final LongFunction<T> factory, final ToLongFunction<T> valueExtractor) {
+        this(factory, valueExtractor, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a new pool.
+     *
+     * @param factory        Create the object to intern for a value not yet in the pool.
+     * @param valueExtractor Retrieve the value of an interned object.
+     * @param expectedSize   Number of objects expected to be interned before the first resize.
+     */
+    ConcurrentLongInternPool(final LongFunction<T> factory, final ToLongFunction<T> valueExtractor, final int expectedSize) {
+        this(factory, valueExtractor, expectedSize, new PoolStatistics());
+    }
+
+    /**
+     * Create a new pool.
+     *
+     * @param factory        Create the object to intern for a value not yet in the pool.
+     * @param valueExtractor Retrieve the value of an interned object.
+     * @param expectedSize   Number of objects expected to be interned before the first resize.
+     * @param statistics     Usage counters to update, can be shared with another pool.
+     */
+    ConcurrentLongInternPool(final LongFunction<T> factory, final ToLongFunction<T> valueExtractor, final int expectedSize,
+                             final PoolStatistics statistics) {
+        super();
+        this.factory = factory;
+        this.valueExtractor = valueExtractor;
+        this.statistics = statistics;
+        this.table = new Table(Hashing.capacity(expectedSize, 0.5f));
+    }
+
+    @Override
+    public T intern(final long value) {
+        Table tab = this.table;
+        T candidate = null;
+        int probes = 0;
+        while (true) {
+            AtomicReferenceArray<Object> slots = tab.slots;
+            int mask = slots.length() - 1;
+            int index = Hashing.mix(value) & mask;
+            Object current;
+            while ((current = slots.get(index)) != MOVED) {
+                if (current == null) {
+                    if (candidate == null) {
+                        this.statistics.miss();
+                        candidate = this.factory.apply(value);
+                    }
+                    if (slots.compareAndSet(index, null, candidate)) {
+                        this.statistics.insert();
+                        this.size.increment();
+                        if ((probes > 0 || mask < SMALL_TABLE || (index & SAMPLE_MASK) == 0 || tab != this.table)
+                                && this.size.sum() > threshold(slots)) {
+                            this.resize(tab);
+                        }
+                        return candidate;
+                    }
+                    this.statistics.contention();
+                } else {
+                    @SuppressWarnings("unchecked")
+                    T interned = (T) current;
+                    if (this.valueExtractor.applyAsLong(interned) == value) {
+                        if (candidate == null) {
+                            this.statistics.hit();
+                        }
+                        return interned;
+                    }
+                    index = (index + 1) & mask;
+                    probes++;
+                }
+            }
+            tab = tab.next;
+        }
+    }
+
+    @Override
+    public T get(final long value) {
+        Table tab = this.table;
+        while (true) {
+            AtomicReferenceArray<Object> slots = tab.slots;
+            int mask = slots.length() - 1;
+            int index = Hashing.mix(value) & mask;
+            Object current;
+            while ((current = slots.get(index)) != MOVED) {
+                if (current == null) {
+                    return null;
+                }
+                @SuppressWarnings("unchecked")
+                T interned = (T) current;
+                if (this.valueExtractor.applyAsLong(interned) == value) {
+                    return interned;
+                }
+                index = (index + 1) & mask;
+            }
+            tab = tab.next;
+        }
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(this.size.sum(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public long overheadBytes() {
+        return ARRAY_HEADER_BYTES + 4L * this.table.slots.length();
+    }
+
+    @Override
+    public PoolStatistics statistics() {
+        return this.statistics;
+    }
+
+    /**
+     * @return The current table capacity.
+     */
+    int capacity() {
+        return this.table.slots.length();
+    }
+
+    /**
+     * Copy the table into a new one twice larger.
+     * The new table is linked from the old one before every empty slot of the old table is replaced by MOVED, a thread
+     * reaching a MOVED slot can then always continue in the new table, and an insertion can never be lost in the old
+     * one. Entries never move in the old table, a value found there is the interned one. Entries are copied with a
+     * compare and set, as other threads can already insert in the new table. Once the copy is done, the size is
+     * checked again, as the insertions done meanwhile did not trigger a resize.
+     *
+     * @param full Table having reached its threshold.
+     */
+    private void resize(final Table full) {
+        // Already copied or being copied, the copying thread checks the size again once done.
+        if (full.next != null) {
+            return;
+        }
+        this.resizeLock.lock();
+        try {
+            // The table may be the next one of a copy in progress, it is only resized once published.
+            if (this.table != full) {
+                return;
+            }
+            AtomicReferenceArray<Object> old = full.slots;
+            Table next = new Table(old.length() << 1);
+            full.next = next;
+            AtomicReferenceArray<Object> slots = next.slots;
+            int mask = slots.length() - 1;
+            for (int i = 0; i < old.length(); i++) {
+                Object current = old.get(i);
+                while (current == null) {
+                    if (old.compareAndSet(i, null, MOVED)) {
+                        current = MOVED;
+                    } else {
+                        current = old.get(i);
+                    }
+                }
+                if (current != MOVED) {
+                    @SuppressWarnings("unchecked")
+                    T interned = (T) current;
+                    int index = Hashing.mix(this.valueExtractor.applyAsLong(interned)) & mask;
+                    while (!slots.compareAndSet(index, null, current)) {
+                        index = (index + 1) & mask;
+                    }
+                }
+            }
+            this.table = next;
+        } finally {
+            this.resizeLock.unlock();
+        }
+        // Insertions done in the next table during the copy may have filled it already.
+        Table current = this.table;
+        if (this.size.sum() > threshold(current.slots)) {
+            this.resize(current);
+        }
+    }
+
+    /**
+     * Compute the number of entries triggering a resize.
+     *
+     * @param slots Table to check.
+     * @return Half the table capacity.
+     */
+    private static int threshold(final AtomicReferenceArray<Object> slots) {
+        return slots.length() >>> 1;
+    }
+
+    /**
+     * Slots of the pool, linked to the larger table they are copied to.
+     */
+    private static final class Table {
+
+        /**
+         * Slots, capacity is always a power of two.
+         */
+        private final AtomicReferenceArray<Object> slots;
+
+        /**
+         * Larger table, set before the first slot is marked as MOVED.
+         */
+        private volatile Table next;
+
+        private Table(final int capacity) {
+            super();
+            this.slots = new AtomicReferenceArray<>(capacity);
+        }
+    }
+}
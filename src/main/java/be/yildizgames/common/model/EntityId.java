@@ -24,13 +24,13 @@
 
 package be.yildizgames.common.model;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * An id represent an unique instance of a class of object. The same id can be shared between different class but two objects of the same class cannot have the same id.
  * <p>
- * Immutable class.
+ * Immutable and thread safe class, valueOf can be called concurrently from any thread.
+ * <p>
+ * By default, every registered id is kept forever. When the system property WEAK_INTERNING_PROPERTY is true, ids are
+ * weakly registered: an id is still unique as long as it is referenced, and is reclaimed once it is not anymore.
  *
  * @author Grégory Van den Borre
  */
@@ -41,15 +41,23 @@ public final class EntityId {
      */
     private static final long WORLD_VALUE = 0L;
 
+    /**
+     * System property to set to true at startup to only keep weak references to the registered ids, an id no longer
+     * used can then be garbage collected instead of being kept forever.
+     */
+    public static final String WEAK_INTERNING_PROPERTY = "be.yildizgames.common.model.EntityId.weak";
+
     /**
      * List of all registered id with their value as key.
      */
-    private static final Map<Long, EntityId> LIST = new HashMap<>();
+    private static final LongInternPool<EntityId> LIST = Boolean.getBoolean(EntityId.WEAK_INTERNING_PROPERTY)
+            ? new WeakLongInternPool<>(EntityId::new)
+            : new ConcurrentLongInternPool<>(EntityId::new, id -> id.value);
 
     /**
      * Constant id for the world.
      */
-    public static final EntityId WORLD = new EntityId(EntityId.WORLD_VALUE);
+    public static final EntityId WORLD = EntityId.valueOf(EntityId.WORLD_VALUE);
 
     /**
      * Id value, it is immutable.
@@ -63,14 +71,14 @@ public final class EntityId {
 
     /**
      * Full constructor, private to prevent use, to create an id, retrieve it from Id.get.
+     * The instance is only registered by the pool once fully built.
      *
      * @param idValue Initialize the wrapped value.
      */
     private EntityId(final long idValue) {
         super();
         this.value = idValue;
-        EntityId.LIST.putIfAbsent(this.value, this);
-        this.hashCode = Long.valueOf(this.value).hashCode();
+        this.hashCode = Long.hashCode(this.value);
     }
 
     /**
@@ -80,10 +88,14 @@ public final class EntityId {
      * @return The Id with the internal value correspond to the parameter.
      */
     public static EntityId valueOf(final long value) {
-        if (!EntityId.LIST.containsKey(value)) {
-            EntityId.LIST.put(value, new EntityId(value));
-        }
-        return EntityId.LIST.get(value);
+        return EntityId.LIST.intern(value);
+    }
+
+    /**
+     * @return The pool of the interned ids, for the metrics.
+     */
+    static InternPool pool() {
+        return EntityId.LIST;
     }
 
     /**
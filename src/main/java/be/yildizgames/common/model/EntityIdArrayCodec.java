@@ -0,0 +1,197 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Bulk binary encoding of EntityId value arrays.
+ * <p>
+ * The array is written as its length, its first value and then the difference between each value and the previous
+ * one, all in the variable length format of {@link IdCodec}. Sorted or nearly sorted arrays of close ids are then
+ * encoded on one or two bytes per id, unsorted arrays are still supported, only less compact.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class EntityIdArrayCodec {
+
+    private EntityIdArrayCodec() {
+        super();
+    }
+
+    /**
+     * Encode an array of id values.
+     *
+     * @param buffer Buffer to write into.
+     * @param ids    Values to encode.
+     * @return The number of bytes written.
+     * @throws java.nio.BufferOverflowException If there is not enough room in the buffer.
+     */
+    public static int encode(final ByteBuffer buffer, final long[] ids) {
+        return encode(buffer, ids, 0, ids.length);
+    }
+
+    /**
+     * Encode a range of an array of id values.
+     *
+     * @param buffer Buffer to write into.
+     * @param ids    Values to encode.
+     * @param offset First value index.
+     * @param length Number of values to encode.
+     * @return The number of bytes written.
+     * @throws java.nio.BufferOverflowException If there is not enough room in the buffer.
+     * @throws IndexOutOfBoundsException If the range is not within the array.
+     */
+    public static int encode(final ByteBuffer buffer, final long[] ids, final int offset, final int length) {
+        Objects.checkFromIndexSize(offset, length, ids.length);
+        int start = buffer.position();
+        IdCodec.writeVarInt(buffer, length);
+        long previous = 0;
+        for (int i = offset; i < offset + length; i++) {
+            IdCodec.writeVarLong(buffer, ids[i] - previous);
+            previous = ids[i];
+        }
+        return buffer.position() - start;
+    }
+
+    /**
+     * Compute the encoded size of a range of an array of id values.
+     *
+     * @param ids    Values to encode.
+     * @param offset First value index.
+     * @param length Number of values to encode.
+     * @return The number of bytes needed.
+     * @throws IndexOutOfBoundsException If the range is not within the array.
+     */
+    public static int encodedSize(final long[] ids, final int offset, final int length) {
+        Objects.checkFromIndexSize(offset, length, ids.length);
+        int size = IdCodec.varIntSize(length);
+        long previous = 0;
+        for (int i = offset; i < offset + length; i++) {
+            size += IdCodec.varLongSize(ids[i] - previous);
+            previous = ids[i];
+        }
+        return size;
+    }
+
+    /**
+     * Decode a full array of id values.
+     *
+     * @param buffer Buffer to read from.
+     * @return The decoded values.
+     * @throws IllegalArgumentException If the content is malformed.
+     */
+    public static long[] decode(final ByteBuffer buffer) {
+        Decoder decoder = new Decoder(buffer);
+        long[] result = new long[decoder.remaining()];
+        decoder.read(result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * Streaming decoder, reading an encoded array in chunks into a caller supplied array.
+     * A decoder can be reused for another encoded array with {@link #reset(ByteBuffer)}.
+     * Not thread safe.
+     */
+    public static final class Decoder {
+
+        /**
+         * Buffer to read from.
+         */
+        private ByteBuffer buffer;
+
+        /**
+         * Number of values not yet decoded.
+         */
+        private int remaining;
+
+        /**
+         * Last decoded value.
+         */
+        private long previous;
+
+        /**
+         * Create a new decoder and read the header of an encoded array.
+         *
+         * @param buffer Buffer to read from.
+         * @throws IllegalArgumentException If the header is malformed or announces more values than the buffer can hold.
+         */
+        public Decoder(final ByteBuffer buffer) {
+            super();
+            this.reset(buffer);
+        }
+
+        /**
+         * Start decoding a new encoded array.
+         *
+         * @param buffer Buffer to read from.
+         * @throws IllegalArgumentException If the header is malformed or announces more values than the buffer can hold.
+         */
+        public void reset(final ByteBuffer buffer) {
+            int count = IdCodec.readVarInt(buffer);
+            if (count < 0) {
+                throw new IllegalArgumentException("Negative id count: " + count);
+            }
+            // Every value takes at least one byte, a larger count cannot be decoded and must not size an allocation.
+            if (count > buffer.remaining()) {
+                throw new IllegalArgumentException("Id count " + count + " larger than the " + buffer.remaining() + " remaining bytes");
+            }
+            this.buffer = buffer;
+            this.remaining = count;
+            this.previous = 0;
+        }
+
+        /**
+         * Decode the next values.
+         *
+         * @param destination Array to write the values into.
+         * @param offset      First index to write.
+         * @param length      Maximum number of values to decode.
+         * @return The number of values decoded, 0 once the array is fully decoded.
+         * @throws IndexOutOfBoundsException If the range is not within the destination array.
+         * @throws IllegalArgumentException If the content is malformed.
+         */
+        public int read(final long[] destination, final int offset, final int length) {
+            Objects.checkFromIndexSize(offset, length, destination.length);
+            int count = Math.min(length, this.remaining);
+            long value = this.previous;
+            for (int i = offset; i < offset + count; i++) {
+                value += IdCodec.readVarLong(this.buffer);
+                destination[i] = value;
+            }
+            this.previous = value;
+            this.remaining -= count;
+            return count;
+        }
+
+        /**
+         * @return The number of values not yet decoded.
+         */
+        public int remaining() {
+            return this.remaining;
+        }
+    }
+}
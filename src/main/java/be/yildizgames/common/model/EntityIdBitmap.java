@@ -0,0 +1,386 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Compressed bitmap set of EntityId values, stays compact for clustered as well as sparse ids.
+ * <p>
+ * Ids are split on their 48 high bits, each distinct high part owning a container of the 16 low bits. Depending on
+ * its content, a container is a sorted array (sparse values), a 8KB bitmap (dense values) or a list of runs (clustered
+ * values, after runOptimize). Union, intersection and difference work container by container and never box any id.
+ * <p>
+ * Not thread safe.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class EntityIdBitmap {
+
+    /**
+     * High parts of the ids, sorted.
+     */
+    private long[] keys;
+
+    /**
+     * Containers, in the same order as their high part.
+     */
+    private RoaringContainer[] containers;
+
+    /**
+     * Number of containers.
+     */
+    private int count;
+
+    /**
+     * Create a new empty bitmap.
+     */
+    public EntityIdBitmap() {
+        this(4);
+    }
+
+    private EntityIdBitmap(final int capacity) {
+        super();
+        this.keys = new long[Math.max(1, capacity)];
+        this.containers = new RoaringContainer[Math.max(1, capacity)];
+    }
+
+    /**
+     * Create a bitmap containing some ids.
+     *
+     * @param ids Id values to add.
+     * @return The new bitmap.
+     */
+    public static EntityIdBitmap of(final long... ids) {
+        EntityIdBitmap bitmap = new EntityIdBitmap();
+        for (long id : ids) {
+            bitmap.add(id);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Add an id.
+     *
+     * @param id Id to add.
+     * @throws NullPointerException If id is null.
+     */
+    public void add(final EntityId id) {
+        this.add(id.value);
+    }
+
+    /**
+     * Add an id.
+     *
+     * @param id Id value to add.
+     */
+    public void add(final long id) {
+        long high = high(id);
+        int index = Arrays.binarySearch(this.keys, 0, this.count, high);
+        if (index >= 0) {
+            this.containers[index] = this.containers[index].add(low(id));
+        } else {
+            this.insertAt(-index - 1, high, new ArrayContainer().add(low(id)));
+        }
+    }
+
+    /**
+     * Remove an id.
+     *
+     * @param id Id to remove.
+     * @throws NullPointerException If id is null.
+     */
+    public void remove(final EntityId id) {
+        this.remove(id.value);
+    }
+
+    /**
+     * Remove an id.
+     *
+     * @param id Id value to remove.
+     */
+    public void remove(final long id) {
+        int index = Arrays.binarySearch(this.keys, 0, this.count, high(id));
+        if (index >= 0) {
+            RoaringContainer container = this.containers[index].remove(low(id));
+            if (container.cardinality() == 0) {
+                this.removeAt(index);
+            } else {
+                this.containers[index] = container;
+            }
+        }
+    }
+
+    /**
+     * Check if an id is present.
+     *
+     * @param id Id to check.
+     * @return <code>true</code> if the id is present.
+     * @throws NullPointerException If id is null.
+     */
+    public boolean contains(final EntityId id) {
+        return this.contains(id.value);
+    }
+
+    /**
+     * Check if an id is present.
+     *
+     * @param id Id value to check.
+     * @return <code>true</code> if the id is present.
+     */
+    public boolean contains(final long id) {
+        int index = Arrays.binarySearch(this.keys, 0, this.count, high(id));
+        return index >= 0 && this.containers[index].contains(low(id));
+    }
+
+    /**
+     * @return The number of ids.
+     */
+    public long cardinality() {
+        long cardinality = 0;
+        for (int i = 0; i < this.count; i++) {
+            cardinality += this.containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    /**
+     * @return <code>true</code> if there is no id.
+     */
+    public boolean isEmpty() {
+        return this.count == 0;
+    }
+
+    /**
+     * Compute the union of this bitmap and another one.
+     *
+     * @param other Other operand.
+     * @return A new bitmap with the ids present in any of the two.
+     */
+    public EntityIdBitmap or(final EntityIdBitmap other) {
+        EntityIdBitmap result = new EntityIdBitmap(this.count + other.count);
+        int i = 0;
+        int j = 0;
+        while (i < this.count && j < other.count) {
+            if (this.keys[i] < other.keys[j]) {
+                result.append(this.keys[i], this.containers[i++].copy());
+            } else if (this.keys[i] > other.keys[j]) {
+                result.append(other.keys[j], other.containers[j++].copy());
+            } else {
+                result.append(this.keys[i], RoaringContainer.or(this.containers[i++], other.containers[j++]));
+            }
+        }
+        while (i < this.count) {
+            result.append(this.keys[i], this.containers[i++].copy());
+        }
+        while (j < other.count) {
+            result.append(other.keys[j], other.containers[j++].copy());
+        }
+        return result;
+    }
+
+    /**
+     * Compute the intersection of this bitmap and another one.
+     *
+     * @param other Other operand.
+     * @return A new bitmap with the ids present in both.
+     */
+    public EntityIdBitmap and(final EntityIdBitmap other) {
+        EntityIdBitmap result = new EntityIdBitmap(Math.min(this.count, other.count));
+        int i = 0;
+        int j = 0;
+        while (i < this.count && j < other.count) {
+            if (this.keys[i] < other.keys[j]) {
+                i++;
+            } else if (this.keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.appendIfNotEmpty(this.keys[i], RoaringContainer.and(this.containers[i++], other.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compute the difference of this bitmap and another one.
+     *
+     * @param other Ids to exclude.
+     * @return A new bitmap with the ids of this one not present in other.
+     */
+    public EntityIdBitmap andNot(final EntityIdBitmap other) {
+        EntityIdBitmap result = new EntityIdBitmap(this.count);
+        int i = 0;
+        int j = 0;
+        while (i < this.count) {
+            if (j == other.count || this.keys[i] < other.keys[j]) {
+                result.append(this.keys[i], this.containers[i++].copy());
+            } else if (this.keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.appendIfNotEmpty(this.keys[i], RoaringContainer.andNot(this.containers[i++], other.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compute the number of ids present in this bitmap and another one, without building the intersection.
+     *
+     * @param other Other operand.
+     * @return The cardinality of the intersection.
+     */
+    public long andCardinality(final EntityIdBitmap other) {
+        long cardinality = 0;
+        int i = 0;
+        int j = 0;
+        while (i < this.count && j < other.count) {
+            if (this.keys[i] < other.keys[j]) {
+                i++;
+            } else if (this.keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                cardinality += RoaringContainer.andCardinality(this.containers[i++], other.containers[j++]);
+            }
+        }
+        return cardinality;
+    }
+
+    /**
+     * Convert every container to its smallest representation, clustered ids are then stored as runs.
+     * To call once a bitmap has been built and will mostly be read.
+     */
+    public void runOptimize() {
+        for (int i = 0; i < this.count; i++) {
+            this.containers[i] = RoaringContainer.optimize(this.containers[i]);
+        }
+    }
+
+    /**
+     * Call an action for every id, in ascending order, without boxing them.
+     *
+     * @param action Action to call with every id value.
+     */
+    public void forEach(final LongConsumer action) {
+        for (int i = 0; i < this.count; i++) {
+            this.containers[i].forEach(this.keys[i] << 16, action);
+        }
+    }
+
+    /**
+     * Copy the ids in a new array.
+     *
+     * @return The id values, in ascending order.
+     * @throws IllegalStateException If there are too many ids for an array.
+     */
+    public long[] toArray() {
+        long cardinality = this.cardinality();
+        if (cardinality > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Too many ids: " + cardinality);
+        }
+        long[] result = new long[(int) cardinality];
+        int offset = 0;
+        for (int i = 0; i < this.count; i++) {
+            RoaringContainer container = this.containers[i];
+            long base = this.keys[i] << 16;
+            container.forEachLow(new LowWriter(result, offset, base));
+            offset += container.cardinality();
+        }
+        return result;
+    }
+
+    /**
+     * @return The approximate memory used by the ids, in bytes.
+     */
+    public long sizeInBytes() {
+        long size = (long) this.count * (Long.BYTES + Integer.BYTES);
+        for (int i = 0; i < this.count; i++) {
+            size += this.containers[i].sizeInBytes();
+        }
+        return size;
+    }
+
+    private void append(final long key, final RoaringContainer container) {
+        this.insertAt(this.count, key, container);
+    }
+
+    private void appendIfNotEmpty(final long key, final RoaringContainer container) {
+        if (container.cardinality() > 0) {
+            this.append(key, container);
+        }
+    }
+
+    private void insertAt(final int index, final long key, final RoaringContainer container) {
+        if (this.count == this.keys.length) {
+            this.keys = Arrays.copyOf(this.keys, this.count * 2);
+            this.containers = Arrays.copyOf(this.containers, this.count * 2);
+        }
+        System.arraycopy(this.keys, index, this.keys, index + 1, this.count - index);
+        System.arraycopy(this.containers, index, this.containers, index + 1, this.count - index);
+        this.keys[index] = key;
+        this.containers[index] = container;
+        this.count++;
+    }
+
+    private void removeAt(final int index) {
+        System.arraycopy(this.keys, index + 1, this.keys, index, this.count - index - 1);
+        System.arraycopy(this.containers, index + 1, this.containers, index, this.count - index - 1);
+        this.count--;
+        this.containers[this.count] = null;
+    }
+
+    private static long high(final long id) {
+        return id >> 16;
+    }
+
+    private static int low(final long id) {
+        return (int) id & 0xFFFF;
+    }
+
+    /**
+     * Write the values of a container in an array.
+     */
+    private static final class LowWriter implements IntConsumer {
+
+        private final long[] target;
+
+        private final long base;
+
+        private int index;
+
+        private LowWriter(final long[] target, final int index, final long base) {
+            super();
+            this.target = target;
+            this.index = index;
+            this.base = base;
+        }
+
+        @Override
+        public void accept(final int low) {
+            this.target[this.index++] = this.base | low;
+        }
+    }
+}
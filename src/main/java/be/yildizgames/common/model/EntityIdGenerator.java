@@ -0,0 +1,255 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Generate new unique EntityId values from blocks reserved in a backing sequence.
+ * <p>
+ * The generator is split in stripes, a thread always uses the same stripe, chosen from its id, so platform and virtual
+ * threads are spread over the stripes. A stripe holds a block of values taken from the sequence, generating an id is
+ * then an uncontended atomic increment most of the time. Once half of a block is consumed, the next one is requested
+ * from the sequence asynchronously, so a slow sequence does not block the callers. The WORLD value is never returned,
+ * it is skipped if the sequence returns it.
+ * <p>
+ * Ids are unique but not ordered across threads, and the values left in the blocks are lost when the generator is
+ * discarded.
+ * <p>
+ * Thread safe class.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class EntityIdGenerator {
+
+    /**
+     * Default number of values per block.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+
+    /**
+     * Backing sequence.
+     */
+    private final EntityIdSequence sequence;
+
+    /**
+     * Number of values per block.
+     */
+    private final int blockSize;
+
+    /**
+     * Executor requesting the next blocks.
+     */
+    private final Executor executor;
+
+    /**
+     * Stripes, their number is a power of two.
+     */
+    private final Stripe[] stripes;
+
+    /**
+     * Create a new generator with the default block size, next blocks are requested on virtual threads.
+     *
+     * @param sequence Backing sequence.
+     */
+    public EntityIdGenerator(final EntityIdSequence sequence) {
+        this(sequence, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Create a new generator, next blocks are requested on virtual threads.
+     *
+     * @param sequence  Backing sequence.
+     * @param blockSize Number of values reserved at once in the sequence.
+     * @throws IllegalArgumentException If the block size is lower than 1.
+     */
+    public EntityIdGenerator(final EntityIdSequence sequence, final int blockSize) {
+        this(sequence, blockSize, r -> Thread.ofVirtual().start(r),
+                Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     * Create a new generator.
+     *
+     * @param sequence  Backing sequence.
+     * @param blockSize Number of values reserved at once in the sequence.
+     * @param executor  Executor requesting the next blocks in the sequence.
+     * @param stripes   Minimum number of stripes.
+     * @throws IllegalArgumentException If the block size or the number of stripes is lower than 1.
+     */
+    public EntityIdGenerator(final EntityIdSequence sequence, final int blockSize, final Executor executor, final int stripes) {
+        super();
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Invalid block size: " + blockSize);
+        }
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Invalid stripe count: " + stripes);
+        }
+        this.sequence = sequence;
+        this.blockSize = blockSize;
+        this.executor = executor;
+        this.stripes = new Stripe[Hashing.capacity(stripes, 1f)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Generate a new id.
+     *
+     * @return A new unique id, never WORLD.
+     * @throws IllegalStateException If the sequence is exhausted.
+     */
+    public EntityId next() {
+        return EntityId.valueOf(this.nextValue());
+    }
+
+    /**
+     * Generate a new id value, without interning it.
+     *
+     * @return A new unique id value, never the WORLD value.
+     * @throws IllegalStateException If the sequence is exhausted.
+     */
+    public long nextValue() {
+        Stripe stripe = this.stripes[Hashing.mix(Thread.currentThread().threadId()) & (this.stripes.length - 1)];
+        while (true) {
+            Block block = stripe.block;
+            if (block != null) {
+                long value = block.next.getAndIncrement();
+                if (value < block.end) {
+                    if (value == block.prefetchAt) {
+                        stripe.prefetch(this);
+                    }
+                    if (!EntityId.isWorld(value)) {
+                        return value;
+                    }
+                    continue;
+                }
+            }
+            stripe.refill(block, this);
+        }
+    }
+
+    /**
+     * @return The number of values per block.
+     */
+    public int getBlockSize() {
+        return this.blockSize;
+    }
+
+    private Block reserve() {
+        return new Block(this.sequence.nextBlock(this.blockSize), this.blockSize);
+    }
+
+    /**
+     * Range of values being consumed.
+     */
+    private static final class Block {
+
+        /**
+         * Next value to return.
+         */
+        private final AtomicLong next;
+
+        /**
+         * First value after the block.
+         */
+        private final long end;
+
+        /**
+         * Value triggering the request of the next block.
+         */
+        private final long prefetchAt;
+
+        private Block(final long first, final int size) {
+            super();
+            if (first > Long.MAX_VALUE - size) {
+                throw new IllegalStateException("Sequence exhausted: " + first);
+            }
+            this.next = new AtomicLong(first);
+            this.end = first + size;
+            this.prefetchAt = first + (size >>> 1);
+        }
+    }
+
+    /**
+     * Current and next blocks for a group of threads.
+     * A lock is used rather than a monitor, so a virtual thread waiting for a block does not pin its carrier.
+     */
+    private static final class Stripe {
+
+        /**
+         * Lock guarding the block changes and the pending request.
+         */
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * Block being consumed, null until first use.
+         */
+        private volatile Block block;
+
+        /**
+         * Next block being requested, guarded by the lock.
+         */
+        private CompletableFuture<Block> pending;
+
+        private void prefetch(final EntityIdGenerator generator) {
+            this.lock.lock();
+            try {
+                if (this.pending == null) {
+                    this.pending = CompletableFuture.supplyAsync(generator::reserve, generator.executor);
+                }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        private void refill(final Block exhausted, final EntityIdGenerator generator) {
+            this.lock.lock();
+            try {
+                if (this.block != exhausted) {
+                    return;
+                }
+                CompletableFuture<Block> future = this.pending;
+                this.pending = null;
+                Block next = null;
+                if (future != null) {
+                    try {
+                        next = future.join();
+                    } catch (CompletionException e) {
+                        // Requested again below, a persistent failure then reaches the caller.
+                    }
+                }
+                this.block = next == null ? generator.reserve() : next;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import java.util.Arrays;
+
+/**
+ * Map with EntityId keys and primitive long values, both stored in open addressing arrays.
+ * Nothing is boxed nor allocated per entry. Every method exists with an EntityId and with a raw long id value parameter.
+ * A default value, 0 unless specified, is returned for the ids not present.
+ * <p>
+ * Not thread safe.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class EntityIdLongMap extends LongKeyTable {
+
+    /**
+     * Value returned for the ids not present.
+     */
+    private final long defaultValue;
+
+    /**
+     * Values, in the same slot as their key.
+     */
+    private long[] values;
+
+    /**
+     * Create a new empty map, returning 0 for the ids not present.
+     */
+    public EntityIdLongMap() {
+        this(DEFAULT_EXPECTED_SIZE, 0L);
+    }
+
+    /**
+     * Create a new empty map.
+     *
+     * @param expectedSize Number of entries expected to be stored before the map grows.
+     * @param defaultValue Value returned for the ids not present.
+     */
+    public EntityIdLongMap(final int expectedSize, final long defaultValue) {
+        super(expectedSize);
+        this.defaultValue = defaultValue;
+        this.values = new long[this.keys.length];
+    }
+
+    /**
+     * Retrieve the value associated to an id.
+     *
+     * @param id Id to get.
+     * @return The value, or the default value if the id is not present.
+     * @throws NullPointerException If id is null.
+     */
+    public long get(final EntityId id) {
+        return this.get(id.value);
+    }
+
+    /**
+     * Retrieve the value associated to an id.
+     *
+     * @param id Id value to get.
+     * @return The value, or the default value if the id is not present.
+     */
+    public long get(final long id) {
+        int pos = this.indexOf(id);
+        return pos < 0 ? this.defaultValue : this.values[pos];
+    }
+
+    /**
+     * Check if an id is present.
+     *
+     * @param id Id to check.
+     * @return <code>true</code> if the id is present.
+     * @throws NullPointerException If id is null.
+     */
+    public boolean containsKey(final EntityId id) {
+        return this.indexOf(id.value) >= 0;
+    }
+
+    /**
+     * Check if an id is present.
+     *
+     * @param id Id value to check.
+     * @return <code>true</code> if the id is present.
+     */
+    public boolean containsKey(final long id) {
+        return this.indexOf(id) >= 0;
+    }
+
+    /**
+     * Associate a value to an id.
+     *
+     * @param id    Id to set.
+     * @param value Value to associate.
+     * @return The value previously associated, or the default value if the id was not present.
+     * @throws NullPointerException If id is null.
+     */
+    public long put(final EntityId id, final long value) {
+        return this.put(id.value, value);
+    }
+
+    /**
+     * Associate a value to an id.
+     *
+     * @param id    Id value to set.
+     * @param value Value to associate.
+     * @return The value previously associated, or the default value if the id was not present.
+     */
+    public long put(final long id, final long value) {
+        int pos = this.insert(id);
+        if (pos < 0) {
+            this.values[~pos] = value;
+            this.afterInsert();
+            return this.defaultValue;
+        }
+        long previous = this.values[pos];
+        this.values[pos] = value;
+        return previous;
+    }
+
+    /**
+     * Add an amount to the value associated to an id, an id not present starts from the default value.
+     *
+     * @param id     Id value to update.
+     * @param amount Amount to add.
+     * @return The new value.
+     */
+    public long addTo(final long id, final long amount) {
+        int pos = this.insert(id);
+        if (pos < 0) {
+            long value = this.defaultValue + amount;
+            this.values[~pos] = value;
+            this.afterInsert();
+            return value;
+        }
+        this.values[pos] += amount;
+        return this.values[pos];
+    }
+
+    /**
+     * Remove an id.
+     *
+     * @param id Id to remove.
+     * @return The value associated to the removed id, or the default value if it was not present.
+     * @throws NullPointerException If id is null.
+     */
+    public long remove(final EntityId id) {
+        return this.remove(id.value);
+    }
+
+    /**
+     * Remove an id.
+     *
+     * @param id Id value to remove.
+     * @return The value associated to the removed id, or the default value if it was not present.
+     */
+    public long remove(final long id) {
+        int pos = this.indexOf(id);
+        if (pos < 0) {
+            return this.defaultValue;
+        }
+        long previous = this.values[pos];
+        this.removeAt(pos);
+        return previous;
+    }
+
+    /**
+     * Remove all entries, the capacity is kept.
+     */
+    public void clear() {
+        this.clearKeys();
+        Arrays.fill(this.values, 0L);
+    }
+
+    /**
+     * Call an action for every entry, without boxing anything.
+     *
+     * @param action Action to call with every id value and its associated value.
+     */
+    public void forEach(final EntryConsumer action) {
+        int zero = this.indexOf(0L);
+        if (zero >= 0) {
+            action.accept(0L, this.values[zero]);
+        }
+        long[] k = this.keys;
+        for (int i = 0; i < this.capacity; i++) {
+            if (k[i] != 0L) {
+                action.accept(k[i], this.values[i]);
+            }
+        }
+    }
+
+    /**
+     * @return The value returned for the ids not present.
+     */
+    public long getDefaultValue() {
+        return this.defaultValue;
+    }
+
+    @Override
+    void move(final int from, final int to) {
+        this.values[to] = this.values[from];
+    }
+
+    @Override
+    void clear(final int pos) {
+        this.values[pos] = 0L;
+    }
+
+    @Override
+    void relocate(final int[] moved, final int newLength) {
+        long[] old = this.values;
+        long[] v = new long[newLength];
+        for (int i = 0; i < moved.length; i++) {
+            if (moved[i] >= 0) {
+                v[moved[i]] = old[i];
+            }
+        }
+        this.values = v;
+    }
+
+    /**
+     * Receive the entries of the map.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+
+        /**
+         * Receive an entry.
+         *
+         * @param id    Id value.
+         * @param value Value associated to the id.
+         */
+        void accept(long id, long value);
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * Map with EntityId keys, stored as primitive long values in an open addressing table.
+ * No node is allocated per entry and the keys are contiguous in memory, iterating never boxes them.
+ * Every method exists with an EntityId and with a raw long id value parameter.
+ * <p>
+ * Not thread safe.
+ *
+ * @param <V> Type of the values.
+ * @author Grégory Van den Borre
+ */
+public final class EntityIdMap<V> extends LongKeyTable {
+
+    /**
+     * Values, in the same slot as their key.
+     */
+    private Object[] values;
+
+    /**
+     * Create a new empty map.
+     */
+    public EntityIdMap() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Create a new empty map.
+     *
+     * @param expectedSize Number of entries expected to be stored before the map grows.
+     */
+    public EntityIdMap(final int expectedSize) {
+        super(expectedSize);
+        this.values = new Object[this.keys.length];
+    }
+
+    /**
+     * Retrieve the value associated to an id.
+     *
+     * @param id Id to get.
+     * @return The value, or null if the id is not present.
+     * @throws NullPointerException If id is null.
+     */
+    public V get(final EntityId id) {
+        return this.get(id.value);
+    }
+
+    /**
+     * Retrieve the value associated to an id.
+     *
+     * @param id Id value to get.
+     * @return The value, or null if the id is not present.
+     */
+    public V get(final long id) {
+        int pos = this.indexOf(id);
+        return pos < 0 ? null : this.valueAt(pos);
+    }
+
+    /**
+     * Check if an id is present.
+     *
+     * @param id Id to check.
+     * @return <code>true</code> if the id is present.
+     * @throws NullPointerException If id is null.
+     */
+    public boolean containsKey(final EntityId id) {
+        return this.indexOf(id.value) >= 0;
+    }
+
+    /**
+     * Check if an id is present.
+     *
+     * @param id Id value to check.
+     * @return <code>true</code> if the id is present.
+     */
+    public boolean containsKey(final long id) {
+        return this.indexOf(id) >= 0;
+    }
+
+    /**
+     * Associate a value to an id.
+     *
+     * @param id    Id to set.
+     * @param value Value to associate.
+     * @return The value previously associated, or null if the id was not present.
+     * @throws NullPointerException If id is null.
+     */
+    public V put(final EntityId id, final V value) {
+        return this.put(id.value, value);
+    }
+
+    /**
+     * Associate a value to an id.
+     *
+     * @param id    Id value to set.
+     * @param value Value to associate.
+     * @return The value previously associated, or null if the id was not present.
+     */
+    public V put(final long id, final V value) {
+        int pos = this.insert(id);
+        if (pos < 0) {
+            this.values[~pos] = value;
+            this.afterInsert();
+            return null;
+        }
+        V previous = this.valueAt(pos);
+        this.values[pos] = value;
+        return previous;
+    }
+
+    /**
+     * Retrieve the value associated to an id, computing and storing it if the id is not present.
+     *
+     * @param id       Id value to get.
+     * @param function Function to compute the value, called only if the id is not present.
+     * @return The existing or computed value.
+     */
+    public V computeIfAbsent(final long id, final LongFunction<? extends V> function) {
+        int pos = this.indexOf(id);
+        if (pos >= 0) {
+            return this.valueAt(pos);
+        }
+        V value = function.apply(id);
+        this.put(id, value);
+        return value;
+    }
+
+    /**
+     * Remove an id.
+     *
+     * @param id Id to remove.
+     * @return The value associated to the removed id, or null if it was not present.
+     * @throws NullPointerException If id is null.
+     */
+    public V remove(final EntityId id) {
+        return this.remove(id.value);
+    }
+
+    /**
+     * Remove an id.
+     *
+     * @param id Id value to remove.
+     * @return The value associated to the removed id, or null if it was not present.
+     */
+    public V remove(final long id) {
+        int pos = this.indexOf(id);
+        if (pos < 0) {
+            return null;
+        }
+        V previous = this.valueAt(pos);
+        this.removeAt(pos);
+        return previous;
+    }
+
+    /**
+     * Remove all entries, the capacity is kept.
+     */
+    public void clear() {
+        this.clearKeys();
+        Arrays.fill(this.values, null);
+    }
+
+    /**
+     * Call an action for every entry, without boxing the ids.
+     *
+     * @param action Action to call with every id value and its associated value.
+     */
+    public void forEach(final EntryConsumer<? super V> action) {
+        int zero = this.indexOf(0L);
+        if (zero >= 0) {
+            action.accept(0L, this.valueAt(zero));
+        }
+        long[] k = this.keys;
+        for (int i = 0; i < this.capacity; i++) {
+            if (k[i] != 0L) {
+                action.accept(k[i], this.valueAt(i));
+            }
+        }
+    }
+
+    /**
+     * Call an action for every value.
+     *
+     * @param action Action to call with every value.
+     */
+    public void forEachValue(final Consumer<? super V> action) {
+        int zero = this.indexOf(0L);
+        if (zero >= 0) {
+            action.accept(this.valueAt(zero));
+        }
+        long[] k = this.keys;
+        for (int i = 0; i < this.capacity; i++) {
+            if (k[i] != 0L) {
+                action.accept(this.valueAt(i));
+            }
+        }
+    }
+
+    @Override
+    void move(final int from, final int to) {
+        this.values[to] = this.values[from];
+    }
+
+    @Override
+    void clear(final int pos) {
+        this.values[pos] = null;
+    }
+
+    @Override
+    void relocate(final int[] moved, final int newLength) {
+        Object[] old = this.values;
+        Object[] v = new Object[newLength];
+        for (int i = 0; i < moved.length; i++) {
+            if (moved[i] >= 0) {
+                v[moved[i]] = old[i];
+            }
+        }
+        this.values = v;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(final int pos) {
+        return (V) this.values[pos];
+    }
+
+    /**
+     * Receive the entries of the map.
+     *
+     * @param <V> Type of the values.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+
+        /**
+         * Receive an entry.
+         *
+         * @param id    Id value.
+         * @param value Value associated to the id.
+         */
+        void accept(long id, V value);
+    }
+}
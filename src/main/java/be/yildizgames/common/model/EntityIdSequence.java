@@ -0,0 +1,56 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Source of EntityId values, reserving blocks of consecutive values, typically backed by a database sequence or a
+ * coordination service. Implementations must be thread safe and never return overlapping blocks.
+ *
+ * @author Grégory Van den Borre
+ */
+@FunctionalInterface
+public interface EntityIdSequence {
+
+    /**
+     * Reserve a block of consecutive values.
+     *
+     * @param size Number of values to reserve, strictly positive.
+     * @return The first value of the block, the block being [first, first + size[.
+     */
+    long nextBlock(int size);
+
+    /**
+     * Create an in memory sequence, for tests or single process usage.
+     *
+     * @param first First value to return.
+     * @return The created sequence.
+     */
+    static EntityIdSequence inMemory(final long first) {
+        AtomicLong next = new AtomicLong(first);
+        return size -> next.getAndAdd(size);
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import java.util.PrimitiveIterator;
+
+/**
+ * Set of EntityId, stored as primitive long values in an open addressing table.
+ * No node is allocated per id and iterating never boxes them. Every method exists with an EntityId and with a raw long
+ * id value parameter.
+ * <p>
+ * Not thread safe.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class EntityIdSet extends LongKeyTable {
+
+    /**
+     * Create a new empty set.
+     */
+    public EntityIdSet() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Create a new empty set.
+     *
+     * @param expectedSize Number of ids expected to be stored before the set grows.
+     */
+    public EntityIdSet(final int expectedSize) {
+        super(expectedSize);
+    }
+
+    /**
+     * Add an id.
+     *
+     * @param id Id to add.
+     * @return <code>true</code> if the id was not already present.
+     * @throws NullPointerException If id is null.
+     */
+    public boolean add(final EntityId id) {
+        return this.add(id.value);
+    }
+
+    /**
+     * Add an id.
+     *
+     * @param id Id value to add.
+     * @return <code>true</code> if the id was not already present.
+     */
+    public boolean add(final long id) {
+        if (this.insert(id) < 0) {
+            this.afterInsert();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Check if an id is present.
+     *
+     * @param id Id to check.
+     * @return <code>true</code> if the id is present.
+     * @throws NullPointerException If id is null.
+     */
+    public boolean contains(final EntityId id) {
+        return this.indexOf(id.value) >= 0;
+    }
+
+    /**
+     * Check if an id is present.
+     *
+     * @param id Id value to check.
+     * @return <code>true</code> if the id is present.
+     */
+    public boolean contains(final long id) {
+        return this.indexOf(id) >= 0;
+    }
+
+    /**
+     * Remove an id.
+     *
+     * @param id Id to remove.
+     * @return <code>true</code> if the id was present.
+     * @throws NullPointerException If id is null.
+     */
+    public boolean remove(final EntityId id) {
+        return this.remove(id.value);
+    }
+
+    /**
+     * Remove an id.
+     *
+     * @param id Id value to remove.
+     * @return <code>true</code> if the id was present.
+     */
+    public boolean remove(final long id) {
+        int pos = this.indexOf(id);
+        if (pos < 0) {
+            return false;
+        }
+        this.removeAt(pos);
+        return true;
+    }
+
+    /**
+     * Remove all ids, the capacity is kept.
+     */
+    public void clear() {
+        this.clearKeys();
+    }
+
+    /**
+     * Copy the id values in a new array.
+     *
+     * @return An array with every id value, in no particular order.
+     */
+    public long[] toArray() {
+        long[] result = new long[this.size()];
+        PrimitiveIterator.OfLong iterator = this.keyIterator();
+        for (int i = 0; i < result.length; i++) {
+            result[i] = iterator.nextLong();
+        }
+        return result;
+    }
+
+    @Override
+    void move(final int from, final int to) {
+        // no value to move.
+    }
+
+    @Override
+    void clear(final int pos) {
+        // no value to clear.
+    }
+
+    @Override
+    void relocate(final int[] moved, final int newLength) {
+        // no value to relocate.
+    }
+}
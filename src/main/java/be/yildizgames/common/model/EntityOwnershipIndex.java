@@ -0,0 +1,362 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+
+/**
+ * Index of the entities owned by the players: every player has a compact list of the id values of its entities, and
+ * every entity is mapped to its owner and its position in that list. Nothing is boxed, assigning, transferring and
+ * releasing an entity are O(1): a removed entity is replaced by the last one of the list.
+ * <p>
+ * Iterating over the entities of a player allocates nothing, the action is called under the read lock: it can query the
+ * index, the read lock being reentrant even while a writer is waiting, but must not update it.
+ * <p>
+ * Thread safe class, updates take a write lock, queries take a read lock, both from a single ReentrantReadWriteLock.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class EntityOwnershipIndex {
+
+    /**
+     * Value returned by the reverse map for the entities not owned, a position is never -1 so no owner and position pair
+     * can be equal to it.
+     */
+    private static final long NOT_OWNED = -1L;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Entities of every player.
+     */
+    private final IntIdMap<PlayerId, Owned> owned;
+
+    /**
+     * Owner and position of every owned entity, packed as owner value in the high 32 bits and position in the low ones.
+     */
+    private final EntityIdLongMap owners;
+
+    /**
+     * Create a new empty index.
+     */
+    public EntityOwnershipIndex() {
+        this(16, 256);
+    }
+
+    /**
+     * Create a new empty index.
+     *
+     * @param expectedPlayers  Number of players expected before the index grows.
+     * @param expectedEntities Number of entities expected before the index grows.
+     * @throws IllegalArgumentException If expectedPlayers or expectedEntities is negative.
+     */
+    public EntityOwnershipIndex(final int expectedPlayers, final int expectedEntities) {
+        super();
+        if (expectedPlayers < 0 || expectedEntities < 0) {
+            throw new IllegalArgumentException("Invalid expected size: " + expectedPlayers + ", " + expectedEntities);
+        }
+        this.owned = new IntIdMap<>(expectedPlayers);
+        this.owners = new EntityIdLongMap(expectedEntities, NOT_OWNED);
+    }
+
+    /**
+     * Set the owner of an entity, the entity is removed from its previous owner if any.
+     *
+     * @param entity Entity to assign.
+     * @param player New owner.
+     * @return The previous owner, or null if the entity was not owned.
+     * @throws NullPointerException If entity or player is null.
+     */
+    public PlayerId assign(final EntityId entity, final PlayerId player) {
+        return this.assign(entity.value, player);
+    }
+
+    /**
+     * Set the owner of an entity, the entity is removed from its previous owner if any.
+     *
+     * @param entity Entity id value to assign.
+     * @param player New owner.
+     * @return The previous owner, or null if the entity was not owned.
+     * @throws NullPointerException If player is null.
+     */
+    public PlayerId assign(final long entity, final PlayerId player) {
+        int owner = player.value;
+        this.lock.writeLock().lock();
+        try {
+            long packed = this.owners.get(entity);
+            if (packed != NOT_OWNED) {
+                int previous = ownerValue(packed);
+                if (previous == owner) {
+                    return player;
+                }
+                this.detach(previous, position(packed));
+                this.attach(entity, owner);
+                return PlayerId.valueOf(previous);
+            }
+            this.attach(entity, owner);
+            return null;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove an entity from its owner.
+     *
+     * @param entity Entity to release.
+     * @return The previous owner, or null if the entity was not owned.
+     * @throws NullPointerException If entity is null.
+     */
+    public PlayerId release(final EntityId entity) {
+        return this.release(entity.value);
+    }
+
+    /**
+     * Remove an entity from its owner.
+     *
+     * @param entity Entity id value to release.
+     * @return The previous owner, or null if the entity was not owned.
+     */
+    public PlayerId release(final long entity) {
+        this.lock.writeLock().lock();
+        try {
+            long packed = this.owners.remove(entity);
+            if (packed == NOT_OWNED) {
+                return null;
+            }
+            int previous = ownerValue(packed);
+            this.detach(previous, position(packed));
+            return PlayerId.valueOf(previous);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove all the entities of a player.
+     *
+     * @param player Player to remove.
+     * @return The number of entities the player owned.
+     * @throws NullPointerException If player is null.
+     */
+    public int releaseAll(final PlayerId player) {
+        this.lock.writeLock().lock();
+        try {
+            Owned list = this.owned.remove(player.value);
+            if (list == null) {
+                return 0;
+            }
+            for (int i = 0; i < list.size; i++) {
+                this.owners.remove(list.ids[i]);
+            }
+            return list.size;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieve the owner of an entity.
+     *
+     * @param entity Entity to check.
+     * @return The owner, or null if the entity is not owned.
+     * @throws NullPointerException If entity is null.
+     */
+    public PlayerId ownerOf(final EntityId entity) {
+        return this.ownerOf(entity.value);
+    }
+
+    /**
+     * Retrieve the owner of an entity.
+     *
+     * @param entity Entity id value to check.
+     * @return The owner, or null if the entity is not owned.
+     */
+    public PlayerId ownerOf(final long entity) {
+        this.lock.readLock().lock();
+        try {
+            long packed = this.owners.get(entity);
+            return packed == NOT_OWNED ? null : PlayerId.valueOf(ownerValue(packed));
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Check if a player owns an entity.
+     *
+     * @param player Player to check.
+     * @param entity Entity id value to check.
+     * @return <code>true</code> if the entity is owned by that player.
+     * @throws NullPointerException If player is null.
+     */
+    public boolean isOwner(final PlayerId player, final long entity) {
+        this.lock.readLock().lock();
+        try {
+            long packed = this.owners.get(entity);
+            return packed != NOT_OWNED && ownerValue(packed) == player.value;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Count the entities of a player.
+     *
+     * @param player Player to check.
+     * @return The number of entities owned by that player.
+     * @throws NullPointerException If player is null.
+     */
+    public int count(final PlayerId player) {
+        this.lock.readLock().lock();
+        try {
+            Owned list = this.owned.get(player.value);
+            return list == null ? 0 : list.size;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Call an action for every entity of a player, without allocating anything. The action is called under the read
+     * lock, it can query this index but must not update it, the write lock cannot be taken while holding the read lock.
+     *
+     * @param player Player to iterate.
+     * @param action Action to call with every entity id value.
+     * @throws NullPointerException If player is null.
+     */
+    public void forEach(final PlayerId player, final LongConsumer action) {
+        this.lock.readLock().lock();
+        try {
+            Owned list = this.owned.get(player.value);
+            if (list != null) {
+                long[] ids = list.ids;
+                for (int i = 0; i < list.size; i++) {
+                    action.accept(ids[i]);
+                }
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copy the entities of a player in an array.
+     *
+     * @param player      Player to copy.
+     * @param destination Array receiving the entity id values, a new one is returned if it is too small.
+     * @return The array holding the entity id values, its first {@link #count(PlayerId)} elements are set.
+     * @throws NullPointerException If player or destination is null.
+     */
+    public long[] copyOwned(final PlayerId player, final long[] destination) {
+        this.lock.readLock().lock();
+        try {
+            Owned list = this.owned.get(player.value);
+            if (list == null) {
+                return destination;
+            }
+            long[] result = destination.length >= list.size ? destination : new long[list.size];
+            System.arraycopy(list.ids, 0, result, 0, list.size);
+            return result;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The number of owned entities.
+     */
+    public int size() {
+        this.lock.readLock().lock();
+        try {
+            return this.owners.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add an entity at the end of the list of a player. Must be called under the write lock.
+     *
+     * @param entity Entity id value.
+     * @param owner  Player value.
+     */
+    private void attach(final long entity, final int owner) {
+        Owned list = this.owned.computeIfAbsent(owner, k -> new Owned());
+        int position = list.add(entity);
+        this.owners.put(entity, pack(owner, position));
+    }
+
+    /**
+     * Remove an entity from the list of a player, replacing it with the last one. Must be called under the write lock.
+     *
+     * @param owner    Player value.
+     * @param position Position of the entity in the list.
+     */
+    private void detach(final int owner, final int position) {
+        Owned list = this.owned.get(owner);
+        int last = --list.size;
+        if (position != last) {
+            long moved = list.ids[last];
+            list.ids[position] = moved;
+            this.owners.put(moved, pack(owner, position));
+        }
+        if (list.size == 0) {
+            this.owned.remove(owner);
+        }
+    }
+
+    private static long pack(final int owner, final int position) {
+        return ((long) owner << 32) | position;
+    }
+
+    private static int ownerValue(final long packed) {
+        return (int) (packed >>> 32);
+    }
+
+    private static int position(final long packed) {
+        return (int) packed;
+    }
+
+    /**
+     * Entities of a player.
+     */
+    private static final class Owned {
+
+        private long[] ids = new long[8];
+
+        private int size;
+
+        private int add(final long entity) {
+            if (this.size == this.ids.length) {
+                this.ids = Arrays.copyOf(this.ids, this.size << 1);
+            }
+            this.ids[this.size] = entity;
+            return this.size++;
+        }
+    }
+}
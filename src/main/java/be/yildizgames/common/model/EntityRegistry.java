@@ -0,0 +1,533 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Concurrent registry of EntityIdentifiable objects, indexed by the value of their id without boxing it.
+ * <p>
+ * The entries are split in segments, chosen from the id hash, every segment is an open addressing table written under
+ * its own lock. Reads take no lock and never retry: a value is published with a release store after its key, and read
+ * with an acquire load before it. A removed entry leaves a tombstone so the probe sequences of the other keys stay
+ * valid, a slot is never reused for another key, and the tombstones are dropped when the segment table is rebuilt.
+ * <p>
+ * Iteration, streams and snapshots are weakly consistent: they never block the writers, reflect the entries present
+ * when they started and may or may not reflect later changes.
+ * <p>
+ * Thread safe class.
+ *
+ * @param <T> Type of the registered objects.
+ * @author Grégory Van den Borre
+ */
+public final class EntityRegistry<T extends EntityIdentifiable> {
+
+    /**
+     * Marker of a removed entry.
+     */
+    private static final Object TOMBSTONE = new Object();
+
+    /**
+     * Access to the value slots with acquire and release semantic.
+     */
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    /**
+     * Maximum part of a segment table filled with entries and tombstones.
+     */
+    private static final float LOAD_FACTOR = 0.5f;
+
+    /**
+     * Segments, their number is a power of two.
+     */
+    private final Segment[] segments;
+
+    /**
+     * Number of bits to shift a hash to get its segment.
+     */
+    private final int segmentShift;
+
+    /**
+     * Create a new empty registry, with a number of segments based on the available processors.
+     */
+    public EntityRegistry() {
+        this(16, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * Create a new empty registry.
+     *
+     * @param expectedSize Number of entries expected to be stored before the registry grows.
+     * @param concurrency  Expected number of threads writing at the same time, rounded up to a power of two.
+     * @throws IllegalArgumentException If expectedSize is negative or concurrency is lower than 1.
+     */
+    public EntityRegistry(final int expectedSize, final int concurrency) {
+        super();
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Invalid expected size: " + expectedSize);
+        }
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Invalid concurrency: " + concurrency);
+        }
+        int count = Hashing.capacity(concurrency, 1f);
+        this.segments = new Segment[count];
+        this.segmentShift = Integer.SIZE - Integer.numberOfTrailingZeros(count);
+        int perSegment = Hashing.capacity(expectedSize / count + 1, LOAD_FACTOR);
+        for (int i = 0; i < count; i++) {
+            this.segments[i] = new Segment(perSegment);
+        }
+    }
+
+    /**
+     * Retrieve the object registered with an id, without locking.
+     *
+     * @param id Id to get.
+     * @return The registered object, or null if none.
+     * @throws NullPointerException If id is null.
+     */
+    public T get(final EntityId id) {
+        return this.get(id.value);
+    }
+
+    /**
+     * Retrieve the object registered with an id, without locking.
+     *
+     * @param id Id value to get.
+     * @return The registered object, or null if none.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(final long id) {
+        int hash = Hashing.mix(id);
+        Table table = this.segmentFor(hash).table;
+        long[] keys = table.keys;
+        Object[] values = table.values;
+        int mask = keys.length - 1;
+        int pos = hash & mask;
+        while (true) {
+            Object value = VALUES.getAcquire(values, pos);
+            if (value == null) {
+                return null;
+            }
+            if (keys[pos] == id) {
+                return value == TOMBSTONE ? null : (T) value;
+            }
+            pos = (pos + 1) & mask;
+        }
+    }
+
+    /**
+     * Check if an object is registered with an id, without locking.
+     *
+     * @param id Id to check.
+     * @return <code>true</code> if an object is registered with that id.
+     * @throws NullPointerException If id is null.
+     */
+    public boolean contains(final EntityId id) {
+        return this.get(id.value) != null;
+    }
+
+    /**
+     * Check if an object is registered with an id, without locking.
+     *
+     * @param id Id value to check.
+     * @return <code>true</code> if an object is registered with that id.
+     */
+    public boolean contains(final long id) {
+        return this.get(id) != null;
+    }
+
+    /**
+     * Register an object with its id, replacing any object registered with the same id.
+     *
+     * @param object Object to register.
+     * @return The object previously registered with that id, or null if none.
+     * @throws NullPointerException If object or its id is null.
+     */
+    public T register(final T object) {
+        return this.put(object, false);
+    }
+
+    /**
+     * Register an object with its id, if no object is registered with the same id.
+     *
+     * @param object Object to register.
+     * @return The object already registered with that id, or null if the object was registered.
+     * @throws NullPointerException If object or its id is null.
+     */
+    public T registerIfAbsent(final T object) {
+        return this.put(object, true);
+    }
+
+    /**
+     * Remove the object registered with an id.
+     *
+     * @param id Id to remove.
+     * @return The removed object, or null if none.
+     * @throws NullPointerException If id is null.
+     */
+    public T remove(final EntityId id) {
+        return this.remove(id.value);
+    }
+
+    /**
+     * Remove the object registered with an id.
+     *
+     * @param id Id value to remove.
+     * @return The removed object, or null if none.
+     */
+    public T remove(final long id) {
+        int hash = Hashing.mix(id);
+        return this.segmentFor(hash).remove(id, hash);
+    }
+
+    /**
+     * Remove all the objects.
+     */
+    public void clear() {
+        for (Segment segment : this.segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * @return The number of registered objects, approximate while objects are registered or removed.
+     */
+    public int size() {
+        long size = 0;
+        for (Segment segment : this.segments) {
+            size += segment.table.live;
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return <code>true</code> if no object is registered, approximate while objects are registered or removed.
+     */
+    public boolean isEmpty() {
+        for (Segment segment : this.segments) {
+            if (segment.table.live != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Call an action for every registered object, weakly consistent.
+     *
+     * @param action Action to call.
+     */
+    public void forEach(final Consumer<? super T> action) {
+        this.spliterator().forEachRemaining(action);
+    }
+
+    /**
+     * Copy the registered objects, weakly consistent, without blocking the writers.
+     *
+     * @return An unmodifiable list of the objects.
+     */
+    public List<T> snapshot() {
+        List<T> result = new ArrayList<>(this.size());
+        this.forEach(result::add);
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Create a spliterator over the registered objects, weakly consistent, it splits in balanced ranges of slots.
+     *
+     * @return The created spliterator.
+     */
+    public Spliterator<T> spliterator() {
+        Table[] tables = new Table[this.segments.length];
+        int[] offsets = new int[tables.length + 1];
+        long size = 0;
+        for (int i = 0; i < tables.length; i++) {
+            tables[i] = this.segments[i].table;
+            size += tables[i].live;
+            offsets[i + 1] = offsets[i] + tables[i].keys.length;
+        }
+        int slots = offsets[tables.length];
+        return new RegistrySpliterator<>(tables, offsets, 0, slots, 0, slots == 0 ? 0d : (double) size / slots);
+    }
+
+    /**
+     * @return A sequential stream over the registered objects, weakly consistent.
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    /**
+     * @return A parallel stream over the registered objects, weakly consistent.
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(this.spliterator(), true);
+    }
+
+    private Segment segmentFor(final int hash) {
+        return this.segments[hash >>> this.segmentShift];
+    }
+
+    @SuppressWarnings("unchecked")
+    private T put(final T object, final boolean onlyIfAbsent) {
+        long id = object.getId().value;
+        int hash = Hashing.mix(id);
+        return (T) this.segmentFor(hash).put(id, hash, object, onlyIfAbsent);
+    }
+
+    /**
+     * Open addressing table of a segment, replaced as a whole when it is rebuilt.
+     */
+    private static final class Table {
+
+        /**
+         * Keys, only meaningful when the value in the same slot is not null.
+         */
+        private final long[] keys;
+
+        /**
+         * Values, null for an empty slot, TOMBSTONE for a removed entry.
+         */
+        private final Object[] values;
+
+        /**
+         * Number of slots with a value or a tombstone.
+         */
+        private int used;
+
+        /**
+         * Number of slots with a value, written under the segment lock.
+         */
+        private volatile int live;
+
+        private Table(final int capacity) {
+            super();
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+        }
+    }
+
+    /**
+     * Part of the registry, written under its own lock.
+     */
+    private static final class Segment {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * Current table, replaced when rebuilt.
+         */
+        private volatile Table table;
+
+        private Segment(final int capacity) {
+            super();
+            this.table = new Table(capacity);
+        }
+
+        private Object put(final long id, final int hash, final Object object, final boolean onlyIfAbsent) {
+            this.lock.lock();
+            try {
+                Table t = this.table;
+                int mask = t.keys.length - 1;
+                int pos = hash & mask;
+                Object current;
+                while ((current = t.values[pos]) != null) {
+                    if (t.keys[pos] == id) {
+                        if (current == TOMBSTONE) {
+                            VALUES.setRelease(t.values, pos, object);
+                            t.live++;
+                            return null;
+                        }
+                        if (!onlyIfAbsent) {
+                            VALUES.setRelease(t.values, pos, object);
+                        }
+                        return current;
+                    }
+                    pos = (pos + 1) & mask;
+                }
+                t.keys[pos] = id;
+                VALUES.setRelease(t.values, pos, object);
+                t.used++;
+                t.live++;
+                if (t.used > t.keys.length * LOAD_FACTOR) {
+                    this.rebuild(t);
+                }
+                return null;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private <V> V remove(final long id, final int hash) {
+            this.lock.lock();
+            try {
+                Table t = this.table;
+                int mask = t.keys.length - 1;
+                int pos = hash & mask;
+                Object current;
+                while ((current = t.values[pos]) != null) {
+                    if (t.keys[pos] == id) {
+                        if (current == TOMBSTONE) {
+                            return null;
+                        }
+                        VALUES.setRelease(t.values, pos, TOMBSTONE);
+                        t.live--;
+                        return (V) current;
+                    }
+                    pos = (pos + 1) & mask;
+                }
+                return null;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        private void clear() {
+            this.lock.lock();
+            try {
+                this.table = new Table(this.table.keys.length);
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        /**
+         * Copy the live entries in a new table, and publish it. The table grows only if the live entries fill a quarter of
+         * it, otherwise rebuilding only drops the tombstones.
+         *
+         * @param old Current table.
+         */
+        private void rebuild(final Table old) {
+            int capacity = old.live >= old.keys.length >> 2 ? old.keys.length << 1 : old.keys.length;
+            Table t = new Table(capacity);
+            int mask = capacity - 1;
+            for (int i = 0; i < old.keys.length; i++) {
+                Object value = old.values[i];
+                if (value != null && value != TOMBSTONE) {
+                    long key = old.keys[i];
+                    int pos = Hashing.mix(key) & mask;
+                    while (t.values[pos] != null) {
+                        pos = (pos + 1) & mask;
+                    }
+                    t.keys[pos] = key;
+                    t.values[pos] = value;
+                    t.used++;
+                }
+            }
+            t.live = old.live;
+            this.table = t;
+        }
+    }
+
+    /**
+     * Spliterator over the slots of the segment tables captured when it was created, splitting the slot range in halves.
+     *
+     * @param <T> Type of the registered objects.
+     */
+    private static final class RegistrySpliterator<T> implements Spliterator<T> {
+
+        /**
+         * Minimum number of slots in a split range.
+         */
+        private static final int MIN_SPLIT = 64;
+
+        private final Table[] tables;
+
+        /**
+         * First global slot of every table, and the total number of slots.
+         */
+        private final int[] offsets;
+
+        /**
+         * Ratio of slots holding a value when the spliterator was created.
+         */
+        private final double density;
+
+        private final int fence;
+
+        private int index;
+
+        private int table;
+
+        private RegistrySpliterator(final Table[] tables, final int[] offsets, final int index, final int fence,
+                                    final int table, final double density) {
+            super();
+            this.tables = tables;
+            this.offsets = offsets;
+            this.index = index;
+            this.fence = fence;
+            this.table = table;
+            this.density = density;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(final Consumer<? super T> action) {
+            while (this.index < this.fence) {
+                while (this.offsets[this.table + 1] <= this.index) {
+                    this.table++;
+                }
+                Object value = VALUES.getAcquire(this.tables[this.table].values, this.index - this.offsets[this.table]);
+                this.index++;
+                if (value != null && value != TOMBSTONE) {
+                    action.accept((T) value);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int low = this.index;
+            int middle = (low + this.fence) >>> 1;
+            if (middle - low < MIN_SPLIT) {
+                return null;
+            }
+            this.index = middle;
+            return new RegistrySpliterator<>(this.tables, this.offsets, low, middle, this.table, this.density);
+        }
+
+        @Override
+        public long estimateSize() {
+            return (long) Math.ceil((this.fence - this.index) * this.density);
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.NONNULL | Spliterator.DISTINCT | Spliterator.CONCURRENT;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import java.util.Arrays;
+
+/**
+ * Table of entity slots issuing generational id values, to detect stale ids without any map lookup.
+ * <p>
+ * A generational value holds the slot index in its 32 low bits and the slot generation in the 31 bits above, the
+ * generation starting at 1, so a value is always strictly positive and never WORLD. When an entity is destroyed, its
+ * slot generation is incremented and the slot is reused by the next creation: the ids of the destroyed entity keep the
+ * old generation and are then detected as stale with a single array read. The slot of a live id can directly index
+ * dense arrays of capacity length.
+ * <p>
+ * Not thread safe.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class EntitySlotTable {
+
+    /**
+     * Highest generation, the next one wraps back to 1.
+     */
+    public static final int MAX_GENERATION = Integer.MAX_VALUE;
+
+    /**
+     * Maximum number of slots, largest array length supported by the JVM.
+     */
+    static final int MAX_SLOTS = Integer.MAX_VALUE - 8;
+
+    /**
+     * Marker for the end of the free slot list.
+     */
+    private static final int NONE = -1;
+
+    /**
+     * Generation of every slot, positive if the slot is alive, negative of the next generation to issue if it is free.
+     */
+    private int[] generations;
+
+    /**
+     * Next free slot of each free slot.
+     */
+    private int[] nextFree;
+
+    /**
+     * First free slot, NONE if all used slots are alive.
+     */
+    private int freeHead = NONE;
+
+    /**
+     * Number of slots ever used.
+     */
+    private int capacity;
+
+    /**
+     * Number of live slots.
+     */
+    private int size;
+
+    /**
+     * Create a new table.
+     */
+    public EntitySlotTable() {
+        this(64);
+    }
+
+    /**
+     * Create a new table.
+     *
+     * @param initialCapacity Number of slots before the arrays grow.
+     * @throws IllegalArgumentException If the capacity is negative or above the maximum array length.
+     */
+    public EntitySlotTable(final int initialCapacity) {
+        super();
+        if (initialCapacity < 0 || initialCapacity > MAX_SLOTS) {
+            throw new IllegalArgumentException("Invalid capacity: " + initialCapacity);
+        }
+        this.generations = new int[initialCapacity];
+        this.nextFree = new int[initialCapacity];
+    }
+
+    /**
+     * Build a generational value.
+     *
+     * @param slot       Slot index, positive.
+     * @param generation Slot generation, from 1 to MAX_GENERATION.
+     * @return The packed value.
+     * @throws IllegalArgumentException If the slot or the generation is out of range.
+     */
+    public static long pack(final int slot, final int generation) {
+        if (slot < 0 || generation < 1) {
+            throw new IllegalArgumentException("Invalid slot or generation: " + slot + ", " + generation);
+        }
+        return ((long) generation << 32) | slot;
+    }
+
+    /**
+     * Extract the slot of a generational value.
+     *
+     * @param value Generational value.
+     * @return The slot index.
+     */
+    public static int slotOf(final long value) {
+        return (int) value;
+    }
+
+    /**
+     * Extract the generation of a generational value.
+     *
+     * @param value Generational value.
+     * @return The slot generation.
+     */
+    public static int generationOf(final long value) {
+        return (int) (value >>> 32);
+    }
+
+    /**
+     * Create a new entity in a free slot, or in a new one if none is free.
+     *
+     * @return The generational value of the entity.
+     * @throws IllegalStateException If all slots are alive and the table cannot grow anymore.
+     */
+    public long create() {
+        int slot;
+        if (this.freeHead != NONE) {
+            slot = this.freeHead;
+            this.freeHead = this.nextFree[slot];
+            this.generations[slot] = -this.generations[slot];
+        } else {
+            slot = this.capacity;
+            if (slot == this.generations.length) {
+                int length = grow(slot);
+                this.generations = Arrays.copyOf(this.generations, length);
+                this.nextFree = Arrays.copyOf(this.nextFree, length);
+            }
+            this.generations[slot] = 1;
+            this.capacity++;
+        }
+        this.size++;
+        return pack(slot, this.generations[slot]);
+    }
+
+    /**
+     * Compute the new length of the slot arrays, doubling it up to the maximum array length.
+     *
+     * @param length Current length.
+     * @return The new length.
+     * @throws IllegalStateException If the length is already the maximum.
+     */
+    static int grow(final int length) {
+        if (length >= MAX_SLOTS) {
+            throw new IllegalStateException("Entity slot table is full: " + length + " slots.");
+        }
+        return (int) Math.min(MAX_SLOTS, Math.max(16L, (long) length << 1));
+    }
+
+    /**
+     * Create a new entity and retrieve its id.
+     *
+     * @return The id of the entity.
+     */
+    public EntityId createId() {
+        return EntityId.valueOf(this.create());
+    }
+
+    /**
+     * Check if an id is the one of a live entity.
+     *
+     * @param id Id to check.
+     * @return <code>true</code> if the id slot is alive with the same generation.
+     */
+    public boolean isAlive(final EntityId id) {
+        return this.isAlive(id.value);
+    }
+
+    /**
+     * Check if a value is the one of a live entity.
+     *
+     * @param value Value to check.
+     * @return <code>true</code> if the value slot is alive with the same generation.
+     */
+    public boolean isAlive(final long value) {
+        return this.slotIfAlive(value) != NONE;
+    }
+
+    /**
+     * Retrieve the slot of a live entity, to index dense arrays.
+     *
+     * @param value Value of the entity.
+     * @return The slot, or -1 if the value is stale or unknown.
+     */
+    public int slotIfAlive(final long value) {
+        int slot = slotOf(value);
+        int generation = generationOf(value);
+        return slot >= 0 && slot < this.capacity && generation > 0 && this.generations[slot] == generation ? slot : NONE;
+    }
+
+    /**
+     * Destroy an entity, its slot is reused by a later creation with the next generation.
+     *
+     * @param id Id of the entity.
+     * @return <code>true</code> if the entity was alive.
+     */
+    public boolean destroy(final EntityId id) {
+        return this.destroy(id.value);
+    }
+
+    /**
+     * Destroy an entity, its slot is reused by a later creation with the next generation.
+     *
+     * @param value Value of the entity.
+     * @return <code>true</code> if the entity was alive.
+     */
+    public boolean destroy(final long value) {
+        int slot = this.slotIfAlive(value);
+        if (slot == NONE) {
+            return false;
+        }
+        int generation = this.generations[slot];
+        this.generations[slot] = -(generation == MAX_GENERATION ? 1 : generation + 1);
+        this.nextFree[slot] = this.freeHead;
+        this.freeHead = slot;
+        this.size--;
+        return true;
+    }
+
+    /**
+     * @return The number of live entities.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return The number of slots ever used, every slot is lower than this value.
+     */
+    public int capacity() {
+        return this.capacity;
+    }
+}
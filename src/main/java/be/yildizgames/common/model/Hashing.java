@@ -0,0 +1,86 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+/**
+ * Hash functions shared by the primitive keyed tables of this package.
+ * Id values are mostly sequential, the mix spreads them over the whole table to keep probe sequences short.
+ *
+ * @author Grégory Van den Borre
+ */
+final class Hashing {
+
+    /**
+     * 2^64 divided by the golden ratio.
+     */
+    private static final long PHI_64 = 0x9E3779B97F4A7C15L;
+
+    /**
+     * 2^32 divided by the golden ratio.
+     */
+    private static final int PHI_32 = 0x9E3779B9;
+
+    private Hashing() {
+        super();
+    }
+
+    /**
+     * Mix the bits of a long value.
+     *
+     * @param value Value to hash.
+     * @return The mixed hash, all bits are significant.
+     */
+    static int mix(final long value) {
+        long h = value * PHI_64;
+        h ^= h >>> 32;
+        return (int) (h ^ (h >>> 16));
+    }
+
+    /**
+     * Mix the bits of an int value.
+     *
+     * @param value Value to hash.
+     * @return The mixed hash, all bits are significant.
+     */
+    static int mix(final int value) {
+        int h = value * PHI_32;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Compute the table capacity to hold an expected number of elements.
+     *
+     * @param expected Expected number of elements.
+     * @param loadFactor Maximum load factor of the table.
+     * @return A power of two capacity.
+     */
+    static int capacity(final int expected, final float loadFactor) {
+        long needed = Math.max(2L, (long) Math.ceil(expected / loadFactor));
+        if (needed > (1 << 30)) {
+            throw new IllegalArgumentException("Too many elements: " + expected);
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+}
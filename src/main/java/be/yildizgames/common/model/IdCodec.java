@@ -0,0 +1,318 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary encoding of ids, in fixed width or in variable length, directly from and to buffers.
+ * <p>
+ * Fixed width values use the buffer byte order. Variable length values are zigzag encoded, so small negative values
+ * stay small, and written in little endian groups of 7 bits, the high bit of every byte being set if more bytes follow.
+ * Decoded ids are retrieved from their intern pool, no intermediate object is built.
+ * Heap and direct buffers are both supported, all methods use and advance the buffer position.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class IdCodec {
+
+    /**
+     * Maximum size of a variable length long.
+     */
+    public static final int MAX_VAR_LONG_BYTES = 10;
+
+    /**
+     * Maximum size of a variable length int.
+     */
+    public static final int MAX_VAR_INT_BYTES = 5;
+
+    private IdCodec() {
+        super();
+    }
+
+    /**
+     * Write an EntityId on 8 bytes.
+     *
+     * @param buffer Buffer to write into.
+     * @param id     Id to write.
+     * @throws java.nio.BufferOverflowException If there is not enough room in the buffer.
+     */
+    public static void writeEntityId(final ByteBuffer buffer, final EntityId id) {
+        buffer.putLong(id.value);
+    }
+
+    /**
+     * Read an EntityId written on 8 bytes.
+     *
+     * @param buffer Buffer to read from.
+     * @return The id.
+     * @throws java.nio.BufferUnderflowException If there are not enough bytes in the buffer.
+     */
+    public static EntityId readEntityId(final ByteBuffer buffer) {
+        return EntityId.valueOf(buffer.getLong());
+    }
+
+    /**
+     * Write an EntityId on 1 to 10 bytes.
+     *
+     * @param buffer Buffer to write into.
+     * @param id     Id to write.
+     * @throws java.nio.BufferOverflowException If there is not enough room in the buffer.
+     */
+    public static void writeVarEntityId(final ByteBuffer buffer, final EntityId id) {
+        writeVarLong(buffer, id.value);
+    }
+
+    /**
+     * Read an EntityId written in variable length.
+     *
+     * @param buffer Buffer to read from.
+     * @return The id.
+     * @throws java.nio.BufferUnderflowException If there are not enough bytes in the buffer.
+     * @throws IllegalArgumentException If the value is malformed.
+     */
+    public static EntityId readVarEntityId(final ByteBuffer buffer) {
+        return EntityId.valueOf(readVarLong(buffer));
+    }
+
+    /**
+     * Write a PlayerId on 4 bytes.
+     *
+     * @param buffer Buffer to write into.
+     * @param id     Id to write.
+     */
+    public static void writePlayerId(final ByteBuffer buffer, final PlayerId id) {
+        buffer.putInt(id.value);
+    }
+
+    /**
+     * Read a PlayerId written on 4 bytes.
+     *
+     * @param buffer Buffer to read from.
+     * @return The id.
+     */
+    public static PlayerId readPlayerId(final ByteBuffer buffer) {
+        return PlayerId.valueOf(buffer.getInt());
+    }
+
+    /**
+     * Write a PlayerId on 1 to 5 bytes.
+     *
+     * @param buffer Buffer to write into.
+     * @param id     Id to write.
+     */
+    public static void writeVarPlayerId(final ByteBuffer buffer, final PlayerId id) {
+        writeVarInt(buffer, id.value);
+    }
+
+    /**
+     * Read a PlayerId written in variable length.
+     *
+     * @param buffer Buffer to read from.
+     * @return The id.
+     * @throws IllegalArgumentException If the value is malformed.
+     */
+    public static PlayerId readVarPlayerId(final ByteBuffer buffer) {
+        return PlayerId.valueOf(readVarInt(buffer));
+    }
+
+    /**
+     * Write a WorldId on 4 bytes.
+     *
+     * @param buffer Buffer to write into.
+     * @param id     Id to write.
+     */
+    public static void writeWorldId(final ByteBuffer buffer, final WorldId id) {
+        buffer.putInt(id.value);
+    }
+
+    /**
+     * Read a WorldId written on 4 bytes.
+     *
+     * @param buffer Buffer to read from.
+     * @return The id.
+     */
+    public static WorldId readWorldId(final ByteBuffer buffer) {
+        return WorldId.valueOf(buffer.getInt());
+    }
+
+    /**
+     * Write a WorldId on 1 to 5 bytes.
+     *
+     * @param buffer Buffer to write into.
+     * @param id     Id to write.
+     */
+    public static void writeVarWorldId(final ByteBuffer buffer, final WorldId id) {
+        writeVarInt(buffer, id.value);
+    }
+
+    /**
+     * Read a WorldId written in variable length.
+     *
+     * @param buffer Buffer to read from.
+     * @return The id.
+     * @throws IllegalArgumentException If the value is malformed.
+     */
+    public static WorldId readVarWorldId(final ByteBuffer buffer) {
+        return WorldId.valueOf(readVarInt(buffer));
+    }
+
+    /**
+     * Write an ActionId on 4 bytes.
+     *
+     * @param buffer Buffer to write into.
+     * @param id     Id to write.
+     */
+    public static void writeActionId(final ByteBuffer buffer, final ActionId id) {
+        buffer.putInt(id.value);
+    }
+
+    /**
+     * Read an ActionId written on 4 bytes.
+     *
+     * @param buffer Buffer to read from.
+     * @return The id.
+     */
+    public static ActionId readActionId(final ByteBuffer buffer) {
+        return ActionId.valueOf(buffer.getInt());
+    }
+
+    /**
+     * Write an ActionId on 1 to 5 bytes.
+     *
+     * @param buffer Buffer to write into.
+     * @param id     Id to write.
+     */
+    public static void writeVarActionId(final ByteBuffer buffer, final ActionId id) {
+        writeVarInt(buffer, id.value);
+    }
+
+    /**
+     * Read an ActionId written in variable length.
+     *
+     * @param buffer Buffer to read from.
+     * @return The id.
+     * @throws IllegalArgumentException If the value is malformed.
+     */
+    public static ActionId readVarActionId(final ByteBuffer buffer) {
+        return ActionId.valueOf(readVarInt(buffer));
+    }
+
+    /**
+     * Write a zigzag encoded long on 1 to 10 bytes.
+     *
+     * @param buffer Buffer to write into.
+     * @param value  Value to write.
+     */
+    public static void writeVarLong(final ByteBuffer buffer, final long value) {
+        long v = (value << 1) ^ (value >> 63);
+        while ((v & ~0x7FL) != 0) {
+            buffer.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buffer.put((byte) v);
+    }
+
+    /**
+     * Read a zigzag encoded long.
+     *
+     * @param buffer Buffer to read from.
+     * @return The value.
+     * @throws IllegalArgumentException If the value is longer than 10 bytes or does not fit in 64 bits.
+     */
+    public static long readVarLong(final ByteBuffer buffer) {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            if (shift == 63 && b > 0x01) {
+                throw new IllegalArgumentException("Malformed variable length long.");
+            }
+            v |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return (v >>> 1) ^ -(v & 1);
+            }
+        }
+        throw new IllegalArgumentException("Malformed variable length long.");
+    }
+
+    /**
+     * Write a zigzag encoded int on 1 to 5 bytes.
+     *
+     * @param buffer Buffer to write into.
+     * @param value  Value to write.
+     */
+    public static void writeVarInt(final ByteBuffer buffer, final int value) {
+        int v = (value << 1) ^ (value >> 31);
+        while ((v & ~0x7F) != 0) {
+            buffer.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buffer.put((byte) v);
+    }
+
+    /**
+     * Read a zigzag encoded int.
+     *
+     * @param buffer Buffer to read from.
+     * @return The value.
+     * @throws IllegalArgumentException If the value is longer than 5 bytes or does not fit in 32 bits.
+     */
+    public static int readVarInt(final ByteBuffer buffer) {
+        int v = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buffer.get();
+            if (shift == 28 && b > 0x0F) {
+                throw new IllegalArgumentException("Malformed variable length int.");
+            }
+            v |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return (v >>> 1) ^ -(v & 1);
+            }
+        }
+        throw new IllegalArgumentException("Malformed variable length int.");
+    }
+
+    /**
+     * Compute the size of a zigzag encoded long.
+     *
+     * @param value Value to encode.
+     * @return The number of bytes, from 1 to 10.
+     */
+    public static int varLongSize(final long value) {
+        long v = (value << 1) ^ (value >> 63);
+        return 1 + (63 - Long.numberOfLeadingZeros(v | 1)) / 7;
+    }
+
+    /**
+     * Compute the size of a zigzag encoded int.
+     *
+     * @param value Value to encode.
+     * @return The number of bytes, from 1 to 5.
+     */
+    public static int varIntSize(final int value) {
+        int v = (value << 1) ^ (value >> 31);
+        return 1 + (31 - Integer.numberOfLeadingZeros(v | 1)) / 7;
+    }
+}
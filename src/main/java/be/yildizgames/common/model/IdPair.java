@@ -0,0 +1,111 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+/**
+ * Pack an int id, such as a PlayerId, a WorldId or an ActionId, and an entity id value in a single long, to be used as
+ * a primitive key for the caches indexed by a pair of ids, without allocating a key object.
+ * <p>
+ * The int id is stored in the high 32 bits and the entity id in the low 32 bits: only the entity id values in the int
+ * range, from {@link #MIN_ENTITY} to {@link #MAX_ENTITY}, can be packed, the other ones are rejected.
+ * <p>
+ * Immutable and thread safe class.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class IdPair {
+
+    /**
+     * Smallest entity id value that can be packed.
+     */
+    public static final long MIN_ENTITY = Integer.MIN_VALUE;
+
+    /**
+     * Largest entity id value that can be packed.
+     */
+    public static final long MAX_ENTITY = Integer.MAX_VALUE;
+
+    private IdPair() {
+        super();
+    }
+
+    /**
+     * Pack an int id and an entity id.
+     *
+     * @param id     Int id, in the high bits.
+     * @param entity Entity id, in the low bits.
+     * @return The packed key.
+     * @throws IllegalArgumentException If the entity id value is not in the packable range.
+     * @throws NullPointerException     If id or entity is null.
+     */
+    public static long pack(final ValueObject id, final EntityId entity) {
+        return IdPair.pack(id.value, entity.value);
+    }
+
+    /**
+     * Pack an int id value and an entity id value.
+     *
+     * @param id     Int id value, in the high bits.
+     * @param entity Entity id value, in the low bits.
+     * @return The packed key.
+     * @throws IllegalArgumentException If the entity id value is not in the packable range.
+     */
+    public static long pack(final int id, final long entity) {
+        if (!IdPair.isPackable(entity)) {
+            throw new IllegalArgumentException("Entity id value out of the packable range: " + entity);
+        }
+        return ((long) id << 32) | (entity & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Check if an entity id value can be packed.
+     *
+     * @param entity Entity id value to check.
+     * @return <code>true</code> if the value is between MIN_ENTITY and MAX_ENTITY.
+     */
+    public static boolean isPackable(final long entity) {
+        return entity == (int) entity;
+    }
+
+    /**
+     * Extract the int id value from a packed key.
+     *
+     * @param key Packed key.
+     * @return The int id value.
+     */
+    public static int idOf(final long key) {
+        return (int) (key >> 32);
+    }
+
+    /**
+     * Extract the entity id value from a packed key.
+     *
+     * @param key Packed key.
+     * @return The entity id value.
+     */
+    public static long entityOf(final long key) {
+        return (int) key;
+    }
+}
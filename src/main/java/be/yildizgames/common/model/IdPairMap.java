@@ -0,0 +1,253 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+/**
+ * Map with (int id, EntityId) pair keys, such as (PlayerId, EntityId) or (WorldId, EntityId), packed with
+ * {@link IdPair} in a single long and stored in an EntityIdMap. No key object nor node is allocated per entry or per
+ * lookup. Every method exists with the id objects, with the raw id values and with the packed key.
+ * <p>
+ * Only the entity id values accepted by {@link IdPair#isPackable(long)} can be used.
+ * <p>
+ * Not thread safe.
+ *
+ * @param <K> Type of the int ids.
+ * @param <V> Type of the values.
+ * @author Grégory Van den Borre
+ */
+public final class IdPairMap<K extends ValueObject, V> {
+
+    /**
+     * Values by packed key.
+     */
+    private final EntityIdMap<V> map;
+
+    /**
+     * Create a new empty map.
+     */
+    public IdPairMap() {
+        this.map = new EntityIdMap<>();
+    }
+
+    /**
+     * Create a new empty map.
+     *
+     * @param expectedSize Number of entries expected to be stored before the map grows.
+     */
+    public IdPairMap(final int expectedSize) {
+        this.map = new EntityIdMap<>(expectedSize);
+    }
+
+    /**
+     * Retrieve the value associated to a pair.
+     *
+     * @param id     Int id of the pair.
+     * @param entity Entity id of the pair.
+     * @return The value, or null if the pair is not present.
+     * @throws IllegalArgumentException If the entity id value is not packable.
+     * @throws NullPointerException     If id or entity is null.
+     */
+    public V get(final K id, final EntityId entity) {
+        return this.get(IdPair.pack(id, entity));
+    }
+
+    /**
+     * Retrieve the value associated to a pair.
+     *
+     * @param id     Int id value of the pair.
+     * @param entity Entity id value of the pair.
+     * @return The value, or null if the pair is not present.
+     * @throws IllegalArgumentException If the entity id value is not packable.
+     */
+    public V get(final int id, final long entity) {
+        return this.get(IdPair.pack(id, entity));
+    }
+
+    /**
+     * Retrieve the value associated to a pair.
+     *
+     * @param key Packed pair.
+     * @return The value, or null if the pair is not present.
+     */
+    public V get(final long key) {
+        return this.map.get(key);
+    }
+
+    /**
+     * Check if a pair is present.
+     *
+     * @param id     Int id of the pair.
+     * @param entity Entity id of the pair.
+     * @return <code>true</code> if the pair is present.
+     * @throws IllegalArgumentException If the entity id value is not packable.
+     * @throws NullPointerException     If id or entity is null.
+     */
+    public boolean containsKey(final K id, final EntityId entity) {
+        return this.map.containsKey(IdPair.pack(id, entity));
+    }
+
+    /**
+     * Check if a pair is present.
+     *
+     * @param id     Int id value of the pair.
+     * @param entity Entity id value of the pair.
+     * @return <code>true</code> if the pair is present.
+     * @throws IllegalArgumentException If the entity id value is not packable.
+     */
+    public boolean containsKey(final int id, final long entity) {
+        return this.map.containsKey(IdPair.pack(id, entity));
+    }
+
+    /**
+     * Check if a pair is present.
+     *
+     * @param key Packed pair.
+     * @return <code>true</code> if the pair is present.
+     */
+    public boolean containsKey(final long key) {
+        return this.map.containsKey(key);
+    }
+
+    /**
+     * Associate a value to a pair.
+     *
+     * @param id     Int id of the pair.
+     * @param entity Entity id of the pair.
+     * @param value  Value to associate.
+     * @return The value previously associated, or null if the pair was not present.
+     * @throws IllegalArgumentException If the entity id value is not packable.
+     * @throws NullPointerException     If id or entity is null.
+     */
+    public V put(final K id, final EntityId entity, final V value) {
+        return this.put(IdPair.pack(id, entity), value);
+    }
+
+    /**
+     * Associate a value to a pair.
+     *
+     * @param id     Int id value of the pair.
+     * @param entity Entity id value of the pair.
+     * @param value  Value to associate.
+     * @return The value previously associated, or null if the pair was not present.
+     * @throws IllegalArgumentException If the entity id value is not packable.
+     */
+    public V put(final int id, final long entity, final V value) {
+        return this.put(IdPair.pack(id, entity), value);
+    }
+
+    /**
+     * Associate a value to a pair.
+     *
+     * @param key   Packed pair.
+     * @param value Value to associate.
+     * @return The value previously associated, or null if the pair was not present.
+     */
+    public V put(final long key, final V value) {
+        return this.map.put(key, value);
+    }
+
+    /**
+     * Remove a pair.
+     *
+     * @param id     Int id of the pair.
+     * @param entity Entity id of the pair.
+     * @return The value associated to the removed pair, or null if it was not present.
+     * @throws IllegalArgumentException If the entity id value is not packable.
+     * @throws NullPointerException     If id or entity is null.
+     */
+    public V remove(final K id, final EntityId entity) {
+        return this.remove(IdPair.pack(id, entity));
+    }
+
+    /**
+     * Remove a pair.
+     *
+     * @param id     Int id value of the pair.
+     * @param entity Entity id value of the pair.
+     * @return The value associated to the removed pair, or null if it was not present.
+     * @throws IllegalArgumentException If the entity id value is not packable.
+     */
+    public V remove(final int id, final long entity) {
+        return this.remove(IdPair.pack(id, entity));
+    }
+
+    /**
+     * Remove a pair.
+     *
+     * @param key Packed pair.
+     * @return The value associated to the removed pair, or null if it was not present.
+     */
+    public V remove(final long key) {
+        return this.map.remove(key);
+    }
+
+    /**
+     * @return The number of pairs.
+     */
+    public int size() {
+        return this.map.size();
+    }
+
+    /**
+     * @return <code>true</code> if there is no pair.
+     */
+    public boolean isEmpty() {
+        return this.map.isEmpty();
+    }
+
+    /**
+     * Remove all entries, the capacity is kept.
+     */
+    public void clear() {
+        this.map.clear();
+    }
+
+    /**
+     * Call an action for every entry, without allocating any key.
+     *
+     * @param action Action to call with every pair and its associated value.
+     */
+    public void forEach(final EntryConsumer<? super V> action) {
+        this.map.forEach((key, value) -> action.accept(IdPair.idOf(key), IdPair.entityOf(key), value));
+    }
+
+    /**
+     * Receive the entries of the map.
+     *
+     * @param <V> Type of the values.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+
+        /**
+         * Receive an entry.
+         *
+         * @param id     Int id value of the pair.
+         * @param entity Entity id value of the pair.
+         * @param value  Value associated to the pair.
+         */
+        void accept(int id, long entity, V value);
+    }
+}
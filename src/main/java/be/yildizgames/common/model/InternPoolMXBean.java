@@ -0,0 +1,74 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+/**
+ * Management view of an id intern pool.
+ * The usage counters stay at 0 unless the system property be.yildizgames.common.model.metrics is set to true.
+ *
+ * @author Grégory Van den Borre
+ */
+public interface InternPoolMXBean {
+
+    /**
+     * @return The name of the interned id type.
+     */
+    String getName();
+
+    /**
+     * @return The number of interned ids.
+     */
+    int getSize();
+
+    /**
+     * @return The number of valueOf calls returning an existing id.
+     */
+    long getHits();
+
+    /**
+     * @return The number of valueOf calls creating a new id.
+     */
+    long getMisses();
+
+    /**
+     * @return The number of ids added to the pool.
+     */
+    long getInserts();
+
+    /**
+     * @return The number of failed compare and set and waits on another thread.
+     */
+    long getContention();
+
+    /**
+     * @return The estimated memory retained by the pool and its ids, in bytes.
+     */
+    long getEstimatedRetainedBytes();
+
+    /**
+     * @return <code>true</code> if the usage counters are enabled.
+     */
+    boolean isStatisticsEnabled();
+}
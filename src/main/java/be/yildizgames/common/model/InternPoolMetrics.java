@@ -0,0 +1,215 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import jdk.jfr.FlightRecorder;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Runtime metrics of the id intern pools: size, estimated retained memory, and usage counters when the system
+ * property be.yildizgames.common.model.metrics is set to true before the id classes are initialized.
+ * <p>
+ * The metrics can be published as MBeans, named be.yildizgames.common.model:type=InternPool,name=[id type], and as a
+ * periodic flight recorder event, be.yildizgames.common.model.InternPool, emitted every 10 seconds by default.
+ * Publishing needs the java.management and jdk.jfr modules, the library itself does not require them.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class InternPoolMetrics {
+
+    /**
+     * Domain of the MBean names.
+     */
+    public static final String DOMAIN = "be.yildizgames.common.model";
+
+    /**
+     * Estimated size of an EntityId.
+     */
+    private static final int ENTITY_ID_BYTES = 24;
+
+    /**
+     * Estimated size of an int based id.
+     */
+    private static final int VALUE_OBJECT_BYTES = 16;
+
+    /**
+     * Flag set once the event is registered, guarded by the class.
+     */
+    private static boolean eventRegistered;
+
+    private InternPoolMetrics() {
+        super();
+    }
+
+    /**
+     * @return A view of every id intern pool.
+     */
+    public static List<InternPoolMXBean> pools() {
+        return List.of(
+                new View("EntityId", EntityId.pool(), ENTITY_ID_BYTES),
+                new View("PlayerId", PlayerId.pool(), VALUE_OBJECT_BYTES),
+                new View("WorldId", WorldId.pool(), VALUE_OBJECT_BYTES),
+                new View("ActionId", ActionId.pool(), VALUE_OBJECT_BYTES),
+                new View("BonusId", BonusId.pool(), VALUE_OBJECT_BYTES));
+    }
+
+    /**
+     * Register the pool MBeans in the platform MBean server, pools already registered are kept.
+     *
+     * @throws IllegalStateException If a registration fails.
+     */
+    public static void registerMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (InternPoolMXBean pool : pools()) {
+            try {
+                server.registerMBean(pool, objectName(pool.getName()));
+            } catch (InstanceAlreadyExistsException e) {
+                // Already registered.
+            } catch (JMException e) {
+                throw new IllegalStateException("Cannot register the MBean for " + pool.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Unregister the pool MBeans from the platform MBean server, pools not registered are ignored.
+     *
+     * @throws IllegalStateException If an unregistration fails.
+     */
+    public static void unregisterMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (InternPoolMXBean pool : pools()) {
+            try {
+                ObjectName name = objectName(pool.getName());
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+            } catch (JMException e) {
+                throw new IllegalStateException("Cannot unregister the MBean for " + pool.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Register the periodic flight recorder event, an event per pool is emitted at each period of a recording
+     * enabling it. Calling this method more than once has no effect.
+     */
+    public static synchronized void registerEvent() {
+        if (!eventRegistered) {
+            FlightRecorder.addPeriodicEvent(InternPoolEvent.class, InternPoolMetrics::emitEvents);
+            eventRegistered = true;
+        }
+    }
+
+    /**
+     * Build the MBean name of a pool.
+     *
+     * @param pool Pool name.
+     * @return The MBean name.
+     * @throws JMException If the name is not valid.
+     */
+    static ObjectName objectName(final String pool) throws JMException {
+        return new ObjectName(DOMAIN + ":type=InternPool,name=" + pool);
+    }
+
+    private static void emitEvents() {
+        for (InternPoolMXBean pool : pools()) {
+            InternPoolEvent event = new InternPoolEvent();
+            event.pool = pool.getName();
+            event.size = pool.getSize();
+            event.hits = pool.getHits();
+            event.misses = pool.getMisses();
+            event.inserts = pool.getInserts();
+            event.contention = pool.getContention();
+            event.retainedBytes = pool.getEstimatedRetainedBytes();
+            event.commit();
+        }
+    }
+
+    /**
+     * Read only view of a pool, the values are read when requested.
+     */
+    private static final class View implements InternPoolMXBean {
+
+        private final String name;
+
+        private final InternPool pool;
+
+        private final int objectBytes;
+
+        private View(final String name, final InternPool pool, final int objectBytes) {
+            super();
+            this.name = name;
+            this.pool = pool;
+            this.objectBytes = objectBytes;
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        @Override
+        public int getSize() {
+            return this.pool.size();
+        }
+
+        @Override
+        public long getHits() {
+            return this.pool.statistics().getHits();
+        }
+
+        @Override
+        public long getMisses() {
+            return this.pool.statistics().getMisses();
+        }
+
+        @Override
+        public long getInserts() {
+            return this.pool.statistics().getInserts();
+        }
+
+        @Override
+        public long getContention() {
+            return this.pool.statistics().getContention();
+        }
+
+        @Override
+        public long getEstimatedRetainedBytes() {
+            return this.pool.overheadBytes() + (long) this.objectBytes * this.pool.size();
+        }
+
+        @Override
+        public boolean isStatisticsEnabled() {
+            return PoolStatistics.ENABLED;
+        }
+    }
+}
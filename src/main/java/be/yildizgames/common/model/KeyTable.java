@@ -0,0 +1,310 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Open addressing hash table algorithm shared by the primitive int and long key tables.
+ * <p>
+ * Keys are stored in a single primitive array with linear probing, 0 marks an empty slot, the key 0 itself is stored
+ * in the extra slot at index capacity. Removals shift the following keys back instead of leaving tombstones. Subclasses
+ * keep their values in parallel arrays and are notified when a key moves.
+ * <p>
+ * This class holds the bookkeeping and the algorithms working on slots: backward shift removal, zero key, growth and
+ * key iteration. The key array itself, and the lookup and insertion loops, are in the typed subclasses: they are the
+ * hot paths and probe the primitive array directly, without going through an abstract key accessor.
+ * <p>
+ * Not thread safe.
+ *
+ * @author Grégory Van den Borre
+ */
+abstract class KeyTable {
+
+    /**
+     * Maximum ratio of used slots before the table grows.
+     */
+    static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * Default number of expected keys.
+     */
+    static final int DEFAULT_EXPECTED_SIZE = 16;
+
+    /**
+     * Number of slots, excluding the one for the key 0, always a power of two.
+     */
+    int capacity;
+
+    /**
+     * Capacity - 1.
+     */
+    int mask;
+
+    /**
+     * Number of keys before the table grows.
+     */
+    private int maxFill;
+
+    /**
+     * Number of keys.
+     */
+    private int size;
+
+    /**
+     * Flag set if the key 0 is present.
+     */
+    boolean containsZero;
+
+    /**
+     * Create a new table.
+     *
+     * @param expectedSize Number of keys expected to be stored before the table grows.
+     * @throws IllegalArgumentException If expectedSize is negative.
+     */
+    KeyTable(final int expectedSize) {
+        super();
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Invalid expected size: " + expectedSize);
+        }
+        int newCapacity = Hashing.capacity(expectedSize, LOAD_FACTOR);
+        this.capacity = newCapacity;
+        this.mask = newCapacity - 1;
+        this.maxFill = maxFill(newCapacity);
+    }
+
+    /**
+     * @return The number of keys.
+     */
+    public final int size() {
+        return this.size;
+    }
+
+    /**
+     * @return <code>true</code> if there is no key.
+     */
+    public final boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Find the slot of the key 0.
+     *
+     * @return The key slot, or -1 if it is not present.
+     */
+    final int indexOfZero() {
+        return this.containsZero ? this.capacity : -1;
+    }
+
+    /**
+     * Find the slot of the key 0, adding it if it is not present.
+     *
+     * @return The key slot if it is already present, the complement of its slot otherwise.
+     */
+    final int insertZero() {
+        if (this.containsZero) {
+            return this.capacity;
+        }
+        this.containsZero = true;
+        this.size++;
+        return ~this.capacity;
+    }
+
+    /**
+     * Account for a key stored by a subclass in an empty slot.
+     *
+     * @param pos Slot of the new key.
+     * @return The complement of the slot, as returned by insert.
+     */
+    final int inserted(final int pos) {
+        this.size++;
+        return ~pos;
+    }
+
+    /**
+     * Grow the table if it is too full, to be called once the value of a new key has been set.
+     */
+    final void afterInsert() {
+        if (this.size > this.maxFill) {
+            int newCapacity = this.capacity << 1;
+            int[] moved = this.rehashKeys(newCapacity);
+            moved[this.capacity] = this.containsZero ? newCapacity : -1;
+            this.capacity = newCapacity;
+            this.mask = newCapacity - 1;
+            this.maxFill = maxFill(newCapacity);
+            this.relocate(moved, newCapacity + 1);
+        }
+    }
+
+    /**
+     * Remove the key in a slot, the following keys of the probe sequence are shifted back.
+     *
+     * @param pos Slot to free.
+     */
+    final void removeAt(final int pos) {
+        this.size--;
+        if (pos == this.capacity) {
+            this.containsZero = false;
+            this.clear(pos);
+            return;
+        }
+        int last;
+        int slot = pos;
+        while (true) {
+            last = slot;
+            slot = (slot + 1) & this.mask;
+            while (true) {
+                if (this.isFree(slot)) {
+                    this.freeKey(last);
+                    this.clear(last);
+                    return;
+                }
+                int home = this.home(slot);
+                if (last <= slot ? last >= home || home > slot : last >= home && home > slot) {
+                    break;
+                }
+                slot = (slot + 1) & this.mask;
+            }
+            this.moveKey(slot, last);
+            this.move(slot, last);
+        }
+    }
+
+    /**
+     * Remove all keys, the capacity is kept.
+     */
+    final void clearKeys() {
+        this.clearKeyArray();
+        this.size = 0;
+        this.containsZero = false;
+    }
+
+    /**
+     * Check if a slot, other than the key 0 one, is empty.
+     *
+     * @param pos Slot to check.
+     * @return <code>true</code> if no key is stored in that slot.
+     */
+    abstract boolean isFree(int pos);
+
+    /**
+     * Compute the first slot of the probe sequence of the key stored in a slot.
+     *
+     * @param pos Slot of the key.
+     * @return The home slot of the key.
+     */
+    abstract int home(int pos);
+
+    /**
+     * Copy a key to another slot.
+     *
+     * @param from Source slot.
+     * @param to   Destination slot.
+     */
+    abstract void moveKey(int from, int to);
+
+    /**
+     * Mark a slot as empty.
+     *
+     * @param pos Slot to free.
+     */
+    abstract void freeKey(int pos);
+
+    /**
+     * Set every key slot as empty.
+     */
+    abstract void clearKeyArray();
+
+    /**
+     * Replace the key array by a larger one and place the keys, except the key 0, in their new slots.
+     *
+     * @param newCapacity New number of slots, excluding the one for the key 0.
+     * @return The new slot of each old slot, -1 for the empty ones, the key 0 one is set by the caller.
+     */
+    abstract int[] rehashKeys(int newCapacity);
+
+    /**
+     * Move the value of a slot to another one, the source slot will be overwritten or cleared.
+     *
+     * @param from Source slot.
+     * @param to   Destination slot.
+     */
+    abstract void move(int from, int to);
+
+    /**
+     * Release the value of a slot which is now empty.
+     *
+     * @param pos Slot freed.
+     */
+    abstract void clear(int pos);
+
+    /**
+     * Move the values to their new slots after the table has grown.
+     *
+     * @param moved     New slot of each old slot, -1 for the empty ones.
+     * @param newLength Length of the new arrays.
+     */
+    abstract void relocate(int[] moved, int newLength);
+
+    private static int maxFill(final int capacity) {
+        return Math.min(capacity - 1, (int) (capacity * LOAD_FACTOR));
+    }
+
+    /**
+     * Iterate on the used slots, starting with the key 0 one if present, the typed iterators read the keys.
+     */
+    abstract class SlotCursor {
+
+        private int next = KeyTable.this.containsZero ? KeyTable.this.capacity : this.advance(0);
+
+        /**
+         * @return <code>true</code> if another slot is used.
+         */
+        public final boolean hasNext() {
+            return this.next < KeyTable.this.capacity || this.next == KeyTable.this.capacity && KeyTable.this.containsZero;
+        }
+
+        /**
+         * @return The next used slot.
+         * @throws NoSuchElementException If there is none.
+         */
+        final int nextSlot() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int current = this.next;
+            this.next = current == KeyTable.this.capacity ? this.advance(0) : this.advance(current + 1);
+            return current;
+        }
+
+        private int advance(final int from) {
+            int i = from;
+            while (i < KeyTable.this.capacity && KeyTable.this.isFree(i)) {
+                i++;
+            }
+            return i == KeyTable.this.capacity ? Integer.MAX_VALUE : i;
+        }
+    }
+}
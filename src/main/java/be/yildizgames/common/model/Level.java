@@ -15,21 +15,35 @@ package be.yildizgames.common.model;
 /**
  * Simple wrapper class to represent level.
  * Immutable class.
+ * <p>
+ * Levels from 0 to 1023 are preallocated and never created again, this range can be changed at startup with the system
+ * property be.yildizgames.common.model.Level.cache. The static arithmetic methods work on primitive values to avoid
+ * any allocation in hot loops.
  *
  * @author Grégory Van den Borre
  */
 public final class Level extends ValueObject {
 
+    /**
+     * Preallocated levels, indexed by their value.
+     */
+    private static final Level[] CACHE = new Level[CacheSize.of(Level.class)];
+
+    static {
+        for (int i = 0; i < Level.CACHE.length; i++) {
+            Level.CACHE[i] = new Level(i);
+        }
+    }
 
     /**
      * Constant for 0.
      */
-    public static final Level ZERO = new Level(0);
+    public static final Level ZERO = Level.valueOf(0);
 
     /**
      * Constant for 1.
      */
-    public static final Level ONE = new Level(1);
+    public static final Level ONE = Level.valueOf(1);
 
     /**
      * Full constructor.
@@ -43,21 +57,79 @@ public final class Level extends ValueObject {
         }
     }
 
+    /**
+     * Retrieve a Level from its value, a cached instance is returned if the value is in the cached range.
+     *
+     * @param level Level value.
+     * @return The Level for that value.
+     * @throws IllegalArgumentException If level is negative.
+     */
     public static Level valueOf(int level) {
+        if (level >= 0 && level < Level.CACHE.length) {
+            return Level.CACHE[level];
+        }
         return new Level(level);
     }
 
+    /**
+     * Compute the sum of a level value and an amount, without allocating any Level.
+     *
+     * @param level Level value.
+     * @param toAdd Value to add, can be negative.
+     * @return The resulting level value.
+     * @throws IllegalArgumentException If the result is negative or overflows.
+     */
+    public static int add(final int level, final int toAdd) {
+        return Level.check((long) level + toAdd);
+    }
+
+    /**
+     * Compute the difference between a level value and an amount, without allocating any Level.
+     *
+     * @param level      Level value.
+     * @param toSubtract Value to subtract, can be negative.
+     * @return The resulting level value.
+     * @throws IllegalArgumentException If the result is negative or overflows.
+     */
+    public static int subtract(final int level, final int toSubtract) {
+        return Level.check((long) level - toSubtract);
+    }
+
+    /**
+     * Check if a level value is not zero, without allocating any Level.
+     *
+     * @param level Level value.
+     * @return <code>true</code> if the level is greater than 0.
+     */
+    public static boolean isNotZero(final int level) {
+        return level > 0;
+    }
+
     /**
      * Create a new Level base on the result of this one added to a value.
      *
      * @param toAdd Value to add to this level to get the new one.
-     * @return A new Level resulting of the sum.
+     * @return The Level resulting of the sum, this one if toAdd is 0.
+     * @throws IllegalArgumentException If the result is negative or overflows.
      */
     public Level add(final int toAdd) {
-        return new Level(this.value + toAdd);
+        if (toAdd == 0) {
+            return this;
+        }
+        return Level.valueOf(Level.add(this.value, toAdd));
     }
 
     public boolean isNotZero() {
-        return this.value > 0;
+        return Level.isNotZero(this.value);
+    }
+
+    private static int check(final long result) {
+        if (result < 0) {
+            throw new IllegalArgumentException("Must be greater than 0");
+        }
+        if (result > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Level overflow: " + result);
+        }
+        return (int) result;
     }
 }
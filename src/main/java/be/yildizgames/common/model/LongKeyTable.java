@@ -0,0 +1,187 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+
+/**
+ * Open addressing hash table of primitive long keys, base for the EntityId keyed collections.
+ * <p>
+ * The table algorithm is in KeyTable, this class only holds the long key array and the lookup and insertion loops.
+ * <p>
+ * Not thread safe.
+ *
+ * @author Grégory Van den Borre
+ */
+abstract class LongKeyTable extends KeyTable {
+
+    /**
+     * Keys, the last slot is reserved to the key 0.
+     */
+    long[] keys;
+
+    /**
+     * Create a new table.
+     *
+     * @param expectedSize Number of keys expected to be stored before the table grows.
+     * @throws IllegalArgumentException If expectedSize is negative.
+     */
+    LongKeyTable(final int expectedSize) {
+        super(expectedSize);
+        this.keys = new long[this.capacity + 1];
+    }
+
+    /**
+     * Call an action for every key, without boxing them.
+     *
+     * @param action Action to call with the key values.
+     */
+    public final void forEachKey(final LongConsumer action) {
+        if (this.containsZero) {
+            action.accept(0L);
+        }
+        long[] k = this.keys;
+        for (int i = 0; i < this.capacity; i++) {
+            if (k[i] != 0L) {
+                action.accept(k[i]);
+            }
+        }
+    }
+
+    /**
+     * Provide an iterator on the keys, without boxing them, the table must not be modified while iterating.
+     *
+     * @return An iterator on the key values.
+     */
+    public final PrimitiveIterator.OfLong keyIterator() {
+        return new KeyIterator();
+    }
+
+    /**
+     * Find the slot of a key.
+     *
+     * @param key Key to find.
+     * @return The key slot, or -1 if it is not present.
+     */
+    final int indexOf(final long key) {
+        if (key == 0L) {
+            return this.indexOfZero();
+        }
+        long[] k = this.keys;
+        int pos = Hashing.mix(key) & this.mask;
+        long current;
+        while ((current = k[pos]) != 0L) {
+            if (current == key) {
+                return pos;
+            }
+            pos = (pos + 1) & this.mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Find the slot of a key, adding the key if it is not present.
+     * When the key is added, the caller must set its value in the returned slot and then call afterInsert.
+     *
+     * @param key Key to find or add.
+     * @return The key slot if it is already present, the complement of its new slot otherwise.
+     */
+    final int insert(final long key) {
+        if (key == 0L) {
+            return this.insertZero();
+        }
+        long[] k = this.keys;
+        int pos = Hashing.mix(key) & this.mask;
+        long current;
+        while ((current = k[pos]) != 0L) {
+            if (current == key) {
+                return pos;
+            }
+            pos = (pos + 1) & this.mask;
+        }
+        k[pos] = key;
+        return this.inserted(pos);
+    }
+
+    @Override
+    final boolean isFree(final int pos) {
+        return this.keys[pos] == 0L;
+    }
+
+    @Override
+    final int home(final int pos) {
+        return Hashing.mix(this.keys[pos]) & this.mask;
+    }
+
+    @Override
+    final void moveKey(final int from, final int to) {
+        this.keys[to] = this.keys[from];
+    }
+
+    @Override
+    final void freeKey(final int pos) {
+        this.keys[pos] = 0L;
+    }
+
+    @Override
+    final void clearKeyArray() {
+        Arrays.fill(this.keys, 0L);
+    }
+
+    @Override
+    final int[] rehashKeys(final int newCapacity) {
+        long[] old = this.keys;
+        int[] moved = new int[old.length];
+        long[] k = new long[newCapacity + 1];
+        int newMask = newCapacity - 1;
+        for (int i = 0; i < this.capacity; i++) {
+            if (old[i] == 0L) {
+                moved[i] = -1;
+            } else {
+                int pos = Hashing.mix(old[i]) & newMask;
+                while (k[pos] != 0L) {
+                    pos = (pos + 1) & newMask;
+                }
+                k[pos] = old[i];
+                moved[i] = pos;
+            }
+        }
+        this.keys = k;
+        return moved;
+    }
+
+    /**
+     * Iterate on the keys, starting with the key 0 if present.
+     */
+    private final class KeyIterator extends SlotCursor implements PrimitiveIterator.OfLong {
+
+        @Override
+        public long nextLong() {
+            return LongKeyTable.this.keys[this.nextSlot()];
+        }
+    }
+}
@@ -0,0 +1,551 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+import java.util.function.LongConsumer;
+
+/**
+ * Table of EntityId values stored outside of the Java heap, each id owning a fixed size slot of bytes.
+ * <p>
+ * Ids and slots are records of direct buffers, organized as an open addressing table with linear probing. The heap only
+ * holds the few buffer references, whatever the number of ids, so the table does not weigh on the garbage collector.
+ * Slot values are read and written in place, and iteration gives access to the records without copying them.
+ * The id 0, which is also the empty record marker, is kept in a dedicated record.
+ * <p>
+ * The memory is held by direct buffers, it is returned to the system only when they are garbage collected, there is no
+ * way to free it deterministically. Close only drops the references to the buffers so they can be collected, tables
+ * opened and closed in a loop can still exhaust the direct memory limit until the next collection.
+ * <p>
+ * Not thread safe.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class OffHeapEntityIdTable {
+
+    /**
+     * Maximum size of a single direct buffer.
+     */
+    private static final int MAX_PAGE_BYTES = 1 << 30;
+
+    /**
+     * Maximum number of ids in the table.
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * Size of the key in a record.
+     */
+    private static final int KEY_BYTES = Long.BYTES;
+
+    /**
+     * Size of a slot, as requested.
+     */
+    private final int slotSize;
+
+    /**
+     * Size of a record: the key followed by the slot, rounded to 8 bytes.
+     */
+    private final int recordSize;
+
+    /**
+     * Record for the id 0.
+     */
+    private final ByteBuffer zeroRecord;
+
+    /**
+     * Buffers holding the records, each one with the same number of records.
+     */
+    private ByteBuffer[] pages;
+
+    /**
+     * Number of bits to shift a record index to get its page.
+     */
+    private int pageShift;
+
+    /**
+     * Number of records per page - 1.
+     */
+    private int pageMask;
+
+    /**
+     * Number of records, always a power of two.
+     */
+    private int capacity;
+
+    /**
+     * Number of ids before the table grows.
+     */
+    private int maxFill;
+
+    /**
+     * Number of ids.
+     */
+    private int size;
+
+    /**
+     * Flag set if the id 0 is present.
+     */
+    private boolean containsZero;
+
+    /**
+     * Create a new table.
+     *
+     * @param slotSize     Number of bytes associated to every id, can be 0.
+     * @param expectedSize Number of ids expected to be stored before the table grows.
+     * @throws IllegalArgumentException If slotSize is negative or a record does not fit in a page, or if expectedSize
+     *                                  is negative.
+     */
+    public OffHeapEntityIdTable(final int slotSize, final int expectedSize) {
+        super();
+        if (slotSize < 0 || slotSize > MAX_PAGE_BYTES - KEY_BYTES) {
+            throw new IllegalArgumentException("Invalid slot size: " + slotSize);
+        }
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Invalid expected size: " + expectedSize);
+        }
+        this.slotSize = slotSize;
+        this.recordSize = KEY_BYTES + ((slotSize + 7) & ~7);
+        this.zeroRecord = allocate(this.recordSize);
+        this.pages = this.allocatePages(Hashing.capacity(expectedSize, LongKeyTable.LOAD_FACTOR));
+    }
+
+    /**
+     * Add an id, its slot is filled with zeros.
+     *
+     * @param id Id to add.
+     * @return <code>true</code> if the id was not already present.
+     * @throws NullPointerException If id is null.
+     */
+    public boolean add(final EntityId id) {
+        return this.add(id.value);
+    }
+
+    /**
+     * Add an id, its slot is filled with zeros.
+     *
+     * @param id Id value to add.
+     * @return <code>true</code> if the id was not already present.
+     */
+    public boolean add(final long id) {
+        this.checkOpen();
+        if (id == 0L) {
+            if (this.containsZero) {
+                return false;
+            }
+            this.containsZero = true;
+            clearSlot(this.zeroRecord, 0, this.recordSize);
+            this.size++;
+            return true;
+        }
+        int mask = this.capacity - 1;
+        int record = Hashing.mix(id) & mask;
+        long current;
+        while ((current = this.keyAt(record)) != 0L) {
+            if (current == id) {
+                return false;
+            }
+            record = (record + 1) & mask;
+        }
+        ByteBuffer page = this.page(record);
+        int offset = this.offset(record);
+        page.putLong(offset, id);
+        clearSlot(page, offset, this.recordSize);
+        this.size++;
+        if (this.size > this.maxFill) {
+            this.rehash(this.capacity << 1);
+        }
+        return true;
+    }
+
+    /**
+     * Check if an id is present.
+     *
+     * @param id Id to check.
+     * @return <code>true</code> if the id is present.
+     * @throws NullPointerException If id is null.
+     */
+    public boolean contains(final EntityId id) {
+        return this.contains(id.value);
+    }
+
+    /**
+     * Check if an id is present.
+     *
+     * @param id Id value to check.
+     * @return <code>true</code> if the id is present.
+     */
+    public boolean contains(final long id) {
+        this.checkOpen();
+        return this.find(id) >= 0;
+    }
+
+    /**
+     * Remove an id and its slot.
+     *
+     * @param id Id to remove.
+     * @return <code>true</code> if the id was present.
+     * @throws NullPointerException If id is null.
+     */
+    public boolean remove(final EntityId id) {
+        return this.remove(id.value);
+    }
+
+    /**
+     * Remove an id and its slot.
+     *
+     * @param id Id value to remove.
+     * @return <code>true</code> if the id was present.
+     */
+    public boolean remove(final long id) {
+        this.checkOpen();
+        int record = this.find(id);
+        if (record < 0) {
+            return false;
+        }
+        this.size--;
+        if (record == this.capacity) {
+            this.containsZero = false;
+            return true;
+        }
+        this.shiftBack(record);
+        return true;
+    }
+
+    /**
+     * Read an int from the slot of an id.
+     *
+     * @param id     Id value.
+     * @param offset Position in the slot.
+     * @return The value.
+     * @throws IllegalArgumentException  If the id is not present.
+     * @throws IndexOutOfBoundsException If the value does not fit in the slot at this offset.
+     */
+    public int getInt(final long id, final int offset) {
+        int record = this.recordOf(id, offset, Integer.BYTES);
+        return this.bufferOf(record).getInt(this.slotOffset(record, offset));
+    }
+
+    /**
+     * Write an int in the slot of an id.
+     *
+     * @param id     Id value.
+     * @param offset Position in the slot.
+     * @param value  Value to write.
+     * @throws IllegalArgumentException  If the id is not present.
+     * @throws IndexOutOfBoundsException If the value does not fit in the slot at this offset.
+     */
+    public void putInt(final long id, final int offset, final int value) {
+        int record = this.recordOf(id, offset, Integer.BYTES);
+        this.bufferOf(record).putInt(this.slotOffset(record, offset), value);
+    }
+
+    /**
+     * Read a long from the slot of an id.
+     *
+     * @param id     Id value.
+     * @param offset Position in the slot.
+     * @return The value.
+     * @throws IllegalArgumentException  If the id is not present.
+     * @throws IndexOutOfBoundsException If the value does not fit in the slot at this offset.
+     */
+    public long getLong(final long id, final int offset) {
+        int record = this.recordOf(id, offset, Long.BYTES);
+        return this.bufferOf(record).getLong(this.slotOffset(record, offset));
+    }
+
+    /**
+     * Write a long in the slot of an id.
+     *
+     * @param id     Id value.
+     * @param offset Position in the slot.
+     * @param value  Value to write.
+     * @throws IllegalArgumentException  If the id is not present.
+     * @throws IndexOutOfBoundsException If the value does not fit in the slot at this offset.
+     */
+    public void putLong(final long id, final int offset, final long value) {
+        int record = this.recordOf(id, offset, Long.BYTES);
+        this.bufferOf(record).putLong(this.slotOffset(record, offset), value);
+    }
+
+    /**
+     * Read a double from the slot of an id.
+     *
+     * @param id     Id value.
+     * @param offset Position in the slot.
+     * @return The value.
+     * @throws IllegalArgumentException  If the id is not present.
+     * @throws IndexOutOfBoundsException If the value does not fit in the slot at this offset.
+     */
+    public double getDouble(final long id, final int offset) {
+        int record = this.recordOf(id, offset, Double.BYTES);
+        return this.bufferOf(record).getDouble(this.slotOffset(record, offset));
+    }
+
+    /**
+     * Write a double in the slot of an id.
+     *
+     * @param id     Id value.
+     * @param offset Position in the slot.
+     * @param value  Value to write.
+     * @throws IllegalArgumentException  If the id is not present.
+     * @throws IndexOutOfBoundsException If the value does not fit in the slot at this offset.
+     */
+    public void putDouble(final long id, final int offset, final double value) {
+        int record = this.recordOf(id, offset, Double.BYTES);
+        this.bufferOf(record).putDouble(this.slotOffset(record, offset), value);
+    }
+
+    /**
+     * Provide a view on the slot of an id, sharing the off heap memory.
+     * The view is only valid until the table is modified.
+     *
+     * @param id Id value.
+     * @return A buffer of slotSize bytes, or null if the id is not present.
+     */
+    public ByteBuffer slot(final long id) {
+        this.checkOpen();
+        int record = this.find(id);
+        if (record < 0) {
+            return null;
+        }
+        return this.bufferOf(record).slice(this.slotOffset(record, 0), this.slotSize).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Call an action for every id.
+     *
+     * @param action Action to call with every id value.
+     */
+    public void forEach(final LongConsumer action) {
+        this.checkOpen();
+        if (this.containsZero) {
+            action.accept(0L);
+        }
+        for (int record = 0; record < this.capacity; record++) {
+            long id = this.keyAt(record);
+            if (id != 0L) {
+                action.accept(id);
+            }
+        }
+    }
+
+    /**
+     * Call an action for every id with the location of its slot, nothing is copied.
+     *
+     * @param action Action to call with every id and its slot.
+     */
+    public void forEachSlot(final SlotConsumer action) {
+        this.checkOpen();
+        if (this.containsZero) {
+            action.accept(0L, this.zeroRecord, KEY_BYTES);
+        }
+        for (int record = 0; record < this.capacity; record++) {
+            ByteBuffer page = this.page(record);
+            int offset = this.offset(record);
+            long id = page.getLong(offset);
+            if (id != 0L) {
+                action.accept(id, page, offset + KEY_BYTES);
+            }
+        }
+    }
+
+    /**
+     * @return The number of ids.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return The number of bytes associated to every id.
+     */
+    public int getSlotSize() {
+        return this.slotSize;
+    }
+
+    /**
+     * @return The number of off heap bytes allocated by the table, they are returned only when the buffers are garbage
+     * collected.
+     */
+    public long offHeapBytes() {
+        return ((long) this.capacity + 1) * this.recordSize;
+    }
+
+    /**
+     * Drop the references to the buffers, the table can no longer be used.
+     * The memory is not freed by this call, it is returned once the buffers are garbage collected.
+     */
+    public void close() {
+        this.pages = null;
+        this.size = 0;
+    }
+
+    private int find(final long id) {
+        if (id == 0L) {
+            return this.containsZero ? this.capacity : -1;
+        }
+        int mask = this.capacity - 1;
+        int record = Hashing.mix(id) & mask;
+        long current;
+        while ((current = this.keyAt(record)) != 0L) {
+            if (current == id) {
+                return record;
+            }
+            record = (record + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int recordOf(final long id, final int offset, final int length) {
+        this.checkOpen();
+        Objects.checkFromIndexSize(offset, length, this.slotSize);
+        int record = this.find(id);
+        if (record < 0) {
+            throw new IllegalArgumentException("Id not registered: " + id);
+        }
+        return record;
+    }
+
+    private ByteBuffer bufferOf(final int record) {
+        return record == this.capacity ? this.zeroRecord : this.page(record);
+    }
+
+    private int slotOffset(final int record, final int offset) {
+        return (record == this.capacity ? 0 : this.offset(record)) + KEY_BYTES + offset;
+    }
+
+    private long keyAt(final int record) {
+        return this.page(record).getLong(this.offset(record));
+    }
+
+    private ByteBuffer page(final int record) {
+        return this.pages[record >>> this.pageShift];
+    }
+
+    private int offset(final int record) {
+        return (record & this.pageMask) * this.recordSize;
+    }
+
+    /**
+     * Free a record, the following records of the probe sequence are moved back.
+     *
+     * @param freed Record to free.
+     */
+    private void shiftBack(final int freed) {
+        int mask = this.capacity - 1;
+        int last;
+        int record = freed;
+        while (true) {
+            last = record;
+            record = (record + 1) & mask;
+            long current;
+            while (true) {
+                current = this.keyAt(record);
+                if (current == 0L) {
+                    this.page(last).putLong(this.offset(last), 0L);
+                    return;
+                }
+                int home = Hashing.mix(current) & mask;
+                if (last <= record ? last >= home || home > record : last >= home && home > record) {
+                    break;
+                }
+                record = (record + 1) & mask;
+            }
+            this.page(last).put(this.offset(last), this.page(record), this.offset(record), this.recordSize);
+        }
+    }
+
+    private void rehash(final int newCapacity) {
+        if (newCapacity > MAX_CAPACITY) {
+            throw new IllegalStateException("Table is full: " + this.size);
+        }
+        ByteBuffer[] oldPages = this.pages;
+        int oldShift = this.pageShift;
+        int oldMask = this.pageMask;
+        int oldCapacity = this.capacity;
+        this.pages = this.allocatePages(newCapacity);
+        int mask = newCapacity - 1;
+        for (int old = 0; old < oldCapacity; old++) {
+            ByteBuffer oldPage = oldPages[old >>> oldShift];
+            int oldOffset = (old & oldMask) * this.recordSize;
+            long id = oldPage.getLong(oldOffset);
+            if (id != 0L) {
+                int record = Hashing.mix(id) & mask;
+                while (this.keyAt(record) != 0L) {
+                    record = (record + 1) & mask;
+                }
+                this.page(record).put(this.offset(record), oldPage, oldOffset, this.recordSize);
+            }
+        }
+    }
+
+    private ByteBuffer[] allocatePages(final int newCapacity) {
+        int recordsPerPage = Math.min(newCapacity, Integer.highestOneBit(MAX_PAGE_BYTES / this.recordSize));
+        ByteBuffer[] result = new ByteBuffer[newCapacity / recordsPerPage];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = allocate(recordsPerPage * this.recordSize);
+        }
+        this.capacity = newCapacity;
+        this.maxFill = Math.min(newCapacity - 1, (int) (newCapacity * LongKeyTable.LOAD_FACTOR));
+        this.pageShift = Integer.numberOfTrailingZeros(recordsPerPage);
+        this.pageMask = recordsPerPage - 1;
+        return result;
+    }
+
+    private void checkOpen() {
+        if (this.pages == null) {
+            throw new IllegalStateException("Table is closed.");
+        }
+    }
+
+    private static ByteBuffer allocate(final int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+
+    private static void clearSlot(final ByteBuffer buffer, final int offset, final int recordSize) {
+        for (int i = KEY_BYTES; i < recordSize; i += Long.BYTES) {
+            buffer.putLong(offset + i, 0L);
+        }
+    }
+
+    /**
+     * Receive the ids of the table with the location of their slot.
+     */
+    @FunctionalInterface
+    public interface SlotConsumer {
+
+        /**
+         * Receive an id and its slot.
+         *
+         * @param id     Id value.
+         * @param buffer Buffer holding the slot, its position and limit must not be changed.
+         * @param offset Position of the slot in the buffer.
+         */
+        void accept(long id, ByteBuffer buffer, int offset);
+    }
+}
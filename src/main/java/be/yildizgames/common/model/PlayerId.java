@@ -24,11 +24,13 @@
 
 package be.yildizgames.common.model;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * An id represent an unique instance of a class of object. The same id can be shared between different class but two objects of the same class cannot have the same id.
+ * <p>
+ * Immutable and thread safe class, valueOf can be called concurrently from any thread.
+ * <p>
+ * Values from 0 to 1023 are served from a preallocated array, this range can be changed at startup with the
+ * system property be.yildizgames.common.model.PlayerId.cache.
  *
  * @author Grégory Van den Borre
  */
@@ -37,7 +39,8 @@ public final class PlayerId extends ValueObject {
     /**
      * List of all registered id with their value as key.
      */
-    private static final Map<Integer, PlayerId> LIST = new HashMap<>();
+    private static final ConcurrentIntInternPool<PlayerId> LIST = new ConcurrentIntInternPool<>(PlayerId::new,
+            CacheSize.of(PlayerId.class));
 
     /**
      * Constant value for the world.
@@ -47,7 +50,7 @@ public final class PlayerId extends ValueObject {
     /**
      * Constant id for the world.
      */
-    public static final PlayerId WORLD = new PlayerId(PlayerId.WORLD_VALUE);
+    public static final PlayerId WORLD = PlayerId.valueOf(PlayerId.WORLD_VALUE);
 
     /**
      * Full constructor, private to prevent use, to create an id, retrieve it from Id.get.
@@ -56,7 +59,6 @@ public final class PlayerId extends ValueObject {
      */
     private PlayerId(final int idValue) {
         super(idValue);
-        PlayerId.LIST.putIfAbsent(idValue, this);
     }
 
 
@@ -67,10 +69,14 @@ public final class PlayerId extends ValueObject {
      * @return The Id with the internal value correspond to the parameter.
      */
     public static PlayerId valueOf(final int value) {
-        if (!PlayerId.LIST.containsKey(value)) {
-            PlayerId.LIST.put(value, new PlayerId(value));
-        }
-        return PlayerId.LIST.get(value);
+        return PlayerId.LIST.intern(value);
+    }
+
+    /**
+     * @return The pool of the interned ids, for the metrics.
+     */
+    static InternPool pool() {
+        return PlayerId.LIST;
     }
 
     /**
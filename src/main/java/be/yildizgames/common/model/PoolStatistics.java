@@ -0,0 +1,111 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Usage counters of an intern pool.
+ * <p>
+ * Counting is enabled with the system property be.yildizgames.common.model.metrics set to true before the id classes
+ * are initialized. The flag is a constant, so when it is not set the counting calls are removed by the compiler and
+ * cost nothing. When it is set, every counter is a LongAdder, spreading concurrent increments over several cells.
+ * <p>
+ * Thread safe class.
+ *
+ * @author Grégory Van den Borre
+ */
+final class PoolStatistics {
+
+    /**
+     * System property enabling the counters.
+     */
+    static final String PROPERTY = "be.yildizgames.common.model.metrics";
+
+    /**
+     * Flag set if the counters are enabled.
+     */
+    static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+    /**
+     * Interning calls finding an existing object.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Interning calls creating a new object.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * New objects stored in the pool, lower than the misses when concurrent calls race for the same value.
+     */
+    private final LongAdder inserts = new LongAdder();
+
+    /**
+     * Failed compare and set, lock waits and resize waits.
+     */
+    private final LongAdder contention = new LongAdder();
+
+    void hit() {
+        if (ENABLED) {
+            this.hits.increment();
+        }
+    }
+
+    void miss() {
+        if (ENABLED) {
+            this.misses.increment();
+        }
+    }
+
+    void insert() {
+        if (ENABLED) {
+            this.inserts.increment();
+        }
+    }
+
+    void contention() {
+        if (ENABLED) {
+            this.contention.increment();
+        }
+    }
+
+    long getHits() {
+        return this.hits.sum();
+    }
+
+    long getMisses() {
+        return this.misses.sum();
+    }
+
+    long getInserts() {
+        return this.inserts.sum();
+    }
+
+    long getContention() {
+        return this.contention.sum();
+    }
+}
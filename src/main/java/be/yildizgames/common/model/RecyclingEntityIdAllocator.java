@@ -0,0 +1,319 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Allocate EntityId values recycling the released ones, so the live values stay in a compact range starting at 1, and
+ * array or bitmap structures indexed by the value stay small.
+ * <p>
+ * Released values go through a bounded lock free multi producer multi consumer ring, as described by Dmitry Vyukov:
+ * every slot has a sequence number telling producers and consumers if it can be written or read, a position is claimed
+ * with a single compare and set. A released value is only reused once its quarantine delay has elapsed, giving time to
+ * the references still in flight to be dropped. When no value can be reused, a new one is taken from a counter.
+ * If the ring is full, a released value is not recycled.
+ * <p>
+ * Every value has a released flag, stored in a bitmap growing by pages with the allocated range: it is set with a
+ * compare and set on release and cleared on reuse, so a value released twice for the same allocation is detected
+ * instead of being handed out twice.
+ * <p>
+ * Thread safe class.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class RecyclingEntityIdAllocator {
+
+    /**
+     * Number of values covered by a page of the released flags, as a shift.
+     */
+    private static final int PAGE_SHIFT = 16;
+
+    /**
+     * Released values.
+     */
+    private final long[] values;
+
+    /**
+     * Release times of the values, in clock unit.
+     */
+    private final long[] releaseTimes;
+
+    /**
+     * Sequence of every slot: equal to the position when it can be written, to the position + 1 when it can be read.
+     */
+    private final AtomicLongArray sequences;
+
+    /**
+     * Capacity - 1.
+     */
+    private final int mask;
+
+    /**
+     * Next position to write.
+     */
+    private final AtomicLong enqueuePosition = new AtomicLong();
+
+    /**
+     * Next position to read.
+     */
+    private final AtomicLong dequeuePosition = new AtomicLong();
+
+    /**
+     * Next value never allocated.
+     */
+    private final AtomicLong fresh = new AtomicLong(1L);
+
+    /**
+     * Released flags, one bit per value, by page of 2^PAGE_SHIFT values created on first release. The array is
+     * replaced when it grows and its elements are only written under the page lock.
+     */
+    private volatile AtomicLongArray[] pages = new AtomicLongArray[1];
+
+    /**
+     * Lock to create the pages.
+     */
+    private final ReentrantLock pageLock = new ReentrantLock();
+
+    /**
+     * Quarantine delay, in clock unit.
+     */
+    private final long quarantine;
+
+    /**
+     * Time source.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * Create a new allocator using System.nanoTime as clock.
+     *
+     * @param capacity   Maximum number of released values waiting to be reused, rounded up to a power of two.
+     * @param quarantine Minimum delay before a released value is reused.
+     * @throws IllegalArgumentException If the capacity is lower than 1 or the quarantine is negative.
+     */
+    public RecyclingEntityIdAllocator(final int capacity, final Duration quarantine) {
+        this(capacity, quarantine.toNanos(), System::nanoTime);
+    }
+
+    /**
+     * Create a new allocator.
+     *
+     * @param capacity   Maximum number of released values waiting to be reused, rounded up to a power of two.
+     * @param quarantine Minimum delay before a released value is reused, in clock unit.
+     * @param clock      Time source, monotonic.
+     * @throws IllegalArgumentException If the capacity is lower than 1 or the quarantine is negative.
+     */
+    public RecyclingEntityIdAllocator(final int capacity, final long quarantine, final LongSupplier clock) {
+        super();
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        if (quarantine < 0) {
+            throw new IllegalArgumentException("Invalid quarantine: " + quarantine);
+        }
+        int length = Hashing.capacity(capacity, 1f);
+        this.values = new long[length];
+        this.releaseTimes = new long[length];
+        this.sequences = new AtomicLongArray(length);
+        for (int i = 0; i < length; i++) {
+            this.sequences.set(i, i);
+        }
+        this.mask = length - 1;
+        this.quarantine = quarantine;
+        this.clock = clock;
+    }
+
+    /**
+     * Allocate a value, reusing a released one if its quarantine is over.
+     *
+     * @return The allocated value, never WORLD.
+     */
+    public long allocate() {
+        while (true) {
+            long position = this.dequeuePosition.get();
+            int index = (int) position & this.mask;
+            long difference = this.sequences.get(index) - (position + 1);
+            if (difference < 0) {
+                if (this.enqueuePosition.get() == position) {
+                    return this.fresh.getAndIncrement();
+                }
+                // A release claimed this slot but did not publish it yet, wait for it rather than growing the range.
+                Thread.onSpinWait();
+            } else if (difference == 0) {
+                // The clock is read once the entry is visible, so it cannot be older than the release time.
+                if (this.quarantine > 0 && this.clock.getAsLong() - this.releaseTimes[index] < this.quarantine) {
+                    return this.fresh.getAndIncrement();
+                }
+                if (this.dequeuePosition.compareAndSet(position, position + 1)) {
+                    long value = this.values[index];
+                    this.sequences.set(index, position + this.mask + 1);
+                    this.clearReleased(value);
+                    return value;
+                }
+            }
+        }
+    }
+
+    /**
+     * Allocate an id, reusing a released one if its quarantine is over.
+     *
+     * @return The allocated id, never WORLD.
+     */
+    public EntityId allocateId() {
+        return EntityId.valueOf(this.allocate());
+    }
+
+    /**
+     * Release a value so it can be reused once its quarantine is over, it must not be used anymore.
+     *
+     * @param value Value to release, previously allocated by this allocator.
+     * @return <code>true</code> if the value will be recycled, false if the ring was full, the value is then never reused.
+     * @throws IllegalArgumentException If the value was never allocated.
+     * @throws IllegalStateException    If the value is already released.
+     */
+    public boolean release(final long value) {
+        if (value < 1 || value >= this.fresh.get()) {
+            throw new IllegalArgumentException("Value not allocated: " + value);
+        }
+        if (!this.setReleased(value)) {
+            throw new IllegalStateException("Value already released: " + value);
+        }
+        long now = this.clock.getAsLong();
+        while (true) {
+            long position = this.enqueuePosition.get();
+            int index = (int) position & this.mask;
+            long difference = this.sequences.get(index) - position;
+            if (difference < 0) {
+                if (position - this.dequeuePosition.get() > this.mask) {
+                    return false;
+                }
+                // A reader claimed this slot but did not free it yet.
+                Thread.onSpinWait();
+            } else if (difference == 0 && this.enqueuePosition.compareAndSet(position, position + 1)) {
+                this.values[index] = value;
+                this.releaseTimes[index] = now;
+                this.sequences.set(index, position + 1);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Release an id so it can be reused once its quarantine is over, it must not be used anymore.
+     *
+     * @param id Id to release, previously allocated by this allocator.
+     * @return <code>true</code> if the id will be recycled, false if the ring was full, the id is then never reused.
+     * @throws IllegalArgumentException If the id was never allocated.
+     * @throws IllegalStateException    If the id is already released.
+     */
+    public boolean release(final EntityId id) {
+        return this.release(id.value);
+    }
+
+    /**
+     * @return The number of released values waiting to be reused, approximate while values are allocated or released.
+     */
+    public int recycled() {
+        return (int) Math.max(0, this.enqueuePosition.get() - this.dequeuePosition.get());
+    }
+
+    /**
+     * @return The upper bound, exclusive, of the values allocated so far.
+     */
+    public long highWaterMark() {
+        return this.fresh.get();
+    }
+
+    /**
+     * Set the released flag of a value.
+     *
+     * @param value Value to flag.
+     * @return <code>true</code> if the flag was not set.
+     */
+    private boolean setReleased(final long value) {
+        AtomicLongArray page = this.page(value);
+        int bit = (int) value & ((1 << PAGE_SHIFT) - 1);
+        long mask = 1L << bit;
+        int word = bit >>> 6;
+        long current;
+        do {
+            current = page.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+        } while (!page.compareAndSet(word, current, current | mask));
+        return true;
+    }
+
+    /**
+     * Clear the released flag of a value taken from the ring, only its consumer can clear it.
+     *
+     * @param value Value to clear.
+     */
+    private void clearReleased(final long value) {
+        int bit = (int) value & ((1 << PAGE_SHIFT) - 1);
+        long mask = ~(1L << bit);
+        this.page(value).getAndUpdate(bit >>> 6, w -> w & mask);
+    }
+
+    /**
+     * Retrieve the page holding the released flag of a value, creating it if needed.
+     *
+     * @param value Value to find.
+     * @return The page.
+     */
+    private AtomicLongArray page(final long value) {
+        long index = value >>> PAGE_SHIFT;
+        AtomicLongArray[] p = this.pages;
+        if (index < p.length && p[(int) index] != null) {
+            return p[(int) index];
+        }
+        this.pageLock.lock();
+        try {
+            p = this.pages;
+            if (index >= p.length) {
+                if (index >= Integer.MAX_VALUE - 8) {
+                    throw new IllegalStateException("Too many values allocated: " + value);
+                }
+                p = Arrays.copyOf(p, (int) Math.max(index + 1, p.length * 2L));
+                this.pages = p;
+            }
+            AtomicLongArray page = p[(int) index];
+            if (page == null) {
+                page = new AtomicLongArray(1 << (PAGE_SHIFT - 6));
+                p[(int) index] = page;
+            }
+            return page;
+        } finally {
+            this.pageLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Set of 16 bits values, part of an EntityIdBitmap, holding the ids sharing the same high bits.
+ * Three representations exist: a sorted array for sparse values, a bitmap for dense values and a list of runs for
+ * clustered values. Modifications may return a new container with another representation, binary operations never
+ * modify their operands.
+ *
+ * @author Grégory Van den Borre
+ */
+abstract class RoaringContainer {
+
+    /**
+     * Maximum cardinality of an array container, above it a bitmap is smaller.
+     */
+    static final int ARRAY_MAX_SIZE = 4096;
+
+    /**
+     * Size of a bitmap container in bytes.
+     */
+    static final int BITMAP_BYTES = 8192;
+
+    /**
+     * Add a value.
+     *
+     * @param low Value to add, from 0 to 65535.
+     * @return The container holding the result, this one or a new one.
+     */
+    abstract RoaringContainer add(int low);
+
+    /**
+     * Remove a value.
+     *
+     * @param low Value to remove, from 0 to 65535.
+     * @return The container holding the result, this one or a new one.
+     */
+    abstract RoaringContainer remove(int low);
+
+    /**
+     * @param low Value to check, from 0 to 65535.
+     * @return <code>true</code> if the value is present.
+     */
+    abstract boolean contains(int low);
+
+    /**
+     * @return The number of values.
+     */
+    abstract int cardinality();
+
+    /**
+     * @return The number of sequences of consecutive values.
+     */
+    abstract int numberOfRuns();
+
+    /**
+     * Call an action for every value, in ascending order, combined with the high bits of the ids.
+     *
+     * @param base   High bits of the ids.
+     * @param action Action to call with the ids.
+     */
+    abstract void forEach(long base, LongConsumer action);
+
+    /**
+     * Call an action for every value, in ascending order.
+     *
+     * @param action Action to call with the values.
+     */
+    abstract void forEachLow(IntConsumer action);
+
+    /**
+     * @return A bitmap holding the values, this container if it is already a bitmap.
+     */
+    abstract BitmapContainer toBitmap();
+
+    /**
+     * @return A deep copy of this container.
+     */
+    abstract RoaringContainer copy();
+
+    /**
+     * @return The size of the values in memory, in bytes.
+     */
+    abstract int sizeInBytes();
+
+    /**
+     * Compute the union of two containers.
+     *
+     * @param a First operand.
+     * @param b Second operand.
+     * @return A new container.
+     */
+    static RoaringContainer or(final RoaringContainer a, final RoaringContainer b) {
+        if (a instanceof ArrayContainer && b instanceof ArrayContainer) {
+            return ArrayContainer.or((ArrayContainer) a, (ArrayContainer) b);
+        }
+        BitmapContainer result;
+        RoaringContainer other;
+        if (a instanceof BitmapContainer) {
+            result = ((BitmapContainer) a).copy();
+            other = b;
+        } else {
+            result = b.toBitmap().copyIfSame(b);
+            other = a;
+        }
+        return result.orInPlace(other).normalize();
+    }
+
+    /**
+     * Compute the intersection of two containers.
+     *
+     * @param a First operand.
+     * @param b Second operand.
+     * @return A new container, possibly empty.
+     */
+    static RoaringContainer and(final RoaringContainer a, final RoaringContainer b) {
+        if (a instanceof ArrayContainer) {
+            return ((ArrayContainer) a).filter(b, true);
+        }
+        if (b instanceof ArrayContainer) {
+            return ((ArrayContainer) b).filter(a, true);
+        }
+        return a.toBitmap().copyIfSame(a).andInPlace(b.toBitmap()).normalize();
+    }
+
+    /**
+     * Compute the difference of two containers.
+     *
+     * @param a Values to keep.
+     * @param b Values to remove.
+     * @return A new container, possibly empty.
+     */
+    static RoaringContainer andNot(final RoaringContainer a, final RoaringContainer b) {
+        if (a instanceof ArrayContainer) {
+            return ((ArrayContainer) a).filter(b, false);
+        }
+        return a.toBitmap().copyIfSame(a).andNotInPlace(b).normalize();
+    }
+
+    /**
+     * Compute the cardinality of the intersection of two containers, without building it.
+     *
+     * @param a First operand.
+     * @param b Second operand.
+     * @return The number of values present in both containers.
+     */
+    static int andCardinality(final RoaringContainer a, final RoaringContainer b) {
+        if (a instanceof ArrayContainer) {
+            return ((ArrayContainer) a).countIn(b);
+        }
+        if (b instanceof ArrayContainer) {
+            return ((ArrayContainer) b).countIn(a);
+        }
+        return BitmapContainer.andCardinality(a.toBitmap(), b.toBitmap());
+    }
+
+    /**
+     * Choose the smallest representation for the values of a container.
+     *
+     * @param container Container to optimize.
+     * @return The container in its smallest representation.
+     */
+    static RoaringContainer optimize(final RoaringContainer container) {
+        int cardinality = container.cardinality();
+        int runBytes = RunContainer.sizeInBytes(container.numberOfRuns());
+        int otherBytes = cardinality <= ARRAY_MAX_SIZE ? cardinality * Character.BYTES : BITMAP_BYTES;
+        if (runBytes < otherBytes) {
+            return container instanceof RunContainer ? container : RunContainer.of(container);
+        }
+        if (container instanceof RunContainer) {
+            return ((RunContainer) container).toEfficientContainer();
+        }
+        return container;
+    }
+}
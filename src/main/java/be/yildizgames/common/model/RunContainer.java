@@ -0,0 +1,244 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Container storing its values as sequences of consecutive values, used for clustered values.
+ * Run containers are only built by optimizing a set, modifying one converts it back to an array or a bitmap.
+ *
+ * @author Grégory Van den Borre
+ */
+final class RunContainer extends RoaringContainer {
+
+    /**
+     * Runs, as pairs of start value and length - 1, sorted by start.
+     */
+    private final char[] runs;
+
+    /**
+     * Number of runs.
+     */
+    private final int runCount;
+
+    private RunContainer(final char[] runs, final int runCount) {
+        super();
+        this.runs = runs;
+        this.runCount = runCount;
+    }
+
+    /**
+     * Build a run container from the values of another container.
+     *
+     * @param container Container to convert.
+     * @return A new container.
+     */
+    static RunContainer of(final RoaringContainer container) {
+        Builder builder = new Builder(container.numberOfRuns());
+        container.forEachLow(builder);
+        return new RunContainer(builder.runs, builder.runs.length / 2);
+    }
+
+    /**
+     * Compute the size of a run container.
+     *
+     * @param runCount Number of runs.
+     * @return The size in bytes.
+     */
+    static int sizeInBytes(final int runCount) {
+        return Character.BYTES + runCount * 2 * Character.BYTES;
+    }
+
+    @Override
+    RoaringContainer add(final int low) {
+        if (this.contains(low)) {
+            return this;
+        }
+        return this.toEfficientContainer().add(low);
+    }
+
+    @Override
+    RoaringContainer remove(final int low) {
+        if (!this.contains(low)) {
+            return this;
+        }
+        return this.toEfficientContainer().remove(low);
+    }
+
+    @Override
+    boolean contains(final int low) {
+        int index = this.findRun(low);
+        return index >= 0 && low <= this.runs[2 * index] + this.runs[2 * index + 1];
+    }
+
+    @Override
+    int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < this.runCount; i++) {
+            cardinality += this.runs[2 * i + 1] + 1;
+        }
+        return cardinality;
+    }
+
+    @Override
+    int numberOfRuns() {
+        return this.runCount;
+    }
+
+    @Override
+    void forEach(final long base, final LongConsumer action) {
+        for (int i = 0; i < this.runCount; i++) {
+            int start = this.runs[2 * i];
+            int end = start + this.runs[2 * i + 1];
+            for (int v = start; v <= end; v++) {
+                action.accept(base | v);
+            }
+        }
+    }
+
+    @Override
+    void forEachLow(final IntConsumer action) {
+        for (int i = 0; i < this.runCount; i++) {
+            int start = this.runs[2 * i];
+            int end = start + this.runs[2 * i + 1];
+            for (int v = start; v <= end; v++) {
+                action.accept(v);
+            }
+        }
+    }
+
+    @Override
+    BitmapContainer toBitmap() {
+        BitmapContainer bitmap = new BitmapContainer();
+        this.forEachRun(bitmap::setRange);
+        return bitmap;
+    }
+
+    @Override
+    RunContainer copy() {
+        return new RunContainer(this.runs.clone(), this.runCount);
+    }
+
+    @Override
+    int sizeInBytes() {
+        return sizeInBytes(this.runCount);
+    }
+
+    /**
+     * Call an action for every run.
+     *
+     * @param action Action to call with the first value, inclusive, and the last value, exclusive, of every run.
+     */
+    void forEachRun(final RangeConsumer action) {
+        for (int i = 0; i < this.runCount; i++) {
+            int start = this.runs[2 * i];
+            action.accept(start, start + this.runs[2 * i + 1] + 1);
+        }
+    }
+
+    /**
+     * @return An array or a bitmap container with the same values, depending on the cardinality.
+     */
+    RoaringContainer toEfficientContainer() {
+        int cardinality = this.cardinality();
+        if (cardinality > ARRAY_MAX_SIZE) {
+            return this.toBitmap();
+        }
+        char[] content = new char[Math.max(1, cardinality)];
+        int size = 0;
+        for (int i = 0; i < this.runCount; i++) {
+            int start = this.runs[2 * i];
+            int end = start + this.runs[2 * i + 1];
+            for (int v = start; v <= end; v++) {
+                content[size++] = (char) v;
+            }
+        }
+        return new ArrayContainer(content, size);
+    }
+
+    /**
+     * Find the last run starting before or at a value.
+     *
+     * @param low Value to find.
+     * @return The run index, or -1 if every run starts after the value.
+     */
+    private int findRun(final int low) {
+        int lowIndex = 0;
+        int highIndex = this.runCount - 1;
+        while (lowIndex <= highIndex) {
+            int middle = (lowIndex + highIndex) >>> 1;
+            if (this.runs[2 * middle] <= low) {
+                lowIndex = middle + 1;
+            } else {
+                highIndex = middle - 1;
+            }
+        }
+        return highIndex;
+    }
+
+    /**
+     * Build the runs from ascending values.
+     */
+    private static final class Builder implements IntConsumer {
+
+        private final char[] runs;
+
+        private int current = -1;
+
+        private int previous = -2;
+
+        private Builder(final int runCount) {
+            super();
+            this.runs = new char[runCount * 2];
+        }
+
+        @Override
+        public void accept(final int value) {
+            if (value != this.previous + 1) {
+                this.current++;
+                this.runs[2 * this.current] = (char) value;
+            }
+            this.runs[2 * this.current + 1] = (char) (value - this.runs[2 * this.current]);
+            this.previous = value;
+        }
+    }
+
+    /**
+     * Receive ranges of values.
+     */
+    @FunctionalInterface
+    interface RangeConsumer {
+
+        /**
+         * Receive a range.
+         *
+         * @param start First value, inclusive.
+         * @param end   Last value, exclusive.
+         */
+        void accept(int start, int end);
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Generate EntityId values unique across nodes without coordination, Snowflake style.
+ * <p>
+ * A value is built, from the most to the least significant bits, with a 0 sign bit, 41 bits of milliseconds since the
+ * generator epoch (about 69 years), 10 bits of node and 12 bits of sequence in the millisecond, so a node can generate
+ * 4096 ids per millisecond. Values of a node are strictly increasing.
+ * <p>
+ * The generator keeps a logical clock: when the sequence of a millisecond is exhausted, or when the wall clock goes
+ * backward, the next values are taken from the following milliseconds instead of waiting. If the logical clock gets
+ * ahead of the wall clock by more than the maximum drift, generation fails rather than issuing ids far in the future.
+ * <p>
+ * Thread safe class, the state is a single long updated with compare and set.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class SnowflakeIdGenerator {
+
+    /**
+     * Number of bits of the sequence.
+     */
+    public static final int SEQUENCE_BITS = 12;
+
+    /**
+     * Number of bits of the node.
+     */
+    public static final int NODE_BITS = 10;
+
+    /**
+     * Number of bits of the timestamp.
+     */
+    public static final int TIMESTAMP_BITS = 41;
+
+    /**
+     * Highest node value.
+     */
+    public static final int MAX_NODE = (1 << NODE_BITS) - 1;
+
+    /**
+     * Default epoch, 2020-01-01T00:00:00Z.
+     */
+    public static final long DEFAULT_EPOCH = 1_577_836_800_000L;
+
+    /**
+     * Default maximum advance of the logical clock on the wall clock, in milliseconds.
+     */
+    public static final long DEFAULT_MAX_DRIFT = 5_000L;
+
+    private static final int NODE_SHIFT = SEQUENCE_BITS;
+
+    private static final int TIMESTAMP_SHIFT = SEQUENCE_BITS + NODE_BITS;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final long MAX_TIMESTAMP = (1L << TIMESTAMP_BITS) - 1;
+
+    /**
+     * Node value, already shifted.
+     */
+    private final long node;
+
+    /**
+     * Epoch, in milliseconds since 1970-01-01T00:00:00Z.
+     */
+    private final long epoch;
+
+    /**
+     * Wall clock, in milliseconds since 1970-01-01T00:00:00Z.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * Maximum advance of the logical clock on the wall clock, in milliseconds.
+     */
+    private final long maxDrift;
+
+    /**
+     * Last timestamp and sequence used, as timestamp &lt;&lt; SEQUENCE_BITS | sequence.
+     */
+    private final AtomicLong state = new AtomicLong(-1L);
+
+    /**
+     * Create a new generator with the default epoch, using the system clock.
+     *
+     * @param node Node value, from 0 to MAX_NODE.
+     * @throws IllegalArgumentException If the node is out of range.
+     */
+    public SnowflakeIdGenerator(final int node) {
+        this(node, DEFAULT_EPOCH, System::currentTimeMillis, DEFAULT_MAX_DRIFT);
+    }
+
+    /**
+     * Create a new generator.
+     *
+     * @param node     Node value, from 0 to MAX_NODE.
+     * @param epoch    Epoch, in milliseconds since 1970-01-01T00:00:00Z.
+     * @param clock    Wall clock, in milliseconds since 1970-01-01T00:00:00Z.
+     * @param maxDrift Maximum advance of the logical clock on the wall clock, in milliseconds.
+     * @throws IllegalArgumentException If the node is out of range or the drift is negative.
+     */
+    public SnowflakeIdGenerator(final int node, final long epoch, final LongSupplier clock, final long maxDrift) {
+        super();
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("Invalid node: " + node);
+        }
+        if (maxDrift < 0) {
+            throw new IllegalArgumentException("Invalid drift: " + maxDrift);
+        }
+        this.node = (long) node << NODE_SHIFT;
+        this.epoch = epoch;
+        this.clock = clock;
+        this.maxDrift = maxDrift;
+    }
+
+    /**
+     * Generate a new id.
+     *
+     * @return A new unique id, never WORLD.
+     * @throws IllegalStateException If the clock is before the epoch, after the timestamp range, or too far behind the
+     *                               logical clock.
+     */
+    public EntityId next() {
+        return EntityId.valueOf(this.nextValue());
+    }
+
+    /**
+     * Generate a new id value, without interning it.
+     *
+     * @return A new unique id value, never the WORLD value.
+     * @throws IllegalStateException If the clock is before the epoch, after the timestamp range, or too far behind the
+     *                               logical clock.
+     */
+    public long nextValue() {
+        long now = this.clock.getAsLong() - this.epoch;
+        if (now < 0) {
+            throw new IllegalStateException("Clock before epoch: " + (now + this.epoch));
+        }
+        while (true) {
+            long previous = this.state.get();
+            long next = now > (previous >> SEQUENCE_BITS) ? now << SEQUENCE_BITS : previous + 1;
+            long timestamp = next >>> SEQUENCE_BITS;
+            if (timestamp > MAX_TIMESTAMP) {
+                throw new IllegalStateException("Timestamp out of range: " + timestamp);
+            }
+            if (timestamp - now > this.maxDrift) {
+                throw new IllegalStateException("Clock behind the generated ids by " + (timestamp - now) + "ms");
+            }
+            if (this.state.compareAndSet(previous, next)) {
+                long value = (timestamp << TIMESTAMP_SHIFT) | this.node | (next & SEQUENCE_MASK);
+                if (!EntityId.isWorld(value)) {
+                    return value;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The node value of this generator.
+     */
+    public int getNode() {
+        return (int) (this.node >>> NODE_SHIFT);
+    }
+
+    /**
+     * Retrieve the generation time of a value.
+     *
+     * @param value Value generated with this generator epoch.
+     * @return The time, in milliseconds since 1970-01-01T00:00:00Z.
+     */
+    public long timeOf(final long value) {
+        return this.epoch + timestampOf(value);
+    }
+
+    /**
+     * Extract the node of a generated id.
+     *
+     * @param id Generated id.
+     * @return The node value.
+     */
+    public static int nodeOf(final EntityId id) {
+        return nodeOf(id.value);
+    }
+
+    /**
+     * Extract the node of a generated value.
+     *
+     * @param value Generated value.
+     * @return The node value.
+     */
+    public static int nodeOf(final long value) {
+        return (int) (value >>> NODE_SHIFT) & MAX_NODE;
+    }
+
+    /**
+     * Extract the sequence of a generated id.
+     *
+     * @param id Generated id.
+     * @return The sequence in the millisecond.
+     */
+    public static int sequenceOf(final EntityId id) {
+        return sequenceOf(id.value);
+    }
+
+    /**
+     * Extract the sequence of a generated value.
+     *
+     * @param value Generated value.
+     * @return The sequence in the millisecond.
+     */
+    public static int sequenceOf(final long value) {
+        return (int) (value & SEQUENCE_MASK);
+    }
+
+    /**
+     * Extract the timestamp of a generated id.
+     *
+     * @param id Generated id.
+     * @return The milliseconds since the generator epoch.
+     */
+    public static long timestampOf(final EntityId id) {
+        return timestampOf(id.value);
+    }
+
+    /**
+     * Extract the timestamp of a generated value.
+     *
+     * @param value Generated value.
+     * @return The milliseconds since the generator epoch.
+     */
+    public static long timestampOf(final long value) {
+        return value >>> TIMESTAMP_SHIFT;
+    }
+}
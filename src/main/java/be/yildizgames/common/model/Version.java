@@ -24,39 +24,59 @@
 
 package be.yildizgames.common.model;
 
-import java.util.Arrays;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
 
 /**
  * Wrap the current version, immutable.
+ * <p>
+ * The version is stored as a single positive long, holding from the most to the least significant bits the major,
+ * minor and sub numbers, the type and the revision, so comparing two versions is comparing two longs.
+ * The major, minor and sub numbers are limited to {@link #MAX_NUMBER}, and the revision to {@link #MAX_REV}.
+ * <p>
+ * The factory methods and the parser return instances from a bounded cache keyed by the packed value, so the few
+ * versions seen at runtime are shared instead of being allocated again for every use. The cache size is read from the
+ * system property be.yildizgames.common.model.Version.cache, 1024 by default, 0 disables it.
  *
  * @author Grégory Van den Borre
  */
-public final class Version {
+public final class Version implements Comparable<Version> {
 
     /**
-     * Major version number.
+     * Maximum value for the major, minor and sub numbers.
      */
-    private final int major;
+    public static final int MAX_NUMBER = (1 << 12) - 1;
 
     /**
-     * Minor version number.
+     * Maximum value for the revision number.
      */
-    private final int minor;
+    public static final int MAX_REV = (1 << 25) - 1;
+
+    private static final int REV_BITS = 25;
+
+    static final int TYPE_SHIFT = REV_BITS;
+
+    static final int SUB_SHIFT = TYPE_SHIFT + 2;
+
+    private static final int MINOR_SHIFT = SUB_SHIFT + 12;
+
+    private static final int MAJOR_SHIFT = MINOR_SHIFT + 12;
 
     /**
-     * Sub version number.
+     * Direct mapped cache, a slot holds the last version created for the packed values sharing its hash.
+     * Slots are read and written without synchronization, this is safe as a version only has a final field.
      */
-    private final int sub;
+    private static final Version[] CACHE = createCache(CacheSize.of(Version.class));
 
     /**
-     * Revision number.
+     * CACHE length - 1.
      */
-    private final int rev;
+    private static final int CACHE_MASK = CACHE.length - 1;
 
     /**
-     * Version type.
+     * Major, minor, sub, type and revision packed in a single value.
      */
-    private final VersionType type;
+    private final long packed;
 
     /**
      * Full constructor.
@@ -66,62 +86,275 @@ public final class Version {
      * @param minorVersion Version minor number.
      * @param subVersion   Version sub number.
      * @param rev          Revision number.
+     * @throws IllegalArgumentException If a number is negative or above its maximum value.
      */
     public Version(final VersionType type, final int majorNumber, final int minorVersion, final int subVersion, final int rev) {
         super();
-        if (majorNumber < 0 || minorVersion < 0 || subVersion < 0 || rev < 0) {
-            throw new IllegalArgumentException("Invalid version value: major:" + majorNumber + ", minor:" + minorVersion + ", sub:"
-                    + subVersion);
+        checkNumbers(majorNumber, minorVersion, subVersion, rev);
+        this.packed = pack(type, majorNumber, minorVersion, subVersion, rev);
+    }
+
+    private Version(final long packed) {
+        super();
+        this.packed = packed;
+    }
+
+    /**
+     * Build a version from its packed value.
+     *
+     * @param packed Packed value, as returned by {@link #getPacked()}.
+     * @return The version.
+     * @throws IllegalArgumentException If the value is not a valid packed version.
+     */
+    public static Version fromPacked(final long packed) {
+        if (packed < 0 || ((packed >>> TYPE_SHIFT) & 3) > VersionType.RELEASE.value) {
+            throw new IllegalArgumentException("Invalid packed version: " + packed);
         }
-        this.type = type;
-        this.major = majorNumber;
-        this.minor = minorVersion;
-        this.sub = subVersion;
-        this.rev = rev;
+        return cached(packed);
     }
 
-    public static Version parse(String value) {
-        String[] values = value.split("\\.");
-        switch (values[0].toLowerCase()) {
-            case "alpha":
-                return alpha(Integer.valueOf(values[1]), Integer.valueOf(values[2]),Integer.valueOf(values[3]),Integer.valueOf(values[4]));
-            case "beta":
-                return beta(Integer.valueOf(values[1]), Integer.valueOf(values[2]),Integer.valueOf(values[3]),Integer.valueOf(values[4]));
-                default:
-                    return release(Integer.valueOf(values[1]), Integer.valueOf(values[2]),Integer.valueOf(values[3]),Integer.valueOf(values[4]));
+    /**
+     * Parse a version formatted as type.major.minor.sub.rev, the type being alpha, beta or anything else for a release.
+     *
+     * @param value Value to parse.
+     * @return The parsed version.
+     * @throws IllegalArgumentException If the value is not a valid version.
+     */
+    public static Version parse(final CharSequence value) {
+        return cached(parsePacked(value));
+    }
+
+    /**
+     * Parse a version formatted as type.major.minor.sub.rev from ASCII bytes.
+     *
+     * @param value  Bytes to parse.
+     * @param offset Index of the first byte.
+     * @param length Number of bytes.
+     * @return The parsed version.
+     * @throws IllegalArgumentException If the value is not a valid version.
+     */
+    public static Version parse(final byte[] value, final int offset, final int length) {
+        return cached(parsePacked(value, offset, length));
+    }
+
+    /**
+     * Parse a version to its packed value, without allocating.
+     *
+     * @param value Value to parse.
+     * @return The packed version.
+     * @throws IllegalArgumentException If the value is not a valid version.
+     */
+    public static long parsePacked(final CharSequence value) {
+        int length = value.length();
+        int i = 0;
+        while (i < length && value.charAt(i) != '.') {
+            i++;
+        }
+        VersionType type = parseType(value, i);
+        long result = pack(type, 0, 0, 0, 0);
+        int shift = MAJOR_SHIFT;
+        for (int field = 0; field < 4; field++) {
+            if (i >= length || value.charAt(i) != '.') {
+                throw invalid(value);
+            }
+            i++;
+            int start = i;
+            long number = 0;
+            while (i < length && value.charAt(i) >= '0' && value.charAt(i) <= '9') {
+                number = number * 10 + value.charAt(i) - '0';
+                if (number > (field == 3 ? MAX_REV : MAX_NUMBER)) {
+                    throw invalid(value);
+                }
+                i++;
+            }
+            if (i == start) {
+                throw invalid(value);
+            }
+            result |= number << shift;
+            shift = field == 2 ? 0 : shift - 12;
+        }
+        if (i != length) {
+            throw invalid(value);
         }
+        return result;
+    }
+
+    /**
+     * Parse a version from ASCII bytes to its packed value, without allocating.
+     *
+     * @param value  Bytes to parse.
+     * @param offset Index of the first byte.
+     * @param length Number of bytes.
+     * @return The packed version.
+     * @throws IllegalArgumentException If the value is not a valid version.
+     * @throws IndexOutOfBoundsException If the range is not within the array.
+     */
+    public static long parsePacked(final byte[] value, final int offset, final int length) {
+        Objects.checkFromIndexSize(offset, length, value.length);
+        int end = offset + length;
+        int i = offset;
+        while (i < end && value[i] != '.') {
+            i++;
+        }
+        VersionType type = parseType(value, offset, i);
+        long result = pack(type, 0, 0, 0, 0);
+        int shift = MAJOR_SHIFT;
+        for (int field = 0; field < 4; field++) {
+            if (i >= end || value[i] != '.') {
+                throw invalid(value, offset, length);
+            }
+            i++;
+            int start = i;
+            long number = 0;
+            while (i < end && value[i] >= '0' && value[i] <= '9') {
+                number = number * 10 + value[i] - '0';
+                if (number > (field == 3 ? MAX_REV : MAX_NUMBER)) {
+                    throw invalid(value, offset, length);
+                }
+                i++;
+            }
+            if (i == start) {
+                throw invalid(value, offset, length);
+            }
+            result |= number << shift;
+            shift = field == 2 ? 0 : shift - 12;
+        }
+        if (i != end) {
+            throw invalid(value, offset, length);
+        }
+        return result;
     }
 
     public static Version alpha(int major, int minor, int sub, int rev) {
-        return new Version(VersionType.ALPHA, major, minor, sub, rev);
+        checkNumbers(major, minor, sub, rev);
+        return cached(pack(VersionType.ALPHA, major, minor, sub, rev));
     }
 
     public static Version beta(int major, int minor, int sub, int rev) {
-        return new Version(VersionType.BETA, major, minor, sub, rev);
+        checkNumbers(major, minor, sub, rev);
+        return cached(pack(VersionType.BETA, major, minor, sub, rev));
     }
 
     public static Version release(int major, int minor, int sub, int rev) {
-        return new Version(VersionType.RELEASE, major, minor, sub, rev);
+        checkNumbers(major, minor, sub, rev);
+        return cached(pack(VersionType.RELEASE, major, minor, sub, rev));
+    }
+
+    private static Version cached(final long packed) {
+        if (CACHE.length == 0) {
+            return new Version(packed);
+        }
+        int slot = Hashing.mix(packed) & CACHE_MASK;
+        Version version = CACHE[slot];
+        if (version == null || version.packed != packed) {
+            version = new Version(packed);
+            CACHE[slot] = version;
+        }
+        return version;
+    }
+
+    private static Version[] createCache(final int size) {
+        return new Version[size == 0 ? 0 : Integer.highestOneBit(Math.max(1, size - 1)) << 1];
+    }
+
+    private static void checkNumbers(final int major, final int minor, final int sub, final int rev) {
+        if (major < 0 || minor < 0 || sub < 0 || rev < 0
+                || major > MAX_NUMBER || minor > MAX_NUMBER || sub > MAX_NUMBER || rev > MAX_REV) {
+            throw new IllegalArgumentException("Invalid version value: major:" + major + ", minor:" + minor + ", sub:"
+                    + sub + ", rev:" + rev);
+        }
+    }
+
+    static long pack(final VersionType type, final int major, final int minor, final int sub, final int rev) {
+        return ((long) major << MAJOR_SHIFT)
+                | ((long) minor << MINOR_SHIFT)
+                | ((long) sub << SUB_SHIFT)
+                | ((long) type.value << TYPE_SHIFT)
+                | rev;
+    }
+
+    private static VersionType parseType(final CharSequence value, final int end) {
+        if (matches(value, end, "alpha")) {
+            return VersionType.ALPHA;
+        }
+        if (matches(value, end, "beta")) {
+            return VersionType.BETA;
+        }
+        return VersionType.RELEASE;
+    }
+
+    private static boolean matches(final CharSequence value, final int end, final String expected) {
+        if (end != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < end; i++) {
+            if (Character.toLowerCase(value.charAt(i)) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static VersionType parseType(final byte[] value, final int start, final int end) {
+        if (matches(value, start, end, "alpha")) {
+            return VersionType.ALPHA;
+        }
+        if (matches(value, start, end, "beta")) {
+            return VersionType.BETA;
+        }
+        return VersionType.RELEASE;
+    }
+
+    private static boolean matches(final byte[] value, final int start, final int end, final String expected) {
+        if (end - start != expected.length()) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if ((value[i] | 0x20) != expected.charAt(i - start)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static IllegalArgumentException invalid(final CharSequence value) {
+        return new IllegalArgumentException("Invalid version: " + value);
+    }
+
+    private static IllegalArgumentException invalid(final byte[] value, final int offset, final int length) {
+        return invalid(new String(value, offset, length, StandardCharsets.US_ASCII));
     }
 
     public final int getMajor() {
-        return major;
+        return (int) (this.packed >>> MAJOR_SHIFT) & MAX_NUMBER;
     }
 
     public final int getMinor() {
-        return minor;
+        return (int) (this.packed >>> MINOR_SHIFT) & MAX_NUMBER;
     }
 
     public final int getSub() {
-        return sub;
+        return (int) (this.packed >>> SUB_SHIFT) & MAX_NUMBER;
     }
 
     public final int getRev() {
-        return rev;
+        return (int) this.packed & MAX_REV;
     }
 
     public final VersionType getType() {
-        return type;
+        return VersionType.valueOf((int) (this.packed >>> TYPE_SHIFT) & 3);
+    }
+
+    /**
+     * @return The packed value, ordered as the versions are.
+     */
+    public final long getPacked() {
+        return this.packed;
+    }
+
+    @Override
+    public final int compareTo(final Version o) {
+        return Long.compare(this.packed, o.packed);
     }
 
     @Override
@@ -132,19 +365,12 @@ public final class Version {
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
-
-        Version version = (Version) o;
-        return major == version.major && minor == version.minor && sub == version.sub && rev == version.rev && type == version.type;
+        return this.packed == ((Version) o).packed;
     }
 
     @Override
     public final int hashCode() {
-        int result = major;
-        result = 31 * result + minor;
-        result = 31 * result + sub;
-        result = 31 * result + rev;
-        result = 31 * result + type.hashCode();
-        return result;
+        return Long.hashCode(this.packed);
     }
 
     /**
@@ -153,7 +379,7 @@ public final class Version {
      */
     @Override
     public final String toString() {
-        return this.type + " " + this.major + "." + this.minor + "." + this.sub + "_" + this.rev;
+        return this.getType() + " " + this.getMajor() + "." + this.getMinor() + "." + this.getSub() + "_" + this.getRev();
     }
 
     /**
@@ -178,6 +404,11 @@ public final class Version {
          */
         RELEASE(2);
 
+        /**
+         * Types indexed by their value.
+         */
+        private static final VersionType[] VALUES = VersionType.values();
+
         public final int value;
 
 
@@ -185,11 +416,18 @@ public final class Version {
             this.value = value;
         }
 
+        /**
+         * Retrieve a type from its value.
+         *
+         * @param v Type value.
+         * @return The type for that value.
+         * @throws IllegalArgumentException If no type matches the value.
+         */
         public static VersionType valueOf(int v) {
-            return Arrays.stream(VersionType.values())
-                    .filter(version -> version.value == v)
-                    .findFirst()
-                    .orElseThrow(IllegalArgumentException::new);
+            if (v < 0 || v >= VALUES.length) {
+                throw new IllegalArgumentException("Invalid version type: " + v);
+            }
+            return VALUES[v];
         }
     }
 
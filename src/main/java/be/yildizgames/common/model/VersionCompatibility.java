@@ -0,0 +1,176 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import java.util.Collection;
+import java.util.function.BiPredicate;
+
+/**
+ * Precomputed answers to "can a client in version X talk to a server in version Y".
+ * <p>
+ * The rule is evaluated once for every pair of known client and server versions when the matrix is built, a check is
+ * then two hash lookups on the packed versions and a bit test. Versions not known when the matrix was built fall back
+ * to the rule.
+ * <p>
+ * Immutable and thread safe once built, as long as the rule is.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class VersionCompatibility {
+
+    /**
+     * Compatibility rule, tested with the client version first.
+     */
+    private final BiPredicate<Version, Version> rule;
+
+    /**
+     * Row of each known client version.
+     */
+    private final Index clients;
+
+    /**
+     * Column of each known server version.
+     */
+    private final Index servers;
+
+    /**
+     * Number of longs in a row.
+     */
+    private final int rowLength;
+
+    /**
+     * Compatibility bits, one row per client version, one bit per server version.
+     */
+    private final long[] matrix;
+
+    private VersionCompatibility(final Collection<Version> clientVersions, final Collection<Version> serverVersions,
+                                 final BiPredicate<Version, Version> rule) {
+        super();
+        this.rule = rule;
+        Version[] c = clientVersions.stream().distinct().toArray(Version[]::new);
+        Version[] s = serverVersions.stream().distinct().toArray(Version[]::new);
+        this.clients = new Index(c);
+        this.servers = new Index(s);
+        this.rowLength = (s.length + 63) >>> 6;
+        this.matrix = new long[c.length * this.rowLength];
+        for (int row = 0; row < c.length; row++) {
+            for (int column = 0; column < s.length; column++) {
+                if (rule.test(c[row], s[column])) {
+                    this.matrix[row * this.rowLength + (column >>> 6)] |= 1L << column;
+                }
+            }
+        }
+    }
+
+    /**
+     * Build the compatibility matrix.
+     *
+     * @param clientVersions Client versions to precompute.
+     * @param serverVersions Server versions to precompute.
+     * @param rule           Compatibility rule, tested with the client version first.
+     * @return The built matrix.
+     */
+    public static VersionCompatibility of(final Collection<Version> clientVersions, final Collection<Version> serverVersions,
+                                          final BiPredicate<Version, Version> rule) {
+        return new VersionCompatibility(clientVersions, serverVersions, rule);
+    }
+
+    /**
+     * Check if a client version can talk to a server version.
+     *
+     * @param client Client version.
+     * @param server Server version.
+     * @return <code>true</code> if they are compatible.
+     */
+    public boolean isCompatible(final Version client, final Version server) {
+        int row = this.clients.get(client.getPacked());
+        int column = this.servers.get(server.getPacked());
+        if (row < 0 || column < 0) {
+            return this.rule.test(client, server);
+        }
+        return (this.matrix[row * this.rowLength + (column >>> 6)] & (1L << column)) != 0;
+    }
+
+    /**
+     * Check if a client version can talk to a server version, from their packed values.
+     *
+     * @param client Client packed version.
+     * @param server Server packed version.
+     * @return <code>true</code> if they are compatible.
+     * @throws IllegalArgumentException If an unknown version is not a valid packed version.
+     */
+    public boolean isCompatible(final long client, final long server) {
+        int row = this.clients.get(client);
+        int column = this.servers.get(server);
+        if (row < 0 || column < 0) {
+            return this.rule.test(Version.fromPacked(client), Version.fromPacked(server));
+        }
+        return (this.matrix[row * this.rowLength + (column >>> 6)] & (1L << column)) != 0;
+    }
+
+    /**
+     * Position of each packed version in the matrix.
+     */
+    private static final class Index extends LongKeyTable {
+
+        private int[] positions;
+
+        private Index(final Version[] versions) {
+            super(versions.length);
+            this.positions = new int[this.keys.length];
+            for (int i = 0; i < versions.length; i++) {
+                int pos = ~this.insert(versions[i].getPacked());
+                this.positions[pos] = i;
+                this.afterInsert();
+            }
+        }
+
+        private int get(final long packed) {
+            int pos = this.indexOf(packed);
+            return pos < 0 ? -1 : this.positions[pos];
+        }
+
+        @Override
+        void move(final int from, final int to) {
+            this.positions[to] = this.positions[from];
+        }
+
+        @Override
+        void clear(final int pos) {
+            this.positions[pos] = 0;
+        }
+
+        @Override
+        void relocate(final int[] moved, final int newLength) {
+            int[] p = new int[newLength];
+            for (int i = 0; i < moved.length; i++) {
+                if (moved[i] >= 0) {
+                    p[moved[i]] = this.positions[i];
+                }
+            }
+            this.positions = p;
+        }
+    }
+}
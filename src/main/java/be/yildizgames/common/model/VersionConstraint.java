@@ -0,0 +1,321 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+/**
+ * Constraint on versions, compiled once into a range of packed versions and a set of accepted types.
+ * <p>
+ * A constraint is a list of terms separated by spaces, all of them must match:
+ * <ul>
+ *     <li>a type: alpha, beta or release,</li>
+ *     <li>a comparison: &gt;=, &gt;, &lt;=, &lt;, = (or &ge;, &le;) followed by a version,</li>
+ *     <li>an interval: [ or ( a version, a comma, a version, ] or ),</li>
+ *     <li>a version alone, meaning =.</li>
+ * </ul>
+ * Versions are written major[.minor[.sub]], the missing numbers being 0. They are compared on their major, minor and
+ * sub numbers only, so "&lt;= 1.4" accepts every type and revision of 1.4.0 and "&gt; 1.4" starts at 1.4.1.
+ * For example "[1.2, 2.0)" or "beta &ge; 1.4".
+ * <p>
+ * Immutable class.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class VersionConstraint {
+
+    /**
+     * Mask accepting all version types.
+     */
+    static final int ALL_TYPES = (1 << Version.VersionType.values().length) - 1;
+
+    /**
+     * Difference between the packed values of two consecutive sub versions.
+     */
+    private static final long SUB_UNIT = 1L << Version.SUB_SHIFT;
+
+    /**
+     * Original expression.
+     */
+    private final String expression;
+
+    /**
+     * Lowest matching packed version.
+     */
+    private final long min;
+
+    /**
+     * Highest matching packed version.
+     */
+    private final long max;
+
+    /**
+     * Accepted types, one bit per type value.
+     */
+    private final int types;
+
+    private VersionConstraint(final String expression, final long min, final long max, final int types) {
+        super();
+        this.expression = expression;
+        this.min = min;
+        this.max = max;
+        this.types = types;
+    }
+
+    /**
+     * Compile a constraint.
+     *
+     * @param expression Constraint to compile.
+     * @return The compiled constraint.
+     * @throws IllegalArgumentException If the expression is not valid.
+     */
+    public static VersionConstraint parse(final CharSequence expression) {
+        return new Parser(expression).parse();
+    }
+
+    /**
+     * Check if a version matches this constraint.
+     *
+     * @param version Version to check.
+     * @return <code>true</code> if the version matches.
+     */
+    public boolean matches(final Version version) {
+        return this.matches(version.getPacked());
+    }
+
+    /**
+     * Check if a packed version matches this constraint.
+     *
+     * @param packed Packed version to check.
+     * @return <code>true</code> if the version matches.
+     */
+    public boolean matches(final long packed) {
+        return matches(packed, this.min, this.max, this.types);
+    }
+
+    /**
+     * @return <code>true</code> if no version can match this constraint.
+     */
+    public boolean isEmpty() {
+        return this.min > this.max || this.types == 0;
+    }
+
+    final long getMin() {
+        return this.min;
+    }
+
+    final long getMax() {
+        return this.max;
+    }
+
+    final int getTypes() {
+        return this.types;
+    }
+
+    static boolean matches(final long packed, final long min, final long max, final int types) {
+        return packed >= min && packed <= max && ((types >>> ((int) (packed >>> Version.TYPE_SHIFT) & 3)) & 1) != 0;
+    }
+
+    @Override
+    public String toString() {
+        return this.expression;
+    }
+
+    /**
+     * Single use parser of an expression.
+     */
+    private static final class Parser {
+
+        private final CharSequence expression;
+
+        private int position;
+
+        private long min;
+
+        private long max = Long.MAX_VALUE;
+
+        private int types = ALL_TYPES;
+
+        private Parser(final CharSequence expression) {
+            super();
+            this.expression = expression;
+        }
+
+        private VersionConstraint parse() {
+            this.skipSpaces();
+            if (!this.hasNext()) {
+                throw this.invalid();
+            }
+            while (this.hasNext()) {
+                char c = this.peek();
+                if (Character.isLetter(c)) {
+                    this.parseType();
+                } else if (c == '[' || c == '(') {
+                    this.parseInterval();
+                } else {
+                    this.parseComparison();
+                }
+                this.skipSpaces();
+            }
+            return new VersionConstraint(this.expression.toString(), this.min, this.max, this.types);
+        }
+
+        private void parseType() {
+            int start = this.position;
+            while (this.hasNext() && Character.isLetter(this.peek())) {
+                this.position++;
+            }
+            String word = this.expression.subSequence(start, this.position).toString();
+            Version.VersionType type;
+            if ("alpha".equalsIgnoreCase(word)) {
+                type = Version.VersionType.ALPHA;
+            } else if ("beta".equalsIgnoreCase(word)) {
+                type = Version.VersionType.BETA;
+            } else if ("release".equalsIgnoreCase(word)) {
+                type = Version.VersionType.RELEASE;
+            } else {
+                throw this.invalid();
+            }
+            this.types &= 1 << type.value;
+        }
+
+        private void parseInterval() {
+            boolean lowerInclusive = this.next() == '[';
+            this.skipSpaces();
+            long lower = this.parseVersion();
+            this.skipSpaces();
+            if (!this.hasNext() || this.next() != ',') {
+                throw this.invalid();
+            }
+            this.skipSpaces();
+            long upper = this.parseVersion();
+            this.skipSpaces();
+            if (!this.hasNext()) {
+                throw this.invalid();
+            }
+            char end = this.next();
+            if (end != ']' && end != ')') {
+                throw this.invalid();
+            }
+            this.lower(lowerInclusive ? lower : nextSub(lower));
+            this.upper(end == ']' ? nextSub(upper) - 1 : upper - 1);
+        }
+
+        private void parseComparison() {
+            char c = this.next();
+            boolean orEqual = false;
+            if ((c == '>' || c == '<') && this.hasNext() && this.peek() == '=') {
+                this.position++;
+                orEqual = true;
+            }
+            if (c != '>' && c != '<' && c != '=' && c != '≥' && c != '≤') {
+                this.position--;
+                if (c < '0' || c > '9') {
+                    throw this.invalid();
+                }
+                c = '=';
+            }
+            this.skipSpaces();
+            long version = this.parseVersion();
+            switch (c) {
+                case '>':
+                    this.lower(orEqual ? version : nextSub(version));
+                    break;
+                case '≥':
+                    this.lower(version);
+                    break;
+                case '<':
+                    this.upper(orEqual ? nextSub(version) - 1 : version - 1);
+                    break;
+                case '≤':
+                    this.upper(nextSub(version) - 1);
+                    break;
+                default:
+                    this.lower(version);
+                    this.upper(nextSub(version) - 1);
+            }
+        }
+
+        private long parseVersion() {
+            int[] numbers = new int[3];
+            for (int i = 0; i < 3; i++) {
+                int start = this.position;
+                int number = 0;
+                while (this.hasNext() && this.peek() >= '0' && this.peek() <= '9') {
+                    number = number * 10 + this.next() - '0';
+                    if (number > Version.MAX_NUMBER) {
+                        throw this.invalid();
+                    }
+                }
+                if (start == this.position) {
+                    throw this.invalid();
+                }
+                numbers[i] = number;
+                if (i == 2 || !this.hasNext() || this.peek() != '.') {
+                    break;
+                }
+                this.position++;
+            }
+            return Version.pack(Version.VersionType.ALPHA, numbers[0], numbers[1], numbers[2], 0);
+        }
+
+        /**
+         * @param version Packed version.
+         * @return The first packed version of the next sub version, Long.MAX_VALUE if there is none.
+         */
+        private static long nextSub(final long version) {
+            long next = version + SUB_UNIT;
+            return next < 0 ? Long.MAX_VALUE : next;
+        }
+
+        private void lower(final long value) {
+            this.min = Math.max(this.min, value);
+        }
+
+        private void upper(final long value) {
+            this.max = Math.min(this.max, value);
+        }
+
+        private void skipSpaces() {
+            while (this.hasNext() && Character.isWhitespace(this.peek())) {
+                this.position++;
+            }
+        }
+
+        private boolean hasNext() {
+            return this.position < this.expression.length();
+        }
+
+        private char peek() {
+            return this.expression.charAt(this.position);
+        }
+
+        private char next() {
+            return this.expression.charAt(this.position++);
+        }
+
+        private IllegalArgumentException invalid() {
+            return new IllegalArgumentException("Invalid version constraint at " + this.position + ": " + this.expression);
+        }
+    }
+}
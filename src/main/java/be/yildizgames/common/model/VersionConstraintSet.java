@@ -0,0 +1,147 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import java.util.List;
+
+/**
+ * Ordered group of version constraints, evaluated together against a version.
+ * <p>
+ * Each constraint is identified by its index, typically a feature or codec, and the result of an evaluation is a bit
+ * mask where the bit of every matching constraint is set. The constraint bounds and types are kept in flat primitive
+ * arrays, so resolving all the constraints of a connection is a single pass without allocation.
+ * <p>
+ * Immutable class.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class VersionConstraintSet {
+
+    /**
+     * Lowest matching packed version of each constraint.
+     */
+    private final long[] mins;
+
+    /**
+     * Highest matching packed version of each constraint.
+     */
+    private final long[] maxs;
+
+    /**
+     * Accepted types of each constraint.
+     */
+    private final int[] types;
+
+    /**
+     * Create a new set.
+     *
+     * @param constraints Constraints, their index in the list is their bit in the masks.
+     */
+    public VersionConstraintSet(final List<VersionConstraint> constraints) {
+        super();
+        int size = constraints.size();
+        this.mins = new long[size];
+        this.maxs = new long[size];
+        this.types = new int[size];
+        for (int i = 0; i < size; i++) {
+            VersionConstraint constraint = constraints.get(i);
+            this.mins[i] = constraint.getMin();
+            this.maxs[i] = constraint.getMax();
+            this.types[i] = constraint.getTypes();
+        }
+    }
+
+    /**
+     * Compile the constraints of a list of expressions.
+     *
+     * @param expressions Expressions to compile, their index in the list is their bit in the masks.
+     * @return The created set.
+     * @throws IllegalArgumentException If an expression is not valid.
+     */
+    public static VersionConstraintSet parse(final List<? extends CharSequence> expressions) {
+        return new VersionConstraintSet(expressions.stream().map(VersionConstraint::parse).toList());
+    }
+
+    /**
+     * @return The number of constraints.
+     */
+    public int size() {
+        return this.mins.length;
+    }
+
+    /**
+     * @return The number of longs needed for a mask.
+     */
+    public int maskLength() {
+        return (this.mins.length + 63) >>> 6;
+    }
+
+    /**
+     * Evaluate all the constraints against a version.
+     *
+     * @param version Version to check.
+     * @return The mask of matching constraints.
+     */
+    public long[] resolve(final Version version) {
+        long[] mask = new long[this.maskLength()];
+        this.resolve(version.getPacked(), mask);
+        return mask;
+    }
+
+    /**
+     * Evaluate all the constraints against a packed version, without allocating.
+     *
+     * @param packed Packed version to check.
+     * @param mask   Array receiving the mask of matching constraints, at least maskLength long.
+     * @throws IndexOutOfBoundsException If the mask is too short.
+     */
+    public void resolve(final long packed, final long[] mask) {
+        int length = this.maskLength();
+        if (mask.length < length) {
+            throw new IndexOutOfBoundsException("Mask length " + mask.length + " is lower than " + length);
+        }
+        for (int word = 0; word < length; word++) {
+            long bits = 0;
+            int end = Math.min(this.mins.length, (word + 1) << 6);
+            for (int i = word << 6; i < end; i++) {
+                if (VersionConstraint.matches(packed, this.mins[i], this.maxs[i], this.types[i])) {
+                    bits |= 1L << i;
+                }
+            }
+            mask[word] = bits;
+        }
+    }
+
+    /**
+     * Check if a constraint is set in a mask.
+     *
+     * @param mask  Mask returned by resolve.
+     * @param index Constraint index.
+     * @return <code>true</code> if the constraint matched.
+     */
+    public static boolean isSet(final long[] mask, final int index) {
+        return (mask[index >>> 6] & (1L << index)) != 0;
+    }
+}
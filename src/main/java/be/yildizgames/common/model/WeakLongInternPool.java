@@ -0,0 +1,291 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongFunction;
+
+/**
+ * Concurrent intern pool holding weak references to its objects, an object no longer used anywhere else can be garbage
+ * collected and its entry is then removed.
+ * <p>
+ * The pool is split in segments, each one being a hash table with chained entries. Lookups never lock, insertions and
+ * removals lock a single segment. Cleared entries are retrieved from a reference queue and removed on the next miss.
+ * <p>
+ * Thread safe class.
+ *
+ * @param <T> Type of the interned objects.
+ * @author Grégory Van den Borre
+ */
+final class WeakLongInternPool<T> implements LongInternPool<T> {
+
+    /**
+     * Default initial capacity of a segment.
+     */
+    private static final int SEGMENT_CAPACITY = 64;
+
+    /**
+     * Estimated size of an array header.
+     */
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    /**
+     * Estimated size of an entry, a weak reference with its value, hash and next fields.
+     */
+    private static final int ENTRY_BYTES = 48;
+
+    /**
+     * Create the object to intern for a value not yet in the pool.
+     */
+    private final LongFunction<T> factory;
+
+    /**
+     * Queue receiving the entries whose object has been garbage collected.
+     */
+    private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+
+    /**
+     * Pool segments, their number is a power of two.
+     */
+    private final Segment<T>[] segments;
+
+    /**
+     * Usage counters.
+     */
+    private final PoolStatistics statistics = new PoolStatistics();
+
+    /**
+     * Number of bits to shift a hash to get its segment.
+     */
+    private final int segmentShift;
+
+    /**
+     * Create a new pool, with a number of segments depending on the available processors.
+     *
+     * @param factory Create the object to intern for a value not yet in the pool.
+     */
+    WeakLongInternPool(final LongFunction<T> factory) {
+        this(factory, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * Create a new pool.
+     *
+     * @param factory  Create the object to intern for a value not yet in the pool.
+     * @param segments Minimum number of segments.
+     */
+    WeakLongInternPool(final LongFunction<T> factory, final int segments) {
+        super();
+        this.factory = factory;
+        int count = Hashing.capacity(segments, 1f);
+        @SuppressWarnings("unchecked")
+        Segment<T>[] array = (Segment<T>[]) new Segment<?>[count];
+        this.segments = array;
+        for (int i = 0; i < count; i++) {
+            this.segments[i] = new Segment<>();
+        }
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(count);
+    }
+
+    @Override
+    public T intern(final long value) {
+        int hash = Hashing.mix(value);
+        Segment<T> segment = this.segmentFor(hash);
+        T interned = segment.get(value, hash);
+        if (interned != null) {
+            this.statistics.hit();
+            return interned;
+        }
+        this.expunge();
+        return segment.intern(value, hash, this.factory, this.queue, this.statistics);
+    }
+
+    @Override
+    public T get(final long value) {
+        int hash = Hashing.mix(value);
+        return this.segmentFor(hash).get(value, hash);
+    }
+
+    @Override
+    public int size() {
+        this.expunge();
+        int size = 0;
+        for (Segment<T> segment : this.segments) {
+            size += segment.count;
+        }
+        return size;
+    }
+
+    @Override
+    public long overheadBytes() {
+        long bytes = 0;
+        for (Segment<T> segment : this.segments) {
+            bytes += ARRAY_HEADER_BYTES + 4L * segment.table.length() + (long) ENTRY_BYTES * segment.count;
+        }
+        return bytes;
+    }
+
+    @Override
+    public PoolStatistics statistics() {
+        return this.statistics;
+    }
+
+    /**
+     * Remove the entries whose object has been garbage collected.
+     */
+    @SuppressWarnings("unchecked")
+    private void expunge() {
+        Reference<? extends T> reference;
+        while ((reference = this.queue.poll()) != null) {
+            Entry<T> entry = (Entry<T>) reference;
+            this.segmentFor(entry.hash).remove(entry, this.queue);
+        }
+    }
+
+    private Segment<T> segmentFor(final int hash) {
+        return this.segments.length == 1 ? this.segments[0] : this.segments[hash >>> this.segmentShift];
+    }
+
+    /**
+     * Weak entry, immutable once published, a removal copies the entries preceding it in the chain.
+     *
+     * @param <T> Type of the interned object.
+     */
+    private static final class Entry<T> extends WeakReference<T> {
+
+        private final long value;
+
+        private final int hash;
+
+        private final Entry<T> next;
+
+        private Entry(final T referent, final ReferenceQueue<T> queue, final long value, final int hash, final Entry<T> next) {
+            super(referent, queue);
+            this.value = value;
+            this.hash = hash;
+            this.next = next;
+        }
+    }
+
+    /**
+     * Hash table part of the pool, written under its own lock.
+     *
+     * @param <T> Type of the interned objects.
+     */
+    private static final class Segment<T> {
+
+        /**
+         * Number of entries, including the cleared ones not yet removed, guarded by this.
+         */
+        private volatile int count;
+
+        /**
+         * Current table, capacity is always a power of two.
+         */
+        private volatile AtomicReferenceArray<Entry<T>> table = new AtomicReferenceArray<>(SEGMENT_CAPACITY);
+
+        private T get(final long value, final int hash) {
+            AtomicReferenceArray<Entry<T>> tab = this.table;
+            Entry<T> entry = tab.get(hash & (tab.length() - 1));
+            while (entry != null) {
+                if (entry.value == value) {
+                    T interned = entry.get();
+                    if (interned != null) {
+                        return interned;
+                    }
+                }
+                entry = entry.next;
+            }
+            return null;
+        }
+
+        private synchronized T intern(final long value, final int hash, final LongFunction<T> factory,
+                                      final ReferenceQueue<T> queue, final PoolStatistics statistics) {
+            T interned = this.get(value, hash);
+            if (interned != null) {
+                statistics.contention();
+                return interned;
+            }
+            statistics.miss();
+            statistics.insert();
+            interned = factory.apply(value);
+            AtomicReferenceArray<Entry<T>> tab = this.table;
+            int index = hash & (tab.length() - 1);
+            tab.set(index, new Entry<>(interned, queue, value, hash, tab.get(index)));
+            int newCount = this.count + 1;
+            this.count = newCount;
+            if (newCount > tab.length() - (tab.length() >>> 2)) {
+                this.resize(tab, queue);
+            }
+            return interned;
+        }
+
+        private synchronized void remove(final Entry<T> toRemove, final ReferenceQueue<T> queue) {
+            AtomicReferenceArray<Entry<T>> tab = this.table;
+            int index = toRemove.hash & (tab.length() - 1);
+            Entry<T> first = tab.get(index);
+            Entry<T> entry = first;
+            while (entry != null && entry != toRemove) {
+                entry = entry.next;
+            }
+            if (entry == null) {
+                return;
+            }
+            Entry<T> chain = toRemove.next;
+            int removed = 1;
+            for (Entry<T> e = first; e != toRemove; e = e.next) {
+                T interned = e.get();
+                if (interned == null) {
+                    removed++;
+                } else {
+                    chain = new Entry<>(interned, queue, e.value, e.hash, chain);
+                }
+            }
+            tab.set(index, chain);
+            this.count = this.count - removed;
+        }
+
+        private void resize(final AtomicReferenceArray<Entry<T>> tab, final ReferenceQueue<T> queue) {
+            AtomicReferenceArray<Entry<T>> next = new AtomicReferenceArray<>(tab.length() << 1);
+            int mask = next.length() - 1;
+            int live = 0;
+            for (int i = 0; i < tab.length(); i++) {
+                for (Entry<T> e = tab.get(i); e != null; e = e.next) {
+                    T interned = e.get();
+                    if (interned != null) {
+                        int index = e.hash & mask;
+                        next.set(index, new Entry<>(interned, queue, e.value, e.hash, next.get(index)));
+                        live++;
+                    }
+                }
+            }
+            this.table = next;
+            this.count = live;
+        }
+    }
+}
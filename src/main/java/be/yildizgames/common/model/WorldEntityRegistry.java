@@ -0,0 +1,415 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Entity registry partitioned by world: every loaded world has its own EntityRegistry and its own executor, so the
+ * churn of a busy world does not slow the others down, and a world can be processed by a dedicated thread.
+ * <p>
+ * The shards are indexed by the raw id values and never intern an EntityId, unloading a world drops all its entries at
+ * once. The EntityId instances created elsewhere are kept by the global pool unless the weak interning is enabled with
+ * {@link EntityId#WEAK_INTERNING_PROPERTY}.
+ * <p>
+ * Thread safe class.
+ *
+ * @param <T> Type of the registered objects.
+ * @author Grégory Van den Borre
+ */
+public final class WorldEntityRegistry<T extends EntityIdentifiable> {
+
+    /**
+     * Loaded worlds.
+     */
+    private final Map<WorldId, Shard<T>> worlds = new ConcurrentHashMap<>();
+
+    /**
+     * Number of entries expected in a world.
+     */
+    private final int expectedSize;
+
+    /**
+     * Expected number of threads writing at the same time in a world.
+     */
+    private final int concurrency;
+
+    /**
+     * Create a new registry, without any world loaded.
+     */
+    public WorldEntityRegistry() {
+        this(16, 4);
+    }
+
+    /**
+     * Create a new registry, without any world loaded.
+     *
+     * @param expectedSize Number of entries expected in a world before its registry grows.
+     * @param concurrency  Expected number of threads writing at the same time in a world.
+     * @throws IllegalArgumentException If expectedSize is negative or concurrency is lower than 1.
+     */
+    public WorldEntityRegistry(final int expectedSize, final int concurrency) {
+        super();
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Invalid expected size: " + expectedSize);
+        }
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Invalid concurrency: " + concurrency);
+        }
+        this.expectedSize = expectedSize;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Load a world, its tasks are run by a dedicated daemon thread, stopped when the world is unloaded. Being a daemon,
+     * that thread does not keep the JVM alive, unload the world to let its pending tasks complete.
+     *
+     * @param world World to load.
+     * @return The shard of the world.
+     * @throws IllegalArgumentException If the world is already loaded.
+     * @throws NullPointerException     If world is null.
+     */
+    public Shard<T> load(final WorldId world) {
+        ExecutorService executor = Executors.newSingleThreadExecutor(Thread.ofPlatform().daemon(true).name("world-" + world.value).factory());
+        try {
+            return this.load(world, executor, true);
+        } catch (IllegalArgumentException e) {
+            executor.shutdown();
+            throw e;
+        }
+    }
+
+    /**
+     * Load a world, its tasks are run by the given executor, which is not stopped when the world is unloaded.
+     *
+     * @param world    World to load.
+     * @param executor Executor running the tasks of the world.
+     * @return The shard of the world.
+     * @throws IllegalArgumentException If the world is already loaded.
+     * @throws NullPointerException     If world or executor is null.
+     */
+    public Shard<T> load(final WorldId world, final Executor executor) {
+        return this.load(world, executor, false);
+    }
+
+    /**
+     * Unload a world: no task nor object is accepted anymore, the pending tasks still run, then all its entries are
+     * dropped by a last task on the world executor, see {@link Shard#whenCleared()}.
+     *
+     * @param world World to unload.
+     * @return <code>true</code> if the world was loaded.
+     * @throws NullPointerException If world is null.
+     */
+    public boolean unload(final WorldId world) {
+        Shard<T> shard = this.worlds.remove(world);
+        if (shard == null) {
+            return false;
+        }
+        shard.close();
+        return true;
+    }
+
+    /**
+     * Retrieve the shard of a world.
+     *
+     * @param world World to get.
+     * @return The shard, or null if the world is not loaded.
+     * @throws NullPointerException If world is null.
+     */
+    public Shard<T> shard(final WorldId world) {
+        return this.worlds.get(world);
+    }
+
+    /**
+     * Retrieve the object registered with an id in a world.
+     *
+     * @param world World to look in.
+     * @param id    Id value to get.
+     * @return The registered object, or null if none or if the world is not loaded.
+     * @throws NullPointerException If world is null.
+     */
+    public T get(final WorldId world, final long id) {
+        Shard<T> shard = this.worlds.get(world);
+        return shard == null ? null : shard.registry.get(id);
+    }
+
+    /**
+     * Register an object in a world, replacing any object registered with the same id in that world.
+     *
+     * @param world  World to register in.
+     * @param object Object to register.
+     * @return The object previously registered with that id in that world, or null if none.
+     * @throws IllegalArgumentException If the world is not loaded.
+     * @throws IllegalStateException    If the world is unloaded during this call.
+     * @throws NullPointerException     If world, object or its id is null.
+     */
+    public T register(final WorldId world, final T object) {
+        return this.loaded(world).register(object);
+    }
+
+    /**
+     * Remove the object registered with an id in a world.
+     *
+     * @param world World to remove from.
+     * @param id    Id value to remove.
+     * @return The removed object, or null if none or if the world is not loaded.
+     * @throws NullPointerException If world is null.
+     */
+    public T remove(final WorldId world, final long id) {
+        Shard<T> shard = this.worlds.get(world);
+        return shard == null ? null : shard.registry.remove(id);
+    }
+
+    /**
+     * @return The loaded worlds, the returned set reflects later loads and unloads.
+     */
+    public Set<WorldId> worlds() {
+        return Collections.unmodifiableSet(this.worlds.keySet());
+    }
+
+    /**
+     * @return The number of objects registered in all the loaded worlds, approximate while they change.
+     */
+    public int size() {
+        long size = 0;
+        for (Shard<T> shard : this.worlds.values()) {
+            size += shard.registry.size();
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    private Shard<T> load(final WorldId world, final Executor executor, final boolean owned) {
+        Shard<T> shard = new Shard<>(world, new EntityRegistry<>(this.expectedSize, this.concurrency), executor, owned);
+        if (this.worlds.putIfAbsent(world, shard) != null) {
+            throw new IllegalArgumentException("World already loaded: " + world.value);
+        }
+        return shard;
+    }
+
+    private Shard<T> loaded(final WorldId world) {
+        Shard<T> shard = this.worlds.get(world);
+        if (shard == null) {
+            throw new IllegalArgumentException("World not loaded: " + world.value);
+        }
+        return shard;
+    }
+
+    /**
+     * State of a loaded world: its registry and its executor.
+     * <p>
+     * Once the world is unloaded, no task is accepted anymore and no object can be registered. The tasks already
+     * submitted still run, they can read and remove entries, then the registry is cleared by a last task on the world
+     * executor.
+     *
+     * @param <T> Type of the registered objects.
+     */
+    public static final class Shard<T extends EntityIdentifiable> {
+
+        private final WorldId world;
+
+        private final EntityRegistry<T> registry;
+
+        private final Executor executor;
+
+        /**
+         * <code>true</code> if the executor was created for this world and must be stopped when it is unloaded.
+         */
+        private final boolean ownedExecutor;
+
+        /**
+         * Held in read mode while registering, in write mode while unloading, so no object is registered after the
+         * world is unloaded.
+         */
+        private final ReentrantReadWriteLock lifecycle = new ReentrantReadWriteLock();
+
+        /**
+         * Completed once the registry is cleared after an unload.
+         */
+        private final CompletableFuture<Void> cleared = new CompletableFuture<>();
+
+        private volatile boolean loaded = true;
+
+        private Shard(final WorldId world, final EntityRegistry<T> registry, final Executor executor, final boolean ownedExecutor) {
+            super();
+            this.world = world;
+            this.registry = registry;
+            this.executor = executor;
+            this.ownedExecutor = ownedExecutor;
+        }
+
+        /**
+         * Run a task on the world executor.
+         *
+         * @param task Task to run.
+         * @throws IllegalStateException      If the world is unloaded, even while this call is in progress.
+         * @throws RejectedExecutionException If a caller supplied executor rejects the task for another reason.
+         */
+        public void execute(final Runnable task) {
+            this.lifecycle.readLock().lock();
+            try {
+                this.checkLoaded();
+                this.executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                this.checkLoaded();
+                throw e;
+            } finally {
+                this.lifecycle.readLock().unlock();
+            }
+        }
+
+        /**
+         * Run a task with this shard on the world executor.
+         *
+         * @param task Task to run.
+         * @return A future completed when the task is done.
+         * @throws IllegalStateException      If the world is unloaded, even while this call is in progress.
+         * @throws RejectedExecutionException If a caller supplied executor rejects the task for another reason.
+         */
+        public CompletableFuture<Void> submit(final Consumer<Shard<T>> task) {
+            this.lifecycle.readLock().lock();
+            try {
+                this.checkLoaded();
+                return CompletableFuture.runAsync(() -> task.accept(this), this.executor);
+            } catch (RejectedExecutionException e) {
+                this.checkLoaded();
+                throw e;
+            } finally {
+                this.lifecycle.readLock().unlock();
+            }
+        }
+
+        /**
+         * Retrieve the object registered with an id in this world, without locking.
+         *
+         * @param id Id value to get.
+         * @return The registered object, or null if none.
+         */
+        public T get(final long id) {
+            return this.registry.get(id);
+        }
+
+        /**
+         * Register an object in this world, replacing any object registered with the same id.
+         *
+         * @param object Object to register.
+         * @return The object previously registered with that id, or null if none.
+         * @throws IllegalStateException If the world is unloaded.
+         * @throws NullPointerException  If object or its id is null.
+         */
+        public T register(final T object) {
+            this.lifecycle.readLock().lock();
+            try {
+                this.checkLoaded();
+                return this.registry.register(object);
+            } finally {
+                this.lifecycle.readLock().unlock();
+            }
+        }
+
+        /**
+         * Remove the object registered with an id in this world, allowed after the world is unloaded.
+         *
+         * @param id Id value to remove.
+         * @return The removed object, or null if none.
+         */
+        public T remove(final long id) {
+            return this.registry.remove(id);
+        }
+
+        /**
+         * @return The number of objects registered in this world, approximate while they change.
+         */
+        public int size() {
+            return this.registry.size();
+        }
+
+        /**
+         * Call an action for every object registered in this world, weakly consistent.
+         *
+         * @param action Action to call.
+         */
+        public void forEach(final Consumer<? super T> action) {
+            this.registry.forEach(action);
+        }
+
+        /**
+         * @return The world of this shard.
+         */
+        public WorldId getWorld() {
+            return this.world;
+        }
+
+        /**
+         * @return <code>true</code> until the world is unloaded.
+         */
+        public boolean isLoaded() {
+            return this.loaded;
+        }
+
+        /**
+         * @return A future completed once the world is unloaded and its registry cleared.
+         */
+        public CompletableFuture<Void> whenCleared() {
+            return this.cleared.copy();
+        }
+
+        private void checkLoaded() {
+            if (!this.loaded) {
+                throw new IllegalStateException("World unloaded: " + this.world.value);
+            }
+        }
+
+        private void close() {
+            this.lifecycle.writeLock().lock();
+            try {
+                this.loaded = false;
+            } finally {
+                this.lifecycle.writeLock().unlock();
+            }
+            Runnable clear = () -> {
+                this.registry.clear();
+                this.cleared.complete(null);
+            };
+            try {
+                this.executor.execute(clear);
+            } catch (RejectedExecutionException e) {
+                clear.run();
+            }
+            if (this.ownedExecutor) {
+                ((ExecutorService) this.executor).shutdown();
+            }
+        }
+    }
+}
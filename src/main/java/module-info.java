@@ -24,5 +24,8 @@
 
 open module be.yildizgames.common.model {
 
+    requires static java.management;
+    requires static jdk.jfr;
+
     exports be.yildizgames.common.model;
 }
@@ -53,5 +53,11 @@ class BonusIdTest {
             BonusId bonusId = BonusId.valueOf(-1);
             Assertions.assertEquals(-1, bonusId.value);
         }
+
+        @Test
+        void cached() {
+            Assertions.assertSame(BonusId.valueOf(5), BonusId.valueOf(5));
+            Assertions.assertSame(BonusId.valueOf(-5), BonusId.valueOf(-5));
+        }
     }
 }
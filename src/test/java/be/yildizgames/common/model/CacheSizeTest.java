@@ -0,0 +1,71 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class CacheSizeTest {
+
+    private static final String PROPERTY = "be.yildizgames.common.model.CacheSizeTest.cache";
+
+    private static int read(final String value) {
+        System.setProperty(PROPERTY, value);
+        try {
+            return CacheSize.of(PROPERTY);
+        } finally {
+            System.clearProperty(PROPERTY);
+        }
+    }
+
+    @Test
+    void defaultSize() {
+        Assertions.assertEquals(CacheSize.DEFAULT, CacheSize.of(CacheSizeTest.class));
+    }
+
+    @Test
+    void set() {
+        Assertions.assertEquals(16, read("16"));
+        Assertions.assertEquals(0, read("0"));
+    }
+
+    @Test
+    void negative() {
+        Assertions.assertEquals(0, read("-5"));
+    }
+
+    @Test
+    void tooLarge() {
+        Assertions.assertEquals(CacheSize.MAX, read(String.valueOf(Integer.MAX_VALUE)));
+    }
+
+    @Test
+    void notANumber() {
+        Assertions.assertEquals(CacheSize.DEFAULT, read("abc"));
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class ComponentStoreTest {
+
+    @Nested
+    class Add {
+
+        @Test
+        void happyFlow() {
+            ComponentStore store = new ComponentStore(1);
+            ComponentStore.LongColumn health = store.longColumn();
+            for (int i = 0; i < 100; i++) {
+                int row = store.add(EntityId.valueOf(i + 10));
+                Assertions.assertEquals(i, row);
+                health.set(row, i * 2L);
+            }
+            Assertions.assertEquals(100, store.size());
+            Assertions.assertEquals(42, store.rowOf(EntityId.valueOf(52)));
+            Assertions.assertEquals(84L, health.get(42));
+            Assertions.assertEquals(52L, store.idAt(42));
+        }
+
+        @Test
+        void alreadyPresent() {
+            ComponentStore store = new ComponentStore();
+            store.add(5L);
+            store.add(6L);
+            Assertions.assertEquals(0, store.add(5L));
+            Assertions.assertEquals(2, store.size());
+        }
+
+        @Test
+        void columnAddedLater() {
+            ComponentStore store = new ComponentStore(2);
+            store.add(1L);
+            store.add(2L);
+            ComponentStore.FloatColumn speed = store.floatColumn();
+            Assertions.assertEquals(0f, speed.get(1));
+            store.add(3L);
+            speed.set(2, 1.5f);
+            Assertions.assertEquals(1.5f, speed.get(2));
+        }
+
+        @Test
+        void invalidExpectedSize() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new ComponentStore(-1));
+        }
+    }
+
+    @Nested
+    class Remove {
+
+        @Test
+        void swapWithLast() {
+            ComponentStore store = new ComponentStore();
+            ComponentStore.IntColumn level = store.intColumn();
+            ComponentStore.DoubleColumn x = store.doubleColumn();
+            for (int i = 1; i <= 4; i++) {
+                int row = store.add(i);
+                level.set(row, i);
+                x.set(row, i / 2d);
+            }
+            Assertions.assertTrue(store.remove(EntityId.valueOf(2)));
+            Assertions.assertEquals(3, store.size());
+            Assertions.assertEquals(-1, store.rowOf(2L));
+            Assertions.assertEquals(1, store.rowOf(4L));
+            Assertions.assertEquals(4, level.get(1));
+            Assertions.assertEquals(2d, x.get(1));
+            Assertions.assertFalse(store.contains(EntityId.valueOf(2)));
+        }
+
+        @Test
+        void last() {
+            ComponentStore store = new ComponentStore();
+            ComponentStore.LongColumn column = store.longColumn();
+            store.add(1L);
+            column.set(store.add(2L), 7L);
+            Assertions.assertTrue(store.remove(2L));
+            Assertions.assertEquals(1, store.size());
+            Assertions.assertEquals(0L, column.get(store.add(3L)));
+        }
+
+        @Test
+        void notPresent() {
+            ComponentStore store = new ComponentStore();
+            store.add(1L);
+            Assertions.assertFalse(store.remove(2L));
+            Assertions.assertEquals(1, store.size());
+        }
+
+        @Test
+        void rowOutOfBounds() {
+            ComponentStore store = new ComponentStore();
+            ComponentStore.LongColumn column = store.longColumn();
+            store.add(1L);
+            store.remove(1L);
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> column.get(0));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> store.idAt(0));
+        }
+
+        @Test
+        void clear() {
+            ComponentStore store = new ComponentStore();
+            ComponentStore.IntColumn column = store.intColumn();
+            column.set(store.add(1L), 3);
+            store.clear();
+            Assertions.assertEquals(0, store.size());
+            Assertions.assertFalse(store.contains(1L));
+            Assertions.assertEquals(0, column.get(store.add(1L)));
+        }
+    }
+
+    @Nested
+    class Iterate {
+
+        @Test
+        void forEach() {
+            ComponentStore store = new ComponentStore();
+            for (int i = 1; i <= 10; i++) {
+                store.add(i);
+            }
+            store.remove(3L);
+            AtomicInteger count = new AtomicInteger();
+            store.forEach((row, id) -> {
+                Assertions.assertEquals(row, store.rowOf(id));
+                count.incrementAndGet();
+            });
+            Assertions.assertEquals(9, count.get());
+        }
+
+        @Test
+        void parallelForEach() {
+            ComponentStore store = new ComponentStore();
+            ComponentStore.LongColumn column = store.longColumn();
+            for (int i = 1; i <= 10_000; i++) {
+                column.set(store.add(i), i);
+            }
+            LongAdder sum = new LongAdder();
+            LongAdder ranges = new LongAdder();
+            store.parallelForEach(ForkJoinPool.commonPool(), 100, (from, to) -> {
+                Assertions.assertTrue(to - from <= 100);
+                ranges.increment();
+                for (int row = from; row < to; row++) {
+                    sum.add(column.get(row));
+                }
+            });
+            Assertions.assertEquals(10_000L * 10_001L / 2, sum.sum());
+            Assertions.assertTrue(ranges.sum() > 1);
+        }
+
+        @Test
+        void invalidThreshold() {
+            ComponentStore store = new ComponentStore();
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> store.parallelForEach(ForkJoinPool.commonPool(), 0, (from, to) -> {}));
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class ConcurrentIntInternPoolTest {
+
+    private static ConcurrentIntInternPool<ValueObject> givenAPool() {
+        return new ConcurrentIntInternPool<>(ValueObject::new, 0, 4);
+    }
+
+    @Nested
+    class Intern {
+
+        @Test
+        void happyFlow() {
+            ConcurrentIntInternPool<ValueObject> pool = givenAPool();
+            Assertions.assertEquals(5, pool.intern(5).value);
+            Assertions.assertEquals(1, pool.size());
+        }
+
+        @Test
+        void cached() {
+            ConcurrentIntInternPool<ValueObject> pool = givenAPool();
+            Assertions.assertSame(pool.intern(-3), pool.intern(-3));
+            Assertions.assertEquals(1, pool.size());
+        }
+
+        @Test
+        void resized() {
+            ConcurrentIntInternPool<ValueObject> pool = givenAPool();
+            ValueObject[] interned = new ValueObject[1000];
+            for (int i = 0; i < interned.length; i++) {
+                interned[i] = pool.intern(i * 17);
+            }
+            for (int i = 0; i < interned.length; i++) {
+                Assertions.assertSame(interned[i], pool.intern(i * 17));
+            }
+            Assertions.assertEquals(1000, pool.size());
+            Assertions.assertTrue(pool.capacity() >= 2000);
+        }
+
+        @Test
+        void concurrent() throws Exception {
+            ConcurrentIntInternPool<ValueObject> pool = givenAPool();
+            int threads = 8;
+            int values = 20_000;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<ValueObject[]>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    ValueObject[] interned = new ValueObject[values];
+                    for (int i = 0; i < values; i++) {
+                        interned[i] = pool.intern(i);
+                    }
+                    return interned;
+                }));
+            }
+            start.countDown();
+            ValueObject[] first = results.get(0).get();
+            for (Future<ValueObject[]> result : results) {
+                ValueObject[] other = result.get();
+                for (int i = 0; i < values; i++) {
+                    Assertions.assertSame(first[i], other[i]);
+                }
+            }
+            executor.shutdown();
+            Assertions.assertEquals(values, pool.size());
+        }
+    }
+
+    @Nested
+    class Get {
+
+        @Test
+        void happyFlow() {
+            ConcurrentIntInternPool<ValueObject> pool = givenAPool();
+            ValueObject interned = pool.intern(8);
+            Assertions.assertSame(interned, pool.get(8));
+        }
+
+        @Test
+        void notExisting() {
+            ConcurrentIntInternPool<ValueObject> pool = givenAPool();
+            Assertions.assertNull(pool.get(8));
+            Assertions.assertEquals(0, pool.size());
+        }
+    }
+
+    @Nested
+    class Cache {
+
+        @Test
+        void inRange() {
+            ConcurrentIntInternPool<ValueObject> pool = new ConcurrentIntInternPool<>(ValueObject::new, 16, 4);
+            ValueObject interned = pool.intern(15);
+            Assertions.assertSame(interned, pool.intern(15));
+            Assertions.assertSame(interned, pool.get(15));
+            Assertions.assertEquals(1, pool.size());
+        }
+
+        @Test
+        void outOfRange() {
+            ConcurrentIntInternPool<ValueObject> pool = new ConcurrentIntInternPool<>(ValueObject::new, 16, 4);
+            Assertions.assertSame(pool.intern(16), pool.intern(16));
+            Assertions.assertSame(pool.intern(-1), pool.intern(-1));
+            Assertions.assertEquals(2, pool.size());
+        }
+
+        @Test
+        void notExisting() {
+            ConcurrentIntInternPool<ValueObject> pool = new ConcurrentIntInternPool<>(ValueObject::new, 16, 4);
+            Assertions.assertNull(pool.get(3));
+        }
+
+        @Test
+        void negativeSize() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new ConcurrentIntInternPool<>(ValueObject::new, -1, 4));
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class ConcurrentLongInternPoolTest {
+
+    private static ConcurrentLongInternPool<long[]> givenAPool() {
+        return new ConcurrentLongInternPool<>(v -> new long[]{v}, a -> a[0], 4);
+    }
+
+    @Nested
+    class Intern {
+
+        @Test
+        void happyFlow() {
+            ConcurrentLongInternPool<long[]> pool = givenAPool();
+            Assertions.assertEquals(5L, pool.intern(5L)[0]);
+            Assertions.assertEquals(1, pool.size());
+        }
+
+        @Test
+        void cached() {
+            ConcurrentLongInternPool<long[]> pool = givenAPool();
+            Assertions.assertSame(pool.intern(-3L), pool.intern(-3L));
+            Assertions.assertEquals(1, pool.size());
+        }
+
+        @Test
+        void resized() {
+            ConcurrentLongInternPool<long[]> pool = givenAPool();
+            long[][] interned = new long[1000][];
+            for (int i = 0; i < interned.length; i++) {
+                interned[i] = pool.intern(i * 31L);
+            }
+            for (int i = 0; i < interned.length; i++) {
+                Assertions.assertSame(interned[i], pool.intern(i * 31L));
+            }
+            Assertions.assertEquals(1000, pool.size());
+            Assertions.assertTrue(pool.capacity() >= 2000);
+        }
+
+        @Test
+        void concurrent() throws Exception {
+            ConcurrentLongInternPool<long[]> pool = givenAPool();
+            int threads = 8;
+            int values = 20_000;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<long[][]>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    long[][] interned = new long[values][];
+                    for (int i = 0; i < values; i++) {
+                        interned[i] = pool.intern(i);
+                    }
+                    return interned;
+                }));
+            }
+            start.countDown();
+            long[][] first = results.get(0).get();
+            for (Future<long[][]> result : results) {
+                long[][] other = result.get();
+                for (int i = 0; i < values; i++) {
+                    Assertions.assertSame(first[i], other[i]);
+                }
+            }
+            executor.shutdown();
+            Assertions.assertEquals(values, pool.size());
+        }
+    }
+
+    @Nested
+    class Get {
+
+        @Test
+        void happyFlow() {
+            ConcurrentLongInternPool<long[]> pool = givenAPool();
+            long[] interned = pool.intern(8L);
+            Assertions.assertSame(interned, pool.get(8L));
+        }
+
+        @Test
+        void notExisting() {
+            ConcurrentLongInternPool<long[]> pool = givenAPool();
+            Assertions.assertNull(pool.get(8L));
+            Assertions.assertEquals(0, pool.size());
+        }
+
+        @Test
+        void duringResize() throws Exception {
+            CountDownLatch copying = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            ConcurrentLongInternPool<long[]> pool = new ConcurrentLongInternPool<>(v -> new long[]{v}, a -> {
+                if (StackWalker.getInstance().walk(f -> f.anyMatch(s -> s.getMethodName().equals("resize")))) {
+                    copying.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return a[0];
+            }, 4);
+            long[][] interned = new long[4][];
+            for (int i = 0; i < interned.length; i++) {
+                interned[i] = pool.intern(i);
+            }
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            Future<long[]> resizer = executor.submit(() -> pool.intern(4L));
+            copying.await();
+            ExecutorService readerExecutor = Executors.newSingleThreadExecutor();
+            Future<long[]> reader = readerExecutor.submit(() -> {
+                Assertions.assertNull(pool.get(1000L));
+                Assertions.assertSame(interned[2], pool.get(2L));
+                return pool.intern(100L);
+            });
+            long[] inserted = reader.get(10, TimeUnit.SECONDS);
+            release.countDown();
+            resizer.get();
+            executor.shutdown();
+            readerExecutor.shutdown();
+            Assertions.assertSame(inserted, pool.get(100L));
+            Assertions.assertSame(inserted, pool.intern(100L));
+            for (int i = 0; i < interned.length; i++) {
+                Assertions.assertSame(interned[i], pool.get(i));
+            }
+            Assertions.assertEquals(6, pool.size());
+        }
+    }
+}
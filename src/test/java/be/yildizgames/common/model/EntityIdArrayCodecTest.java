@@ -0,0 +1,154 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class EntityIdArrayCodecTest {
+
+    @Nested
+    class Encode {
+
+        @Test
+        void sortedIsCompact() {
+            long[] ids = new long[1000];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = 1_000_000L + i * 3;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(8 * ids.length);
+            int size = EntityIdArrayCodec.encode(buffer, ids);
+            Assertions.assertEquals(buffer.position(), size);
+            Assertions.assertEquals(EntityIdArrayCodec.encodedSize(ids, 0, ids.length), size);
+            Assertions.assertTrue(size < ids.length + 10);
+        }
+
+        @Test
+        void range() {
+            ByteBuffer buffer = ByteBuffer.allocate(64);
+            EntityIdArrayCodec.encode(buffer, new long[]{1, 2, 3, 4}, 1, 2);
+            buffer.flip();
+            Assertions.assertArrayEquals(new long[]{2, 3}, EntityIdArrayCodec.decode(buffer));
+        }
+
+        @Test
+        void invalidRange() {
+            ByteBuffer buffer = ByteBuffer.allocate(64);
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> EntityIdArrayCodec.encode(buffer, new long[2], 1, 2));
+        }
+    }
+
+    @Nested
+    class Decode {
+
+        @Test
+        void unsorted() {
+            long[] ids = {5, -3, Long.MAX_VALUE, Long.MIN_VALUE, 0, 42};
+            ByteBuffer buffer = ByteBuffer.allocateDirect(128);
+            EntityIdArrayCodec.encode(buffer, ids);
+            buffer.flip();
+            Assertions.assertArrayEquals(ids, EntityIdArrayCodec.decode(buffer));
+            Assertions.assertFalse(buffer.hasRemaining());
+        }
+
+        @Test
+        void empty() {
+            ByteBuffer buffer = ByteBuffer.allocate(8);
+            EntityIdArrayCodec.encode(buffer, new long[0]);
+            buffer.flip();
+            Assertions.assertEquals(0, EntityIdArrayCodec.decode(buffer).length);
+        }
+
+        @Test
+        void streaming() {
+            long[] ids = new long[100];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = i * 7L;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(512);
+            EntityIdArrayCodec.encode(buffer, ids);
+            buffer.flip();
+            EntityIdArrayCodec.Decoder decoder = new EntityIdArrayCodec.Decoder(buffer);
+            Assertions.assertEquals(100, decoder.remaining());
+            long[] chunk = new long[30];
+            long[] result = new long[100];
+            int total = 0;
+            int read;
+            while ((read = decoder.read(chunk, 0, chunk.length)) > 0) {
+                System.arraycopy(chunk, 0, result, total, read);
+                total += read;
+            }
+            Assertions.assertEquals(100, total);
+            Assertions.assertArrayEquals(ids, result);
+            Assertions.assertEquals(0, decoder.remaining());
+        }
+
+        @Test
+        void reset() {
+            ByteBuffer buffer = ByteBuffer.allocate(64);
+            EntityIdArrayCodec.encode(buffer, new long[]{10, 11});
+            EntityIdArrayCodec.encode(buffer, new long[]{3});
+            buffer.flip();
+            EntityIdArrayCodec.Decoder decoder = new EntityIdArrayCodec.Decoder(buffer);
+            long[] result = new long[2];
+            decoder.read(result, 0, 2);
+            decoder.reset(buffer);
+            Assertions.assertEquals(1, decoder.read(result, 0, 2));
+            Assertions.assertEquals(3, result[0]);
+        }
+
+        @Test
+        void negativeCount() {
+            ByteBuffer buffer = ByteBuffer.allocate(8);
+            IdCodec.writeVarInt(buffer, -1);
+            buffer.flip();
+            Assertions.assertThrows(IllegalArgumentException.class, () -> EntityIdArrayCodec.decode(buffer));
+        }
+
+        @Test
+        void countLargerThanContent() {
+            ByteBuffer buffer = ByteBuffer.allocate(8);
+            IdCodec.writeVarInt(buffer, Integer.MAX_VALUE);
+            buffer.flip();
+            Assertions.assertThrows(IllegalArgumentException.class, () -> EntityIdArrayCodec.decode(buffer));
+        }
+
+        @Test
+        void countOneAboveContent() {
+            ByteBuffer buffer = ByteBuffer.allocate(8);
+            IdCodec.writeVarInt(buffer, 3);
+            IdCodec.writeVarLong(buffer, 1L);
+            IdCodec.writeVarLong(buffer, 1L);
+            buffer.flip();
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new EntityIdArrayCodec.Decoder(buffer));
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class EntityIdBitmapTest {
+
+    /**
+     * Build a set mixing sparse ids, dense ids and clustered ids, in several containers.
+     */
+    private static TreeSet<Long> givenIds(final long seed) {
+        Random random = new Random(seed);
+        TreeSet<Long> ids = new TreeSet<>();
+        for (int i = 0; i < 2_000; i++) {
+            ids.add(random.nextLong() >> 20);
+        }
+        for (int i = 0; i < 20_000; i++) {
+            ids.add(65_536L + random.nextInt(30_000));
+        }
+        long start = 300_000L + random.nextInt(1_000);
+        for (long i = start; i < start + 10_000; i++) {
+            ids.add(i);
+        }
+        for (int i = 0; i < 500; i++) {
+            ids.add(-random.nextInt(100_000) - 1L);
+        }
+        return ids;
+    }
+
+    private static EntityIdBitmap toBitmap(final TreeSet<Long> ids) {
+        EntityIdBitmap bitmap = new EntityIdBitmap();
+        ids.forEach(bitmap::add);
+        return bitmap;
+    }
+
+    private static void assertSameIds(final TreeSet<Long> expected, final EntityIdBitmap bitmap) {
+        Assertions.assertEquals(expected.size(), bitmap.cardinality());
+        long[] values = bitmap.toArray();
+        Assertions.assertArrayEquals(expected.stream().mapToLong(Long::longValue).toArray(), values);
+        List<Long> iterated = new ArrayList<>();
+        bitmap.forEach(iterated::add);
+        Assertions.assertEquals(new ArrayList<>(expected), iterated);
+    }
+
+    @Nested
+    class Add {
+
+        @Test
+        void happyFlow() {
+            EntityIdBitmap bitmap = new EntityIdBitmap();
+            bitmap.add(EntityId.valueOf(5L));
+            bitmap.add(5L);
+            Assertions.assertTrue(bitmap.contains(EntityId.valueOf(5L)));
+            Assertions.assertFalse(bitmap.contains(6L));
+            Assertions.assertEquals(1, bitmap.cardinality());
+        }
+
+        @Test
+        void withNull() {
+            EntityIdBitmap bitmap = new EntityIdBitmap();
+            Assertions.assertThrows(NullPointerException.class, () -> bitmap.add(null));
+        }
+
+        @Test
+        void extremeValues() {
+            EntityIdBitmap bitmap = EntityIdBitmap.of(Long.MIN_VALUE, -1L, 0L, Long.MAX_VALUE);
+            Assertions.assertArrayEquals(new long[]{Long.MIN_VALUE, -1L, 0L, Long.MAX_VALUE}, bitmap.toArray());
+        }
+
+        @Test
+        void mixedContainers() {
+            TreeSet<Long> ids = givenIds(1);
+            assertSameIds(ids, toBitmap(ids));
+        }
+    }
+
+    @Nested
+    class Remove {
+
+        @Test
+        void randomOperations() {
+            TreeSet<Long> expected = new TreeSet<>();
+            EntityIdBitmap bitmap = new EntityIdBitmap();
+            Random random = new Random(11);
+            for (int i = 0; i < 200_000; i++) {
+                long id = random.nextInt(200_000);
+                if (random.nextInt(4) > 0) {
+                    expected.add(id);
+                    bitmap.add(id);
+                } else {
+                    expected.remove(id);
+                    bitmap.remove(id);
+                }
+                if (i % 50_000 == 0) {
+                    bitmap.runOptimize();
+                }
+            }
+            assertSameIds(expected, bitmap);
+            expected.forEach(id -> Assertions.assertTrue(bitmap.contains(id)));
+        }
+
+        @Test
+        void lastOfContainer() {
+            EntityIdBitmap bitmap = EntityIdBitmap.of(1L, 100_000L);
+            bitmap.remove(EntityId.valueOf(1L));
+            bitmap.remove(100_000L);
+            Assertions.assertTrue(bitmap.isEmpty());
+        }
+    }
+
+    @Nested
+    class SetOperations {
+
+        @Test
+        void or() {
+            TreeSet<Long> a = givenIds(1);
+            TreeSet<Long> b = givenIds(2);
+            TreeSet<Long> expected = new TreeSet<>(a);
+            expected.addAll(b);
+            assertSameIds(expected, toBitmap(a).or(toBitmap(b)));
+        }
+
+        @Test
+        void and() {
+            TreeSet<Long> a = givenIds(1);
+            TreeSet<Long> b = givenIds(2);
+            TreeSet<Long> expected = new TreeSet<>(a);
+            expected.retainAll(b);
+            assertSameIds(expected, toBitmap(a).and(toBitmap(b)));
+            Assertions.assertEquals(expected.size(), toBitmap(a).andCardinality(toBitmap(b)));
+        }
+
+        @Test
+        void andNot() {
+            TreeSet<Long> a = givenIds(1);
+            TreeSet<Long> b = givenIds(2);
+            TreeSet<Long> expected = new TreeSet<>(a);
+            expected.removeAll(b);
+            assertSameIds(expected, toBitmap(a).andNot(toBitmap(b)));
+        }
+
+        @Test
+        void withRunContainers() {
+            TreeSet<Long> a = givenIds(3);
+            TreeSet<Long> b = givenIds(4);
+            EntityIdBitmap bitmapA = toBitmap(a);
+            EntityIdBitmap bitmapB = toBitmap(b);
+            bitmapA.runOptimize();
+            bitmapB.runOptimize();
+            TreeSet<Long> union = new TreeSet<>(a);
+            union.addAll(b);
+            TreeSet<Long> intersection = new TreeSet<>(a);
+            intersection.retainAll(b);
+            TreeSet<Long> difference = new TreeSet<>(a);
+            difference.removeAll(b);
+            assertSameIds(union, bitmapA.or(bitmapB));
+            assertSameIds(intersection, bitmapA.and(bitmapB));
+            assertSameIds(difference, bitmapA.andNot(bitmapB));
+            Assertions.assertEquals(intersection.size(), bitmapA.andCardinality(bitmapB));
+            assertSameIds(a, bitmapA);
+            assertSameIds(b, bitmapB);
+        }
+
+        @Test
+        void operandsNotModified() {
+            TreeSet<Long> a = givenIds(5);
+            TreeSet<Long> b = givenIds(6);
+            EntityIdBitmap bitmapA = toBitmap(a);
+            EntityIdBitmap bitmapB = toBitmap(b);
+            EntityIdBitmap union = bitmapA.or(bitmapB);
+            union.add(-999_999_999L);
+            bitmapA.and(bitmapB);
+            bitmapA.andNot(bitmapB);
+            assertSameIds(a, bitmapA);
+            assertSameIds(b, bitmapB);
+        }
+    }
+
+    @Nested
+    class RunOptimize {
+
+        @Test
+        void clusteredIsCompact() {
+            EntityIdBitmap bitmap = new EntityIdBitmap();
+            for (long i = 1_000; i < 60_000; i++) {
+                bitmap.add(i);
+            }
+            long before = bitmap.sizeInBytes();
+            bitmap.runOptimize();
+            Assertions.assertTrue(bitmap.sizeInBytes() < before / 100);
+            Assertions.assertEquals(59_000, bitmap.cardinality());
+            Assertions.assertTrue(bitmap.contains(1_000L));
+            Assertions.assertTrue(bitmap.contains(59_999L));
+            Assertions.assertFalse(bitmap.contains(60_000L));
+        }
+
+        @Test
+        void modifiedAfter() {
+            EntityIdBitmap bitmap = new EntityIdBitmap();
+            for (long i = 0; i < 100; i++) {
+                bitmap.add(i);
+            }
+            bitmap.runOptimize();
+            bitmap.add(200L);
+            bitmap.remove(50L);
+            Assertions.assertEquals(100, bitmap.cardinality());
+            Assertions.assertFalse(bitmap.contains(50L));
+            Assertions.assertTrue(bitmap.contains(200L));
+        }
+    }
+}
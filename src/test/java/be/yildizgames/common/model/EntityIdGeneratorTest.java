@@ -0,0 +1,152 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class EntityIdGeneratorTest {
+
+    @Nested
+    class Constructor {
+
+        @Test
+        void invalidBlockSize() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new EntityIdGenerator(EntityIdSequence.inMemory(1), 0));
+        }
+
+        @Test
+        void invalidStripes() {
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> new EntityIdGenerator(EntityIdSequence.inMemory(1), 8, Runnable::run, 0));
+        }
+    }
+
+    @Nested
+    class Next {
+
+        @Test
+        void sequentialInOneThread() {
+            EntityIdGenerator generator = new EntityIdGenerator(EntityIdSequence.inMemory(10), 4, Runnable::run, 1);
+            for (long i = 10; i < 30; i++) {
+                Assertions.assertEquals(i, generator.nextValue());
+            }
+            Assertions.assertSame(EntityId.valueOf(30), generator.next());
+        }
+
+        @Test
+        void worldIsSkipped() {
+            EntityIdGenerator generator = new EntityIdGenerator(EntityIdSequence.inMemory(-2), 2, Runnable::run, 1);
+            Assertions.assertEquals(-2, generator.nextValue());
+            Assertions.assertEquals(-1, generator.nextValue());
+            Assertions.assertEquals(1, generator.nextValue());
+        }
+
+        @Test
+        void blocksArePrefetched() {
+            AtomicInteger requests = new AtomicInteger();
+            EntityIdSequence sequence = EntityIdSequence.inMemory(1);
+            EntityIdGenerator generator = new EntityIdGenerator(size -> {
+                requests.incrementAndGet();
+                return sequence.nextBlock(size);
+            }, 10, Runnable::run, 1);
+            generator.nextValue();
+            Assertions.assertEquals(1, requests.get());
+            for (int i = 0; i < 5; i++) {
+                generator.nextValue();
+            }
+            Assertions.assertEquals(2, requests.get());
+            Assertions.assertEquals(11, generator.nextValue() + 4);
+        }
+
+        @Test
+        void failedPrefetchIsRetried() {
+            AtomicInteger requests = new AtomicInteger();
+            EntityIdGenerator generator = new EntityIdGenerator(size -> {
+                if (requests.incrementAndGet() == 2) {
+                    throw new IllegalStateException("unavailable");
+                }
+                return requests.get() * 100L;
+            }, 2, Runnable::run, 1);
+            Assertions.assertEquals(100, generator.nextValue());
+            Assertions.assertEquals(101, generator.nextValue());
+            Assertions.assertEquals(300, generator.nextValue());
+        }
+
+        @Test
+        void sequenceFailure() {
+            EntityIdGenerator generator = new EntityIdGenerator(size -> {
+                throw new IllegalStateException("unavailable");
+            });
+            Assertions.assertThrows(IllegalStateException.class, generator::nextValue);
+        }
+
+        @Test
+        void exhausted() {
+            EntityIdGenerator generator = new EntityIdGenerator(EntityIdSequence.inMemory(Long.MAX_VALUE - 1), 4);
+            Assertions.assertThrows(IllegalStateException.class, generator::nextValue);
+        }
+    }
+
+    @Nested
+    class Concurrency {
+
+        @Test
+        void uniqueOnPlatformAndVirtualThreads() throws Exception {
+            EntityIdGenerator generator = new EntityIdGenerator(EntityIdSequence.inMemory(1), 64);
+            Set<Long> values = ConcurrentHashMap.newKeySet();
+            try (ExecutorService platform = Executors.newFixedThreadPool(8);
+                 ExecutorService virtual = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < 16; t++) {
+                    ExecutorService executor = t % 2 == 0 ? platform : virtual;
+                    futures.add(executor.submit(() -> {
+                        for (int i = 0; i < 10_000; i++) {
+                            Assertions.assertTrue(values.add(generator.nextValue()));
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            Assertions.assertEquals(160_000, values.size());
+            Assertions.assertFalse(values.contains(0L));
+        }
+    }
+}
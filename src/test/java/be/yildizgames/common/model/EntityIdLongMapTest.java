@@ -0,0 +1,108 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class EntityIdLongMapTest {
+
+    @Nested
+    class Put {
+
+        @Test
+        void happyFlow() {
+            EntityIdLongMap map = new EntityIdLongMap();
+            Assertions.assertEquals(0L, map.put(EntityId.valueOf(5L), 10L));
+            Assertions.assertEquals(10L, map.get(EntityId.valueOf(5L)));
+            Assertions.assertTrue(map.containsKey(5L));
+        }
+
+        @Test
+        void defaultValue() {
+            EntityIdLongMap map = new EntityIdLongMap(4, -1L);
+            Assertions.assertEquals(-1L, map.get(5L));
+            Assertions.assertEquals(-1L, map.put(5L, 3L));
+            Assertions.assertEquals(3L, map.remove(5L));
+            Assertions.assertEquals(-1L, map.remove(5L));
+            Assertions.assertEquals(-1L, map.getDefaultValue());
+        }
+
+        @Test
+        void grow() {
+            EntityIdLongMap map = new EntityIdLongMap(2, 0L);
+            for (long i = 0; i < 1000; i++) {
+                map.put(i * 7, i);
+            }
+            for (long i = 0; i < 1000; i++) {
+                Assertions.assertEquals(i, map.get(i * 7));
+            }
+            Assertions.assertEquals(1000, map.size());
+        }
+    }
+
+    @Nested
+    class AddTo {
+
+        @Test
+        void happyFlow() {
+            EntityIdLongMap map = new EntityIdLongMap();
+            Assertions.assertEquals(3L, map.addTo(5L, 3L));
+            Assertions.assertEquals(5L, map.addTo(5L, 2L));
+            Assertions.assertEquals(5L, map.get(5L));
+        }
+    }
+
+    @Nested
+    class Iterate {
+
+        @Test
+        void forEach() {
+            EntityIdLongMap map = new EntityIdLongMap();
+            map.put(0L, 1L);
+            map.put(5L, 2L);
+            Map<Long, Long> result = new HashMap<>();
+            map.forEach(result::put);
+            Assertions.assertEquals(Map.of(0L, 1L, 5L, 2L), result);
+        }
+
+        @Test
+        void clear() {
+            EntityIdLongMap map = new EntityIdLongMap();
+            map.put(0L, 1L);
+            map.put(5L, 2L);
+            map.clear();
+            Assertions.assertTrue(map.isEmpty());
+            Assertions.assertFalse(map.containsKey(0L));
+        }
+    }
+}
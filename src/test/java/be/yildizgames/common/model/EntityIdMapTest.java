@@ -0,0 +1,193 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class EntityIdMapTest {
+
+    @Nested
+    class Put {
+
+        @Test
+        void happyFlow() {
+            EntityIdMap<String> map = new EntityIdMap<>();
+            Assertions.assertNull(map.put(EntityId.valueOf(5L), "a"));
+            Assertions.assertEquals("a", map.get(EntityId.valueOf(5L)));
+            Assertions.assertEquals("a", map.get(5L));
+            Assertions.assertEquals(1, map.size());
+        }
+
+        @Test
+        void replace() {
+            EntityIdMap<String> map = new EntityIdMap<>();
+            map.put(5L, "a");
+            Assertions.assertEquals("a", map.put(5L, "b"));
+            Assertions.assertEquals("b", map.get(5L));
+            Assertions.assertEquals(1, map.size());
+        }
+
+        @Test
+        void world() {
+            EntityIdMap<String> map = new EntityIdMap<>();
+            map.put(EntityId.WORLD, "w");
+            Assertions.assertTrue(map.containsKey(EntityId.WORLD));
+            Assertions.assertEquals("w", map.get(0L));
+            Assertions.assertEquals("w", map.remove(0L));
+            Assertions.assertFalse(map.containsKey(0L));
+            Assertions.assertTrue(map.isEmpty());
+        }
+
+        @Test
+        void withNull() {
+            EntityIdMap<String> map = new EntityIdMap<>();
+            Assertions.assertThrows(NullPointerException.class, () -> map.put(null, "a"));
+        }
+
+        @Test
+        void grow() {
+            EntityIdMap<Long> map = new EntityIdMap<>(2);
+            for (long i = -500; i < 500; i++) {
+                map.put(i, i);
+            }
+            Assertions.assertEquals(1000, map.size());
+            for (long i = -500; i < 500; i++) {
+                Assertions.assertEquals(i, map.get(i));
+            }
+        }
+    }
+
+    @Nested
+    class Remove {
+
+        @Test
+        void happyFlow() {
+            EntityIdMap<String> map = new EntityIdMap<>();
+            map.put(5L, "a");
+            Assertions.assertEquals("a", map.remove(EntityId.valueOf(5L)));
+            Assertions.assertNull(map.get(5L));
+            Assertions.assertTrue(map.isEmpty());
+        }
+
+        @Test
+        void notExisting() {
+            EntityIdMap<String> map = new EntityIdMap<>();
+            Assertions.assertNull(map.remove(5L));
+        }
+
+        @Test
+        void randomOperations() {
+            EntityIdMap<Long> map = new EntityIdMap<>();
+            Map<Long, Long> expected = new HashMap<>();
+            Random random = new Random(42);
+            for (int i = 0; i < 100_000; i++) {
+                long key = random.nextInt(2_000) - 100;
+                if (random.nextBoolean()) {
+                    Assertions.assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+                } else {
+                    Assertions.assertEquals(expected.remove(key), map.remove(key));
+                }
+            }
+            Assertions.assertEquals(expected.size(), map.size());
+            expected.forEach((k, v) -> Assertions.assertEquals(v, map.get(k)));
+        }
+
+        @Test
+        void clear() {
+            EntityIdMap<String> map = new EntityIdMap<>();
+            map.put(0L, "a");
+            map.put(5L, "b");
+            map.clear();
+            Assertions.assertTrue(map.isEmpty());
+            Assertions.assertNull(map.get(0L));
+            Assertions.assertNull(map.get(5L));
+        }
+    }
+
+    @Nested
+    class ComputeIfAbsent {
+
+        @Test
+        void happyFlow() {
+            EntityIdMap<String> map = new EntityIdMap<>();
+            Assertions.assertEquals("7", map.computeIfAbsent(7L, String::valueOf));
+            Assertions.assertEquals("7", map.computeIfAbsent(7L, id -> "other"));
+        }
+    }
+
+    @Nested
+    class Iterate {
+
+        @Test
+        void forEach() {
+            EntityIdMap<String> map = new EntityIdMap<>();
+            map.put(0L, "0");
+            map.put(5L, "5");
+            map.put(-5L, "-5");
+            Map<Long, String> result = new HashMap<>();
+            map.forEach(result::put);
+            Assertions.assertEquals(Map.of(0L, "0", 5L, "5", -5L, "-5"), result);
+        }
+
+        @Test
+        void forEachValue() {
+            EntityIdMap<String> map = new EntityIdMap<>();
+            map.put(0L, "0");
+            map.put(5L, "5");
+            List<String> result = new ArrayList<>();
+            map.forEachValue(result::add);
+            Assertions.assertEquals(2, result.size());
+            Assertions.assertTrue(result.containsAll(List.of("0", "5")));
+        }
+
+        @Test
+        void keyIterator() {
+            EntityIdMap<String> map = new EntityIdMap<>();
+            map.put(0L, "0");
+            map.put(5L, "5");
+            PrimitiveIterator.OfLong iterator = map.keyIterator();
+            long sum = 0;
+            int count = 0;
+            while (iterator.hasNext()) {
+                sum += iterator.nextLong();
+                count++;
+            }
+            Assertions.assertEquals(5L, sum);
+            Assertions.assertEquals(2, count);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class EntityIdSetTest {
+
+    @Nested
+    class Add {
+
+        @Test
+        void happyFlow() {
+            EntityIdSet set = new EntityIdSet();
+            Assertions.assertTrue(set.add(EntityId.valueOf(5L)));
+            Assertions.assertFalse(set.add(5L));
+            Assertions.assertTrue(set.contains(EntityId.valueOf(5L)));
+            Assertions.assertEquals(1, set.size());
+        }
+
+        @Test
+        void world() {
+            EntityIdSet set = new EntityIdSet();
+            Assertions.assertTrue(set.add(EntityId.WORLD));
+            Assertions.assertTrue(set.contains(0L));
+            Assertions.assertTrue(set.remove(EntityId.WORLD));
+            Assertions.assertFalse(set.contains(0L));
+        }
+
+        @Test
+        void withNull() {
+            EntityIdSet set = new EntityIdSet();
+            Assertions.assertThrows(NullPointerException.class, () -> set.add(null));
+        }
+    }
+
+    @Nested
+    class Remove {
+
+        @Test
+        void randomOperations() {
+            EntityIdSet set = new EntityIdSet();
+            Set<Long> expected = new HashSet<>();
+            Random random = new Random(7);
+            for (int i = 0; i < 100_000; i++) {
+                long id = random.nextInt(3_000);
+                if (random.nextInt(3) > 0) {
+                    Assertions.assertEquals(expected.add(id), set.add(id));
+                } else {
+                    Assertions.assertEquals(expected.remove(id), set.remove(id));
+                }
+            }
+            Assertions.assertEquals(expected.size(), set.size());
+            long[] values = set.toArray();
+            Assertions.assertEquals(expected.size(), values.length);
+            Arrays.stream(values).forEach(v -> Assertions.assertTrue(expected.contains(v)));
+        }
+
+        @Test
+        void clear() {
+            EntityIdSet set = new EntityIdSet();
+            set.add(0L);
+            set.add(3L);
+            set.clear();
+            Assertions.assertTrue(set.isEmpty());
+            Assertions.assertEquals(0, set.toArray().length);
+        }
+    }
+
+    @Nested
+    class Iterate {
+
+        @Test
+        void forEachKey() {
+            EntityIdSet set = new EntityIdSet();
+            set.add(0L);
+            set.add(3L);
+            set.add(-3L);
+            Set<Long> result = new HashSet<>();
+            set.forEachKey(result::add);
+            Assertions.assertEquals(Set.of(0L, 3L, -3L), result);
+        }
+
+        @Test
+        void keyIteratorEmpty() {
+            EntityIdSet set = new EntityIdSet();
+            Assertions.assertFalse(set.keyIterator().hasNext());
+        }
+    }
+}
@@ -26,12 +26,19 @@ package be.yildizgames.common.model;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -77,6 +84,21 @@ final class EntityIdTest {
         assertThrows(NullPointerException.class, () -> EntityId.isWorld(null));
     }
 
+    /***/
+    @Test
+    void testValueOfConcurrent() throws Exception {
+        final long value = 123_456_789L;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Callable<EntityId>> tasks = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            tasks.add(() -> EntityId.valueOf(value));
+        }
+        for (Future<EntityId> result : executor.invokeAll(tasks)) {
+            assertSame(EntityId.valueOf(value), result.get());
+        }
+        executor.shutdown();
+    }
+
     /***/
     @Test
     void testToString() {
@@ -0,0 +1,222 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class EntityOwnershipIndexTest {
+
+    private static Set<Long> owned(final EntityOwnershipIndex index, final PlayerId player) {
+        Set<Long> result = new HashSet<>();
+        index.forEach(player, result::add);
+        return result;
+    }
+
+    @Nested
+    class Assign {
+
+        @Test
+        void happyFlow() {
+            EntityOwnershipIndex index = new EntityOwnershipIndex();
+            PlayerId player = PlayerId.valueOf(3);
+            for (long i = 1; i <= 20; i++) {
+                Assertions.assertNull(index.assign(EntityId.valueOf(i), player));
+            }
+            Assertions.assertEquals(20, index.count(player));
+            Assertions.assertEquals(20, index.size());
+            Assertions.assertEquals(player, index.ownerOf(EntityId.valueOf(7)));
+            Assertions.assertTrue(index.isOwner(player, 7L));
+            Assertions.assertEquals(20, owned(index, player).size());
+        }
+
+        @Test
+        void transfer() {
+            EntityOwnershipIndex index = new EntityOwnershipIndex();
+            PlayerId first = PlayerId.valueOf(1);
+            PlayerId second = PlayerId.valueOf(-2);
+            for (long i = 1; i <= 5; i++) {
+                index.assign(i, first);
+            }
+            Assertions.assertEquals(first, index.assign(2L, second));
+            Assertions.assertEquals(second, index.ownerOf(2L));
+            Assertions.assertEquals(Set.of(1L, 3L, 4L, 5L), owned(index, first));
+            Assertions.assertEquals(Set.of(2L), owned(index, second));
+            Assertions.assertEquals(first, index.ownerOf(5L));
+            Assertions.assertEquals(first, index.assign(5L, second));
+            Assertions.assertEquals(Set.of(1L, 3L, 4L), owned(index, first));
+            Assertions.assertEquals(5, index.size());
+        }
+
+        @Test
+        void sameOwner() {
+            EntityOwnershipIndex index = new EntityOwnershipIndex();
+            PlayerId player = PlayerId.valueOf(1);
+            index.assign(1L, player);
+            Assertions.assertEquals(player, index.assign(1L, player));
+            Assertions.assertEquals(1, index.count(player));
+        }
+
+        @Test
+        void invalid() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new EntityOwnershipIndex(-1, 1));
+            EntityOwnershipIndex index = new EntityOwnershipIndex();
+            Assertions.assertThrows(NullPointerException.class, () -> index.assign(1L, null));
+        }
+    }
+
+    @Nested
+    class Release {
+
+        @Test
+        void happyFlow() {
+            EntityOwnershipIndex index = new EntityOwnershipIndex();
+            PlayerId player = PlayerId.valueOf(1);
+            index.assign(1L, player);
+            index.assign(2L, player);
+            index.assign(3L, player);
+            Assertions.assertEquals(player, index.release(EntityId.valueOf(1)));
+            Assertions.assertNull(index.ownerOf(1L));
+            Assertions.assertNull(index.release(1L));
+            Assertions.assertEquals(Set.of(2L, 3L), owned(index, player));
+            Assertions.assertEquals(player, index.release(3L));
+            Assertions.assertEquals(player, index.release(2L));
+            Assertions.assertEquals(0, index.count(player));
+            Assertions.assertEquals(0, index.size());
+        }
+
+        @Test
+        void releaseAll() {
+            EntityOwnershipIndex index = new EntityOwnershipIndex();
+            PlayerId player = PlayerId.valueOf(1);
+            for (long i = 1; i <= 10; i++) {
+                index.assign(i, player);
+            }
+            index.assign(11L, PlayerId.valueOf(2));
+            Assertions.assertEquals(10, index.releaseAll(player));
+            Assertions.assertEquals(0, index.releaseAll(player));
+            Assertions.assertNull(index.ownerOf(5L));
+            Assertions.assertEquals(1, index.size());
+        }
+    }
+
+    @Nested
+    class Copy {
+
+        @Test
+        void copyOwned() {
+            EntityOwnershipIndex index = new EntityOwnershipIndex();
+            PlayerId player = PlayerId.valueOf(1);
+            long[] small = new long[2];
+            Assertions.assertSame(small, index.copyOwned(player, small));
+            for (long i = 1; i <= 4; i++) {
+                index.assign(i, player);
+            }
+            long[] result = index.copyOwned(player, small);
+            Assertions.assertNotSame(small, result);
+            Assertions.assertEquals(4, result.length);
+            long[] large = new long[10];
+            Assertions.assertSame(large, index.copyOwned(player, large));
+        }
+    }
+
+    @Nested
+    class Concurrency {
+
+        @Test
+        void transfersKeepIndexConsistent() throws Exception {
+            EntityOwnershipIndex index = new EntityOwnershipIndex();
+            int players = 8;
+            int entities = 1_000;
+            try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < 4; t++) {
+                    int seed = t;
+                    futures.add(executor.submit(() -> {
+                        for (int i = 0; i < 50_000; i++) {
+                            long entity = (i * 31L + seed) % entities;
+                            index.assign(entity, PlayerId.valueOf((i + seed) % players));
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            int total = 0;
+            for (int p = 0; p < players; p++) {
+                PlayerId player = PlayerId.valueOf(p);
+                total += index.count(player);
+                index.forEach(player, e -> Assertions.assertEquals(player, index.ownerOf(e)));
+            }
+            Assertions.assertEquals(entities, total);
+            Assertions.assertEquals(entities, index.size());
+        }
+
+        @Test
+        void queryFromActionWhileWriterWaits() throws Exception {
+            EntityOwnershipIndex index = new EntityOwnershipIndex();
+            PlayerId player = PlayerId.valueOf(1);
+            index.assign(1L, player);
+            index.assign(2L, player);
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                CountDownLatch iterating = new CountDownLatch(1);
+                List<PlayerId> owners = new ArrayList<>();
+                Future<?> reader = executor.submit(() -> index.forEach(player, e -> {
+                    iterating.countDown();
+                    try {
+                        Thread.sleep(100);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    owners.add(index.ownerOf(e));
+                }));
+                iterating.await();
+                Future<?> writer = executor.submit(() -> index.assign(3L, player));
+                reader.get(10, TimeUnit.SECONDS);
+                writer.get(10, TimeUnit.SECONDS);
+                Assertions.assertEquals(List.of(player, player), owners);
+                Assertions.assertEquals(3, index.count(player));
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+}
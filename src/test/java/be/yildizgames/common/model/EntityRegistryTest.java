@@ -0,0 +1,233 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class EntityRegistryTest {
+
+    private static Entity entity(final long id) {
+        return new Entity(EntityId.valueOf(id));
+    }
+
+    private record Entity(EntityId getId) implements EntityIdentifiable {
+    }
+
+    @Nested
+    class Constructor {
+
+        @Test
+        void invalid() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new EntityRegistry<Entity>(-1, 4));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new EntityRegistry<Entity>(16, 0));
+        }
+    }
+
+    @Nested
+    class Register {
+
+        @Test
+        void happyFlow() {
+            EntityRegistry<Entity> registry = new EntityRegistry<>(4, 2);
+            for (long i = -500; i < 500; i++) {
+                Assertions.assertNull(registry.register(entity(i)));
+            }
+            Assertions.assertEquals(1000, registry.size());
+            for (long i = -500; i < 500; i++) {
+                Assertions.assertEquals(EntityId.valueOf(i), registry.get(i).getId());
+            }
+            Assertions.assertNull(registry.get(500L));
+            Assertions.assertTrue(registry.contains(EntityId.WORLD));
+        }
+
+        @Test
+        void replace() {
+            EntityRegistry<Entity> registry = new EntityRegistry<>();
+            Entity first = entity(1);
+            Entity second = entity(1);
+            registry.register(first);
+            Assertions.assertSame(first, registry.register(second));
+            Assertions.assertSame(second, registry.get(EntityId.valueOf(1)));
+            Assertions.assertEquals(1, registry.size());
+        }
+
+        @Test
+        void ifAbsent() {
+            EntityRegistry<Entity> registry = new EntityRegistry<>();
+            Entity first = entity(1);
+            Assertions.assertNull(registry.registerIfAbsent(first));
+            Assertions.assertSame(first, registry.registerIfAbsent(entity(1)));
+            Assertions.assertSame(first, registry.get(1L));
+        }
+
+        @Test
+        void nullObject() {
+            EntityRegistry<Entity> registry = new EntityRegistry<>();
+            Assertions.assertThrows(NullPointerException.class, () -> registry.register(null));
+        }
+    }
+
+    @Nested
+    class Remove {
+
+        @Test
+        void happyFlow() {
+            EntityRegistry<Entity> registry = new EntityRegistry<>();
+            Entity e = entity(3);
+            registry.register(e);
+            Assertions.assertSame(e, registry.remove(EntityId.valueOf(3)));
+            Assertions.assertNull(registry.get(3L));
+            Assertions.assertNull(registry.remove(3L));
+            Assertions.assertTrue(registry.isEmpty());
+            registry.register(e);
+            Assertions.assertSame(e, registry.get(3L));
+        }
+
+        @Test
+        void churnKeepsProbesValid() {
+            EntityRegistry<Entity> registry = new EntityRegistry<>(8, 1);
+            for (long round = 0; round < 50; round++) {
+                for (long i = 0; i < 100; i++) {
+                    registry.register(entity(round * 100 + i));
+                }
+                for (long i = 0; i < 100; i += 2) {
+                    registry.remove(round * 100 + i);
+                }
+            }
+            Assertions.assertEquals(2500, registry.size());
+            for (long i = 0; i < 5000; i++) {
+                Assertions.assertEquals(i % 2 == 1, registry.contains(i));
+            }
+        }
+
+        @Test
+        void clear() {
+            EntityRegistry<Entity> registry = new EntityRegistry<>();
+            registry.register(entity(1));
+            registry.clear();
+            Assertions.assertEquals(0, registry.size());
+            Assertions.assertNull(registry.get(1L));
+        }
+    }
+
+    @Nested
+    class Iterate {
+
+        @Test
+        void snapshot() {
+            EntityRegistry<Entity> registry = new EntityRegistry<>();
+            for (long i = 0; i < 100; i++) {
+                registry.register(entity(i));
+            }
+            registry.remove(50L);
+            List<Entity> snapshot = registry.snapshot();
+            Assertions.assertEquals(99, snapshot.size());
+            registry.register(entity(1000));
+            Assertions.assertEquals(99, snapshot.size());
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> snapshot.add(entity(5)));
+        }
+
+        @Test
+        void parallelStream() {
+            EntityRegistry<Entity> registry = new EntityRegistry<>();
+            for (long i = 0; i < 100_000; i++) {
+                registry.register(entity(i));
+            }
+            Set<Long> values = registry.parallelStream().map(e -> e.getId().value).collect(Collectors.toSet());
+            Assertions.assertEquals(100_000, values.size());
+            Assertions.assertEquals(100_000, registry.stream().count());
+        }
+
+        @Test
+        void spliteratorSize() {
+            EntityRegistry<Entity> registry = new EntityRegistry<>(10_000, 8);
+            for (long i = 0; i < 10_000; i++) {
+                registry.register(entity(i));
+            }
+            Spliterator<Entity> spliterator = registry.spliterator();
+            Spliterator<Entity> prefix = spliterator.trySplit();
+            Assertions.assertNotNull(prefix);
+            long estimate = spliterator.estimateSize() + prefix.estimateSize();
+            Assertions.assertTrue(Math.abs(estimate - 10_000) < 10, "estimate: " + estimate);
+            Assertions.assertTrue(spliterator.hasCharacteristics(Spliterator.CONCURRENT));
+        }
+    }
+
+    @Nested
+    class Concurrency {
+
+        @Test
+        void readersSeeRegisteredObjects() throws Exception {
+            EntityRegistry<Entity> registry = new EntityRegistry<>(16, 8);
+            int writers = 4;
+            int perWriter = 20_000;
+            try (ExecutorService executor = Executors.newFixedThreadPool(writers * 2)) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int w = 0; w < writers; w++) {
+                    long base = (long) w * perWriter;
+                    futures.add(executor.submit(() -> {
+                        for (long i = base; i < base + perWriter; i++) {
+                            registry.register(entity(i));
+                            if (i % 3 == 0) {
+                                registry.remove(i);
+                            }
+                        }
+                    }));
+                    futures.add(executor.submit(() -> {
+                        Set<Long> seen = new HashSet<>();
+                        registry.forEach(e -> Assertions.assertTrue(seen.add(e.getId().value)));
+                        for (long i = base; i < base + perWriter; i++) {
+                            Entity e = registry.get(i);
+                            if (e != null) {
+                                Assertions.assertEquals(i, e.getId().value);
+                            }
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            for (long i = 0; i < (long) writers * perWriter; i++) {
+                Assertions.assertEquals(i % 3 != 0, registry.contains(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class EntitySlotTableTest {
+
+    @Nested
+    class Pack {
+
+        @Test
+        void fields() {
+            long value = EntitySlotTable.pack(12, 3);
+            Assertions.assertEquals(12, EntitySlotTable.slotOf(value));
+            Assertions.assertEquals(3, EntitySlotTable.generationOf(value));
+        }
+
+        @Test
+        void limits() {
+            long value = EntitySlotTable.pack(Integer.MAX_VALUE, EntitySlotTable.MAX_GENERATION);
+            Assertions.assertTrue(value > 0);
+            Assertions.assertEquals(Integer.MAX_VALUE, EntitySlotTable.slotOf(value));
+            Assertions.assertEquals(EntitySlotTable.MAX_GENERATION, EntitySlotTable.generationOf(value));
+        }
+
+        @Test
+        void invalid() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> EntitySlotTable.pack(-1, 1));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> EntitySlotTable.pack(1, 0));
+        }
+    }
+
+    @Nested
+    class Lifecycle {
+
+        @Test
+        void createAndDestroy() {
+            EntitySlotTable table = new EntitySlotTable(0);
+            long first = table.create();
+            long second = table.create();
+            Assertions.assertEquals(EntitySlotTable.pack(0, 1), first);
+            Assertions.assertEquals(EntitySlotTable.pack(1, 1), second);
+            Assertions.assertTrue(table.isAlive(first));
+            Assertions.assertEquals(2, table.size());
+            Assertions.assertTrue(table.destroy(first));
+            Assertions.assertFalse(table.destroy(first));
+            Assertions.assertFalse(table.isAlive(first));
+            Assertions.assertEquals(1, table.size());
+        }
+
+        @Test
+        void slotReusedWithNextGeneration() {
+            EntitySlotTable table = new EntitySlotTable();
+            long first = table.create();
+            table.destroy(first);
+            long reused = table.create();
+            Assertions.assertEquals(0, EntitySlotTable.slotOf(reused));
+            Assertions.assertEquals(2, EntitySlotTable.generationOf(reused));
+            Assertions.assertFalse(table.isAlive(first));
+            Assertions.assertTrue(table.isAlive(reused));
+            Assertions.assertEquals(1, table.capacity());
+        }
+
+        @Test
+        void freeSlotFutureGenerationIsNotAlive() {
+            EntitySlotTable table = new EntitySlotTable();
+            table.destroy(table.create());
+            Assertions.assertFalse(table.isAlive(EntitySlotTable.pack(0, 2)));
+        }
+
+        @Test
+        void unknownValues() {
+            EntitySlotTable table = new EntitySlotTable();
+            table.create();
+            Assertions.assertFalse(table.isAlive(EntitySlotTable.pack(5, 1)));
+            Assertions.assertFalse(table.isAlive(0L));
+            Assertions.assertFalse(table.isAlive(-1L));
+            Assertions.assertEquals(-1, table.slotIfAlive(EntitySlotTable.pack(5, 1)));
+        }
+
+        @Test
+        void ids() {
+            EntitySlotTable table = new EntitySlotTable();
+            EntityId id = table.createId();
+            Assertions.assertFalse(EntityId.isWorld(id));
+            Assertions.assertTrue(table.isAlive(id));
+            Assertions.assertTrue(table.destroy(id));
+            Assertions.assertFalse(table.isAlive(id));
+        }
+
+        @Test
+        void growth() {
+            EntitySlotTable table = new EntitySlotTable(1);
+            for (int i = 0; i < 1000; i++) {
+                Assertions.assertEquals(i, table.slotIfAlive(table.create()));
+            }
+
+            Assertions.assertEquals(1000, table.capacity());
+        }
+
+        @Test
+        void growthCappedAtMaximumLength() {
+            Assertions.assertEquals(16, EntitySlotTable.grow(0));
+            Assertions.assertEquals(1 << 29, EntitySlotTable.grow(1 << 28));
+            Assertions.assertEquals(EntitySlotTable.MAX_SLOTS, EntitySlotTable.grow(1 << 30));
+            Assertions.assertThrows(IllegalStateException.class, () -> EntitySlotTable.grow(EntitySlotTable.MAX_SLOTS));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class IdCodecTest {
+
+    private static final long[] LONG_VALUES = {0L, 1L, -1L, 63L, -64L, 64L, 127L, 128L, 300L, 1L << 35, -(1L << 35),
+            Long.MAX_VALUE, Long.MIN_VALUE};
+
+    private static final int[] INT_VALUES = {0, 1, -1, 63, -64, 64, 127, 128, 300, 1 << 20, Integer.MAX_VALUE,
+            Integer.MIN_VALUE};
+
+    @Nested
+    class Fixed {
+
+        @Test
+        void entityIdHeap() {
+            ByteBuffer buffer = ByteBuffer.allocate(64);
+            IdCodec.writeEntityId(buffer, EntityId.valueOf(123L));
+            Assertions.assertEquals(8, buffer.position());
+            buffer.flip();
+            Assertions.assertSame(EntityId.valueOf(123L), IdCodec.readEntityId(buffer));
+        }
+
+        @Test
+        void intIdsDirect() {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+            IdCodec.writePlayerId(buffer, PlayerId.valueOf(5));
+            IdCodec.writeWorldId(buffer, WorldId.valueOf(6));
+            IdCodec.writeActionId(buffer, ActionId.valueOf(7));
+            Assertions.assertEquals(12, buffer.position());
+            buffer.flip();
+            Assertions.assertSame(PlayerId.valueOf(5), IdCodec.readPlayerId(buffer));
+            Assertions.assertSame(WorldId.valueOf(6), IdCodec.readWorldId(buffer));
+            Assertions.assertSame(ActionId.valueOf(7), IdCodec.readActionId(buffer));
+        }
+    }
+
+    @Nested
+    class Variable {
+
+        @Test
+        void entityId() {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+            IdCodec.writeVarEntityId(buffer, EntityId.valueOf(5L));
+            Assertions.assertEquals(1, buffer.position());
+            buffer.flip();
+            Assertions.assertSame(EntityId.valueOf(5L), IdCodec.readVarEntityId(buffer));
+        }
+
+        @Test
+        void intIds() {
+            ByteBuffer buffer = ByteBuffer.allocate(64);
+            IdCodec.writeVarPlayerId(buffer, PlayerId.valueOf(-5));
+            IdCodec.writeVarWorldId(buffer, WorldId.valueOf(6_000));
+            IdCodec.writeVarActionId(buffer, ActionId.valueOf(7));
+            buffer.flip();
+            Assertions.assertSame(PlayerId.valueOf(-5), IdCodec.readVarPlayerId(buffer));
+            Assertions.assertSame(WorldId.valueOf(6_000), IdCodec.readVarWorldId(buffer));
+            Assertions.assertSame(ActionId.valueOf(7), IdCodec.readVarActionId(buffer));
+            Assertions.assertFalse(buffer.hasRemaining());
+        }
+
+        @Test
+        void longRoundTrip() {
+            ByteBuffer buffer = ByteBuffer.allocate(IdCodec.MAX_VAR_LONG_BYTES);
+            for (long value : LONG_VALUES) {
+                buffer.clear();
+                IdCodec.writeVarLong(buffer, value);
+                Assertions.assertEquals(IdCodec.varLongSize(value), buffer.position());
+                buffer.flip();
+                Assertions.assertEquals(value, IdCodec.readVarLong(buffer));
+            }
+        }
+
+        @Test
+        void intRoundTrip() {
+            ByteBuffer buffer = ByteBuffer.allocate(IdCodec.MAX_VAR_INT_BYTES);
+            for (int value : INT_VALUES) {
+                buffer.clear();
+                IdCodec.writeVarInt(buffer, value);
+                Assertions.assertEquals(IdCodec.varIntSize(value), buffer.position());
+                buffer.flip();
+                Assertions.assertEquals(value, IdCodec.readVarInt(buffer));
+            }
+        }
+
+        @Test
+        void sizes() {
+            Assertions.assertEquals(1, IdCodec.varLongSize(0L));
+            Assertions.assertEquals(1, IdCodec.varLongSize(-64L));
+            Assertions.assertEquals(2, IdCodec.varLongSize(64L));
+            Assertions.assertEquals(10, IdCodec.varLongSize(Long.MIN_VALUE));
+            Assertions.assertEquals(5, IdCodec.varIntSize(Integer.MIN_VALUE));
+        }
+
+        @Test
+        void malformed() {
+            ByteBuffer buffer = ByteBuffer.allocate(16);
+            for (int i = 0; i < 16; i++) {
+                buffer.put((byte) 0xFF);
+            }
+            buffer.flip();
+            Assertions.assertThrows(IllegalArgumentException.class, () -> IdCodec.readVarLong(buffer));
+            buffer.rewind();
+            Assertions.assertThrows(IllegalArgumentException.class, () -> IdCodec.readVarInt(buffer));
+        }
+
+        @Test
+        void overlongLastByte() {
+            byte[] longBytes = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+                    (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x01};
+            Assertions.assertEquals(Long.MIN_VALUE, IdCodec.readVarLong(ByteBuffer.wrap(longBytes)));
+            longBytes[9] = 0x02;
+            Assertions.assertThrows(IllegalArgumentException.class, () -> IdCodec.readVarLong(ByteBuffer.wrap(longBytes)));
+            byte[] intBytes = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F};
+            Assertions.assertEquals(Integer.MIN_VALUE, IdCodec.readVarInt(ByteBuffer.wrap(intBytes)));
+            intBytes[4] = 0x10;
+            Assertions.assertThrows(IllegalArgumentException.class, () -> IdCodec.readVarInt(ByteBuffer.wrap(intBytes)));
+        }
+
+        @Test
+        void truncated() {
+            ByteBuffer buffer = ByteBuffer.wrap(new byte[]{(byte) 0x80});
+            Assertions.assertThrows(BufferUnderflowException.class, () -> IdCodec.readVarLong(buffer));
+        }
+    }
+}
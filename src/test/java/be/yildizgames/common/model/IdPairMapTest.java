@@ -0,0 +1,160 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class IdPairMapTest {
+
+    @Nested
+    class Pack {
+
+        @Test
+        void roundTrip() {
+            int[] ids = {0, 1, -1, Integer.MAX_VALUE, Integer.MIN_VALUE};
+            long[] entities = {0L, 1L, -1L, IdPair.MAX_ENTITY, IdPair.MIN_ENTITY};
+            for (int id : ids) {
+                for (long entity : entities) {
+                    long key = IdPair.pack(id, entity);
+                    Assertions.assertEquals(id, IdPair.idOf(key));
+                    Assertions.assertEquals(entity, IdPair.entityOf(key));
+                }
+            }
+        }
+
+        @Test
+        void distinct() {
+            Assertions.assertNotEquals(IdPair.pack(1, 2L), IdPair.pack(2, 1L));
+            Assertions.assertNotEquals(IdPair.pack(0, -1L), IdPair.pack(-1, -1L));
+        }
+
+        @Test
+        void fromObjects() {
+            Assertions.assertEquals(IdPair.pack(3, 4L), IdPair.pack(PlayerId.valueOf(3), EntityId.valueOf(4)));
+            Assertions.assertEquals(IdPair.pack(3, 4L), IdPair.pack(WorldId.valueOf(3), EntityId.valueOf(4)));
+        }
+
+        @Test
+        void outOfRange() {
+            Assertions.assertFalse(IdPair.isPackable(IdPair.MAX_ENTITY + 1));
+            Assertions.assertFalse(IdPair.isPackable(IdPair.MIN_ENTITY - 1));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> IdPair.pack(1, IdPair.MAX_ENTITY + 1));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> IdPair.pack(1, Long.MIN_VALUE));
+        }
+    }
+
+    @Nested
+    class Put {
+
+        @Test
+        void happyFlow() {
+            IdPairMap<PlayerId, String> map = new IdPairMap<>();
+            Assertions.assertNull(map.put(PlayerId.valueOf(1), EntityId.valueOf(2), "a"));
+            Assertions.assertNull(map.put(2, 1L, "b"));
+            Assertions.assertEquals("a", map.put(IdPair.pack(1, 2L), "c"));
+            Assertions.assertEquals("c", map.get(PlayerId.valueOf(1), EntityId.valueOf(2)));
+            Assertions.assertEquals("b", map.get(2, 1L));
+            Assertions.assertNull(map.get(1, 1L));
+            Assertions.assertEquals(2, map.size());
+        }
+
+        @Test
+        void zeroKey() {
+            IdPairMap<WorldId, String> map = new IdPairMap<>();
+            map.put(WorldId.WORLD, EntityId.WORLD, "world");
+            Assertions.assertTrue(map.containsKey(0, 0L));
+            Assertions.assertEquals("world", map.get(0L));
+        }
+
+        @Test
+        void grow() {
+            IdPairMap<PlayerId, Long> map = new IdPairMap<>(2);
+            Map<Long, Long> expected = new HashMap<>();
+            for (int p = -10; p < 10; p++) {
+                for (long e = -50; e < 50; e++) {
+                    map.put(p, e, e * p);
+                    expected.put(IdPair.pack(p, e), e * p);
+                }
+            }
+            Assertions.assertEquals(expected.size(), map.size());
+            expected.forEach((k, v) -> Assertions.assertEquals(v, map.get(k.longValue())));
+        }
+
+        @Test
+        void outOfRange() {
+            IdPairMap<PlayerId, String> map = new IdPairMap<>();
+            Assertions.assertThrows(IllegalArgumentException.class, () -> map.put(1, 1L << 40, "a"));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> map.get(PlayerId.valueOf(1), EntityId.valueOf(1L << 40)));
+        }
+    }
+
+    @Nested
+    class Remove {
+
+        @Test
+        void happyFlow() {
+            IdPairMap<PlayerId, String> map = new IdPairMap<>();
+            map.put(1, 2L, "a");
+            map.put(1, 3L, "b");
+            Assertions.assertEquals("a", map.remove(PlayerId.valueOf(1), EntityId.valueOf(2)));
+            Assertions.assertNull(map.remove(1, 2L));
+            Assertions.assertFalse(map.containsKey(PlayerId.valueOf(1), EntityId.valueOf(2)));
+            Assertions.assertEquals("b", map.remove(IdPair.pack(1, 3L)));
+            Assertions.assertTrue(map.isEmpty());
+        }
+
+        @Test
+        void clear() {
+            IdPairMap<PlayerId, String> map = new IdPairMap<>();
+            map.put(1, 2L, "a");
+            map.clear();
+            Assertions.assertEquals(0, map.size());
+            Assertions.assertNull(map.get(1, 2L));
+        }
+    }
+
+    @Nested
+    class ForEach {
+
+        @Test
+        void unpacksPairs() {
+            IdPairMap<PlayerId, String> map = new IdPairMap<>();
+            map.put(0, 0L, "zero");
+            map.put(-3, -4L, "negative");
+            map.put(5, 6L, "positive");
+            Map<String, String> seen = new HashMap<>();
+            map.forEach((id, entity, value) -> seen.put(value, id + ":" + entity));
+            Assertions.assertEquals(Map.of("zero", "0:0", "negative", "-3:-4", "positive", "5:6"), seen);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class IntIdMapTest {
+
+    @Nested
+    class Put {
+
+        @Test
+        void happyFlow() {
+            IntIdMap<PlayerId, String> map = new IntIdMap<>();
+            Assertions.assertNull(map.put(PlayerId.valueOf(5), "a"));
+            Assertions.assertEquals("a", map.get(PlayerId.valueOf(5)));
+            Assertions.assertEquals("a", map.get(5));
+            Assertions.assertTrue(map.containsKey(5));
+        }
+
+        @Test
+        void world() {
+            IntIdMap<WorldId, String> map = new IntIdMap<>();
+            map.put(WorldId.WORLD, "w");
+            Assertions.assertEquals("w", map.get(0));
+            Assertions.assertEquals("w", map.remove(WorldId.WORLD));
+            Assertions.assertTrue(map.isEmpty());
+        }
+
+        @Test
+        void randomOperations() {
+            IntIdMap<PlayerId, Integer> map = new IntIdMap<>(2);
+            Map<Integer, Integer> expected = new HashMap<>();
+            Random random = new Random(3);
+            for (int i = 0; i < 100_000; i++) {
+                int key = random.nextInt(2_000) - 100;
+                if (random.nextBoolean()) {
+                    Assertions.assertEquals(expected.put(key, i), map.put(key, i));
+                } else {
+                    Assertions.assertEquals(expected.remove(key), map.remove(key));
+                }
+            }
+            Assertions.assertEquals(expected.size(), map.size());
+            Map<Integer, Integer> result = new HashMap<>();
+            map.forEach(result::put);
+            Assertions.assertEquals(expected, result);
+        }
+    }
+}
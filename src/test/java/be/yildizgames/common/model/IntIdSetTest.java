@@ -0,0 +1,65 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class IntIdSetTest {
+
+    @Nested
+    class Add {
+
+        @Test
+        void happyFlow() {
+            IntIdSet<PlayerId> set = new IntIdSet<>();
+            Assertions.assertTrue(set.add(PlayerId.valueOf(5)));
+            Assertions.assertFalse(set.add(5));
+            Assertions.assertTrue(set.contains(PlayerId.valueOf(5)));
+            Assertions.assertTrue(set.remove(5));
+            Assertions.assertFalse(set.contains(5));
+        }
+
+        @Test
+        void grow() {
+            IntIdSet<WorldId> set = new IntIdSet<>(2);
+            for (int i = 0; i < 1000; i++) {
+                set.add(i);
+            }
+            Assertions.assertEquals(1000, set.size());
+            Set<Integer> result = new HashSet<>();
+            set.forEachKey(result::add);
+            Assertions.assertEquals(1000, result.size());
+            Assertions.assertEquals(1000, set.toArray().length);
+        }
+    }
+}
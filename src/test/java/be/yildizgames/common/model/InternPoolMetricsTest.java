@@ -0,0 +1,136 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class InternPoolMetricsTest {
+
+    private static InternPoolMXBean pool(final String name) {
+        return InternPoolMetrics.pools().stream().filter(p -> p.getName().equals(name)).findFirst().orElseThrow();
+    }
+
+    @Nested
+    class Pools {
+
+        @Test
+        void allIdTypes() {
+            List<String> names = InternPoolMetrics.pools().stream().map(InternPoolMXBean::getName).toList();
+            Assertions.assertEquals(List.of("EntityId", "PlayerId", "WorldId", "ActionId", "BonusId"), names);
+        }
+
+        @Test
+        void sizeAndMemory() {
+            EntityId.valueOf(987_654_321L);
+            InternPoolMXBean pool = pool("EntityId");
+            Assertions.assertTrue(pool.getSize() > 0);
+            Assertions.assertTrue(pool.getEstimatedRetainedBytes() > 24L * pool.getSize());
+        }
+
+        @Test
+        void countersDisabled() {
+            Assumptions.assumeFalse(PoolStatistics.ENABLED);
+            InternPoolMXBean pool = pool("PlayerId");
+            PlayerId.valueOf(123_456_789);
+            PlayerId.valueOf(123_456_789);
+            Assertions.assertFalse(pool.isStatisticsEnabled());
+            Assertions.assertEquals(0, pool.getHits());
+            Assertions.assertEquals(0, pool.getMisses());
+            Assertions.assertEquals(0, pool.getInserts());
+        }
+
+        /**
+         * Run by the metrics surefire execution, with the statistics property set.
+         */
+        @Test
+        void countersEnabled() {
+            Assumptions.assumeTrue(PoolStatistics.ENABLED);
+            InternPoolMXBean pool = pool("PlayerId");
+            long hits = pool.getHits();
+            long misses = pool.getMisses();
+            long inserts = pool.getInserts();
+            PlayerId.valueOf(123_456_789);
+            PlayerId.valueOf(123_456_789);
+            Assertions.assertTrue(pool.isStatisticsEnabled());
+            Assertions.assertTrue(pool.getHits() > hits);
+            Assertions.assertTrue(pool.getMisses() > misses);
+            Assertions.assertTrue(pool.getInserts() > inserts);
+        }
+    }
+
+    @Nested
+    class MBeans {
+
+        @Test
+        void registerAndUnregister() throws Exception {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = InternPoolMetrics.objectName("WorldId");
+            InternPoolMetrics.registerMBeans();
+            InternPoolMetrics.registerMBeans();
+            WorldId.valueOf(42);
+            Assertions.assertTrue((Integer) server.getAttribute(name, "Size") > 0);
+            InternPoolMetrics.unregisterMBeans();
+            Assertions.assertFalse(server.isRegistered(name));
+        }
+    }
+
+    @Nested
+    class Events {
+
+        @Test
+        void periodicEvent() throws Exception {
+            InternPoolMetrics.registerEvent();
+            InternPoolMetrics.registerEvent();
+            Path file = Files.createTempFile("intern-pool", ".jfr");
+            try (Recording recording = new Recording()) {
+                recording.enable(InternPoolEvent.class).withPeriod(Duration.ofMillis(50));
+                recording.start();
+                Thread.sleep(300);
+                recording.stop();
+                recording.dump(file);
+            }
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            Files.delete(file);
+            Assertions.assertTrue(events.stream().anyMatch(e -> "EntityId".equals(e.getString("pool"))));
+        }
+    }
+}
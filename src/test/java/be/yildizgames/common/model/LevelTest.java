@@ -51,4 +51,50 @@ final class LevelTest {
         Assertions.assertNotEquals(d1, new Object());
         Assertions.assertNotEquals(d1, d3);
     }
+
+    @Test
+    void testCached() {
+        Assertions.assertSame(Level.valueOf(5), Level.valueOf(5));
+        Assertions.assertSame(Level.ZERO, Level.valueOf(0));
+        Assertions.assertSame(Level.ONE, Level.ZERO.add(1));
+    }
+
+    @Test
+    void testNotCached() {
+        Level d = Level.valueOf(100_000);
+        Assertions.assertEquals(100_000, d.value);
+        Assertions.assertEquals(Level.valueOf(100_000), d);
+    }
+
+    @Test
+    void testAdd() {
+        Level d = Level.valueOf(5);
+        Assertions.assertEquals(8, d.add(3).value);
+        Assertions.assertEquals(2, d.add(-3).value);
+        Assertions.assertSame(d, d.add(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> d.add(-6));
+    }
+
+    @Test
+    void testAddPrimitive() {
+        Assertions.assertEquals(8, Level.add(5, 3));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Level.add(5, -6));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Level.add(Integer.MAX_VALUE, 1));
+    }
+
+    @Test
+    void testSubtractPrimitive() {
+        Assertions.assertEquals(2, Level.subtract(5, 3));
+        Assertions.assertEquals(0, Level.subtract(5, 5));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Level.subtract(5, 6));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Level.subtract(0, Integer.MIN_VALUE));
+    }
+
+    @Test
+    void testIsNotZero() {
+        Assertions.assertTrue(Level.ONE.isNotZero());
+        Assertions.assertFalse(Level.ZERO.isNotZero());
+        Assertions.assertTrue(Level.isNotZero(3));
+        Assertions.assertFalse(Level.isNotZero(0));
+    }
 }
@@ -0,0 +1,180 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class OffHeapEntityIdTableTest {
+
+    @Nested
+    class Constructor {
+
+        @Test
+        void negativeSlot() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new OffHeapEntityIdTable(-1, 10));
+        }
+
+        @Test
+        void slotLargerThanPage() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new OffHeapEntityIdTable(Integer.MAX_VALUE, 10));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new OffHeapEntityIdTable((1 << 30) - 7, 10));
+        }
+
+        @Test
+        void negativeSize() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new OffHeapEntityIdTable(8, -1));
+        }
+    }
+
+    @Nested
+    class Add {
+
+        @Test
+        void happyFlow() {
+            OffHeapEntityIdTable table = new OffHeapEntityIdTable(16, 4);
+            Assertions.assertTrue(table.add(EntityId.valueOf(5L)));
+            Assertions.assertFalse(table.add(5L));
+            Assertions.assertTrue(table.contains(EntityId.valueOf(5L)));
+            Assertions.assertEquals(1, table.size());
+            Assertions.assertEquals(0L, table.getLong(5L, 8));
+        }
+
+        @Test
+        void world() {
+            OffHeapEntityIdTable table = new OffHeapEntityIdTable(8, 4);
+            Assertions.assertTrue(table.add(EntityId.WORLD));
+            table.putLong(0L, 0, 42L);
+            Assertions.assertEquals(42L, table.getLong(0L, 0));
+            Assertions.assertTrue(table.remove(EntityId.WORLD));
+            Assertions.assertFalse(table.contains(0L));
+        }
+
+        @Test
+        void slotCleared() {
+            OffHeapEntityIdTable table = new OffHeapEntityIdTable(8, 4);
+            table.add(3L);
+            table.putLong(3L, 0, 9L);
+            table.remove(3L);
+            table.add(3L);
+            Assertions.assertEquals(0L, table.getLong(3L, 0));
+        }
+    }
+
+    @Nested
+    class Slot {
+
+        @Test
+        void readWrite() {
+            OffHeapEntityIdTable table = new OffHeapEntityIdTable(20, 4);
+            table.add(7L);
+            table.putInt(7L, 0, 1);
+            table.putLong(7L, 4, 2L);
+            table.putDouble(7L, 12, 3.5);
+            Assertions.assertEquals(1, table.getInt(7L, 0));
+            Assertions.assertEquals(2L, table.getLong(7L, 4));
+            Assertions.assertEquals(3.5, table.getDouble(7L, 12));
+        }
+
+        @Test
+        void outOfSlot() {
+            OffHeapEntityIdTable table = new OffHeapEntityIdTable(8, 4);
+            table.add(7L);
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> table.getLong(7L, 4));
+        }
+
+        @Test
+        void notRegistered() {
+            OffHeapEntityIdTable table = new OffHeapEntityIdTable(8, 4);
+            Assertions.assertThrows(IllegalArgumentException.class, () -> table.getLong(7L, 0));
+        }
+
+        @Test
+        void view() {
+            OffHeapEntityIdTable table = new OffHeapEntityIdTable(8, 4);
+            table.add(7L);
+            ByteBuffer slot = table.slot(7L);
+            Assertions.assertTrue(slot.isDirect());
+            Assertions.assertEquals(8, slot.capacity());
+            slot.putLong(0, 11L);
+            Assertions.assertEquals(11L, table.getLong(7L, 0));
+            Assertions.assertNull(table.slot(8L));
+        }
+    }
+
+    @Nested
+    class RandomOperations {
+
+        @Test
+        void valuesKeptThroughGrowAndRemove() {
+            OffHeapEntityIdTable table = new OffHeapEntityIdTable(8, 2);
+            Map<Long, Long> expected = new HashMap<>();
+            Random random = new Random(5);
+            for (int i = 0; i < 50_000; i++) {
+                long id = random.nextInt(4_000);
+                if (random.nextInt(3) > 0) {
+                    boolean added = table.add(id);
+                    Assertions.assertEquals(!expected.containsKey(id), added);
+                    table.putLong(id, 0, i);
+                    expected.put(id, (long) i);
+                } else {
+                    Assertions.assertEquals(expected.remove(id) != null, table.remove(id));
+                }
+            }
+            Assertions.assertEquals(expected.size(), table.size());
+            expected.forEach((id, value) -> Assertions.assertEquals(value, table.getLong(id, 0)));
+            Map<Long, Long> iterated = new HashMap<>();
+            table.forEachSlot((id, buffer, offset) -> iterated.put(id, buffer.getLong(offset)));
+            Assertions.assertEquals(expected, iterated);
+            Set<Long> ids = new HashSet<>();
+            table.forEach(ids::add);
+            Assertions.assertEquals(expected.keySet(), ids);
+        }
+    }
+
+    @Nested
+    class Close {
+
+        @Test
+        void happyFlow() {
+            OffHeapEntityIdTable table = new OffHeapEntityIdTable(8, 2);
+            table.add(1L);
+            Assertions.assertTrue(table.offHeapBytes() > 0);
+            table.close();
+            Assertions.assertThrows(IllegalStateException.class, () -> table.contains(1L));
+        }
+    }
+}
@@ -30,6 +30,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -46,6 +47,16 @@ class PlayerIdTest {
             PlayerId id = PlayerId.valueOf(5);
             assertEquals(5, id.value);
         }
+
+        @Test
+        void cached() {
+            assertSame(PlayerId.valueOf(7), PlayerId.valueOf(7));
+        }
+
+        @Test
+        void world() {
+            assertSame(PlayerId.WORLD, PlayerId.valueOf(0));
+        }
     }
 
     @Nested
@@ -0,0 +1,192 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class RecyclingEntityIdAllocatorTest {
+
+    @Nested
+    class Constructor {
+
+        @Test
+        void invalidCapacity() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new RecyclingEntityIdAllocator(0, Duration.ZERO));
+        }
+
+        @Test
+        void invalidQuarantine() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new RecyclingEntityIdAllocator(4, -1, () -> 0L));
+        }
+    }
+
+    @Nested
+    class Allocate {
+
+        @Test
+        void freshValuesStartAtOne() {
+            RecyclingEntityIdAllocator allocator = new RecyclingEntityIdAllocator(4, Duration.ZERO);
+            Assertions.assertEquals(1, allocator.allocate());
+            Assertions.assertEquals(2, allocator.allocate());
+            Assertions.assertSame(EntityId.valueOf(3), allocator.allocateId());
+            Assertions.assertEquals(4, allocator.highWaterMark());
+        }
+
+        @Test
+        void quarantine() {
+            AtomicLong time = new AtomicLong();
+            RecyclingEntityIdAllocator allocator = new RecyclingEntityIdAllocator(4, 10, time::get);
+            allocator.allocate();
+            long second = allocator.allocate();
+            Assertions.assertTrue(allocator.release(second));
+            Assertions.assertEquals(1, allocator.recycled());
+            time.set(5);
+            Assertions.assertEquals(3, allocator.allocate());
+            time.set(10);
+            Assertions.assertEquals(second, allocator.allocate());
+            Assertions.assertEquals(0, allocator.recycled());
+        }
+
+        @Test
+        void firstReleasedFirstReused() {
+            RecyclingEntityIdAllocator allocator = new RecyclingEntityIdAllocator(4, Duration.ZERO);
+            for (int i = 0; i < 3; i++) {
+                allocator.allocate();
+            }
+            allocator.release(EntityId.valueOf(3));
+            allocator.release(EntityId.valueOf(1));
+            Assertions.assertEquals(3, allocator.allocate());
+            Assertions.assertEquals(1, allocator.allocate());
+            Assertions.assertEquals(4, allocator.allocate());
+        }
+    }
+
+    @Nested
+    class Release {
+
+        @Test
+        void fullRing() {
+            RecyclingEntityIdAllocator allocator = new RecyclingEntityIdAllocator(2, Duration.ZERO);
+            for (int i = 0; i < 3; i++) {
+                allocator.allocate();
+            }
+            Assertions.assertTrue(allocator.release(1));
+            Assertions.assertTrue(allocator.release(2));
+            Assertions.assertFalse(allocator.release(3));
+        }
+
+        @Test
+        void doubleRelease() {
+            RecyclingEntityIdAllocator allocator = new RecyclingEntityIdAllocator(4, Duration.ZERO);
+            long value = allocator.allocate();
+            Assertions.assertTrue(allocator.release(value));
+            Assertions.assertThrows(IllegalStateException.class, () -> allocator.release(value));
+            long first = allocator.allocate();
+            long second = allocator.allocate();
+            Assertions.assertNotEquals(first, second);
+            Assertions.assertTrue(allocator.release(first));
+        }
+
+        @Test
+        void fullRingKeepsValueReleased() {
+            RecyclingEntityIdAllocator allocator = new RecyclingEntityIdAllocator(1, Duration.ZERO);
+            allocator.allocate();
+            allocator.allocate();
+            allocator.allocate();
+            Assertions.assertTrue(allocator.release(1));
+            Assertions.assertTrue(allocator.release(2));
+            Assertions.assertFalse(allocator.release(3));
+            Assertions.assertThrows(IllegalStateException.class, () -> allocator.release(3));
+        }
+
+        @Test
+        void largeValues() {
+            AtomicLong time = new AtomicLong();
+            RecyclingEntityIdAllocator allocator = new RecyclingEntityIdAllocator(4, 1, time::get);
+            for (int i = 0; i < 200_000; i++) {
+                allocator.allocate();
+            }
+            Assertions.assertTrue(allocator.release(150_000));
+            Assertions.assertThrows(IllegalStateException.class, () -> allocator.release(150_000));
+        }
+
+        @Test
+        void notAllocated() {
+            RecyclingEntityIdAllocator allocator = new RecyclingEntityIdAllocator(2, Duration.ZERO);
+            allocator.allocate();
+            Assertions.assertThrows(IllegalArgumentException.class, () -> allocator.release(0));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> allocator.release(2));
+        }
+    }
+
+    @Nested
+    class Concurrency {
+
+        @Test
+        void neverSharedAndCompact() throws Exception {
+            RecyclingEntityIdAllocator allocator = new RecyclingEntityIdAllocator(1024, Duration.ZERO);
+            Set<Long> owned = ConcurrentHashMap.newKeySet();
+            int threads = 8;
+            int held = 16;
+            try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    futures.add(executor.submit(() -> {
+                        long[] values = new long[held];
+                        for (int round = 0; round < 5_000; round++) {
+                            for (int i = 0; i < held; i++) {
+                                values[i] = allocator.allocate();
+                                Assertions.assertTrue(owned.add(values[i]));
+                            }
+                            for (int i = 0; i < held; i++) {
+                                Assertions.assertTrue(owned.remove(values[i]));
+                                Assertions.assertTrue(allocator.release(values[i]));
+                            }
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            Assertions.assertTrue(allocator.highWaterMark() <= threads * held * 2 + 1);
+        }
+    }
+}
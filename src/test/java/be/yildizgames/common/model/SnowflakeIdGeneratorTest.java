@@ -0,0 +1,162 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class SnowflakeIdGeneratorTest {
+
+    private static final long EPOCH = 1_000_000L;
+
+    @Nested
+    class Constructor {
+
+        @Test
+        void invalidNode() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE + 1));
+        }
+
+        @Test
+        void invalidDrift() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(1, EPOCH, () -> EPOCH, -1));
+        }
+    }
+
+    @Nested
+    class Layout {
+
+        @Test
+        void fields() {
+            SnowflakeIdGenerator generator = new SnowflakeIdGenerator(513, EPOCH, () -> EPOCH + 1234, 10);
+            EntityId first = generator.next();
+            EntityId second = generator.next();
+            Assertions.assertEquals(513, SnowflakeIdGenerator.nodeOf(first));
+            Assertions.assertEquals(0, SnowflakeIdGenerator.sequenceOf(first));
+            Assertions.assertEquals(1, SnowflakeIdGenerator.sequenceOf(second));
+            Assertions.assertEquals(1234, SnowflakeIdGenerator.timestampOf(first));
+            Assertions.assertEquals(EPOCH + 1234, generator.timeOf(second.value));
+            Assertions.assertEquals(513, generator.getNode());
+        }
+
+        @Test
+        void systemClock() {
+            SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3);
+            long before = System.currentTimeMillis();
+            long value = generator.nextValue();
+            Assertions.assertTrue(value > 0);
+            Assertions.assertTrue(generator.timeOf(value) >= before);
+            Assertions.assertEquals(3, SnowflakeIdGenerator.nodeOf(value));
+        }
+
+        @Test
+        void worldIsSkipped() {
+            SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, EPOCH, () -> EPOCH, 10);
+            Assertions.assertEquals(1, generator.nextValue());
+        }
+    }
+
+    @Nested
+    class Clock {
+
+        @Test
+        void sequenceOverflowBorrowsNextMillisecond() {
+            SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, EPOCH, () -> EPOCH + 10, 10);
+            long last = 0;
+            for (int i = 0; i < 4097; i++) {
+                long value = generator.nextValue();
+                Assertions.assertTrue(value > last);
+                last = value;
+            }
+            Assertions.assertEquals(11, SnowflakeIdGenerator.timestampOf(last));
+            Assertions.assertEquals(0, SnowflakeIdGenerator.sequenceOf(last));
+        }
+
+        @Test
+        void backwardClockKeepsIncreasing() {
+            AtomicLong time = new AtomicLong(EPOCH + 100);
+            SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, EPOCH, time::get, 50);
+            long first = generator.nextValue();
+            time.set(EPOCH + 60);
+            long second = generator.nextValue();
+            Assertions.assertTrue(second > first);
+            Assertions.assertEquals(100, SnowflakeIdGenerator.timestampOf(second));
+            time.set(EPOCH + 40);
+            Assertions.assertThrows(IllegalStateException.class, generator::nextValue);
+            time.set(EPOCH + 101);
+            Assertions.assertEquals(101, SnowflakeIdGenerator.timestampOf(generator.nextValue()));
+        }
+
+        @Test
+        void beforeEpoch() {
+            SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, EPOCH, () -> EPOCH - 1, 10);
+            Assertions.assertThrows(IllegalStateException.class, generator::nextValue);
+        }
+
+        @Test
+        void afterRange() {
+            SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, EPOCH, () -> EPOCH + (1L << 41), 10);
+            Assertions.assertThrows(IllegalStateException.class, generator::nextValue);
+        }
+    }
+
+    @Nested
+    class Concurrency {
+
+        @Test
+        void unique() throws Exception {
+            SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+            Set<Long> values = ConcurrentHashMap.newKeySet();
+            try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < 8; t++) {
+                    futures.add(executor.submit(() -> {
+                        for (int i = 0; i < 20_000; i++) {
+                            Assertions.assertTrue(values.add(generator.nextValue()));
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            Assertions.assertEquals(160_000, values.size());
+        }
+    }
+}
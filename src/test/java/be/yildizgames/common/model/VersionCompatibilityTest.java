@@ -0,0 +1,82 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class VersionCompatibilityTest {
+
+    private static final BiPredicate<Version, Version> SAME_MINOR = (c, s) ->
+            c.getType() == s.getType() && c.getMajor() == s.getMajor() && c.getMinor() == s.getMinor();
+
+    @Test
+    void knownVersions() {
+        List<Version> clients = List.of(Version.release(1, 0, 0, 1), Version.release(1, 1, 0, 1), Version.beta(1, 1, 0, 1));
+        List<Version> servers = List.of(Version.release(1, 1, 3, 0), Version.release(1, 0, 9, 0));
+        VersionCompatibility compatibility = VersionCompatibility.of(clients, servers, SAME_MINOR);
+        for (Version client : clients) {
+            for (Version server : servers) {
+                Assertions.assertEquals(SAME_MINOR.test(client, server), compatibility.isCompatible(client, server));
+                Assertions.assertEquals(SAME_MINOR.test(client, server), compatibility.isCompatible(client.getPacked(), server.getPacked()));
+            }
+        }
+    }
+
+    @Test
+    void unknownVersionUsesRule() {
+        VersionCompatibility compatibility = VersionCompatibility.of(List.of(Version.release(1, 0, 0, 0)),
+                List.of(Version.release(1, 0, 0, 0)), SAME_MINOR);
+        Assertions.assertTrue(compatibility.isCompatible(Version.release(1, 0, 5, 5), Version.release(1, 0, 0, 0)));
+        Assertions.assertFalse(compatibility.isCompatible(Version.release(2, 0, 0, 0), Version.release(1, 0, 0, 0)));
+        Assertions.assertFalse(compatibility.isCompatible(Version.release(2, 0, 0, 0).getPacked(), Version.release(1, 0, 0, 0).getPacked()));
+    }
+
+    @Test
+    void manyServers() {
+        List<Version> servers = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            servers.add(Version.release(1, i, 0, 0));
+        }
+        Version client = Version.release(1, 130, 0, 7);
+        VersionCompatibility compatibility = VersionCompatibility.of(List.of(client, client), servers, SAME_MINOR);
+        for (Version server : servers) {
+            Assertions.assertEquals(server.getMinor() == 130, compatibility.isCompatible(client, server));
+        }
+    }
+
+    @Test
+    void invalidPackedUnknown() {
+        VersionCompatibility compatibility = VersionCompatibility.of(List.of(), List.of(), SAME_MINOR);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> compatibility.isCompatible(-1L, 0L));
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class VersionConstraintTest {
+
+    @Nested
+    class Parse {
+
+        @Test
+        void halfOpenInterval() {
+            VersionConstraint c = VersionConstraint.parse("[1.2.0, 2.0.0)");
+            Assertions.assertFalse(c.matches(Version.release(1, 1, 9, 9)));
+            Assertions.assertTrue(c.matches(Version.alpha(1, 2, 0, 0)));
+            Assertions.assertTrue(c.matches(Version.release(1, 9, 9, 100)));
+            Assertions.assertFalse(c.matches(Version.alpha(2, 0, 0, 0)));
+        }
+
+        @Test
+        void closedInterval() {
+            VersionConstraint c = VersionConstraint.parse("(1.2,2.0]");
+            Assertions.assertFalse(c.matches(Version.release(1, 2, 0, 9)));
+            Assertions.assertTrue(c.matches(Version.release(1, 2, 1, 0)));
+            Assertions.assertTrue(c.matches(Version.release(2, 0, 0, 9)));
+            Assertions.assertFalse(c.matches(Version.alpha(2, 0, 1, 0)));
+        }
+
+        @Test
+        void typeAndComparison() {
+            VersionConstraint c = VersionConstraint.parse("beta ≥ 1.4");
+            Assertions.assertTrue(c.matches(Version.beta(1, 4, 0, 0)));
+            Assertions.assertTrue(c.matches(Version.beta(3, 0, 0, 0)));
+            Assertions.assertFalse(c.matches(Version.release(1, 4, 0, 0)));
+            Assertions.assertFalse(c.matches(Version.beta(1, 3, 9, 0)));
+        }
+
+        @Test
+        void comparisons() {
+            Version v = Version.release(1, 4, 0, 3);
+            Assertions.assertTrue(VersionConstraint.parse(">=1.4").matches(v));
+            Assertions.assertFalse(VersionConstraint.parse(">1.4").matches(v));
+            Assertions.assertTrue(VersionConstraint.parse("<=1.4").matches(v));
+            Assertions.assertFalse(VersionConstraint.parse("<1.4").matches(v));
+            Assertions.assertTrue(VersionConstraint.parse("≤ 1.4.0").matches(v));
+            Assertions.assertTrue(VersionConstraint.parse("= 1.4.0").matches(v));
+            Assertions.assertTrue(VersionConstraint.parse("1.4").matches(v));
+            Assertions.assertFalse(VersionConstraint.parse("1.4.1").matches(v));
+        }
+
+        @Test
+        void conjunction() {
+            VersionConstraint c = VersionConstraint.parse("release >=1.0 <2");
+            Assertions.assertTrue(c.matches(Version.release(1, 5, 0, 0)));
+            Assertions.assertFalse(c.matches(Version.beta(1, 5, 0, 0)));
+            Assertions.assertFalse(c.matches(Version.release(2, 0, 0, 0)));
+            Assertions.assertTrue(VersionConstraint.parse(">2 <1").isEmpty());
+            Assertions.assertTrue(VersionConstraint.parse("alpha beta").isEmpty());
+        }
+
+        @Test
+        void highestVersion() {
+            int max = Version.MAX_NUMBER;
+            Assertions.assertFalse(VersionConstraint.parse(">" + max + "." + max + "." + max)
+                    .matches(Version.release(max, max, max, Version.MAX_REV)));
+            Assertions.assertTrue(VersionConstraint.parse(">=" + max + "." + max + "." + max)
+                    .matches(Version.release(max, max, max, Version.MAX_REV)));
+        }
+
+        @Test
+        void invalid() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> VersionConstraint.parse(""));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> VersionConstraint.parse("gamma"));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> VersionConstraint.parse("[1.0"));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> VersionConstraint.parse("[1.0,2.0"));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> VersionConstraint.parse(">="));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> VersionConstraint.parse("1.2.3.4"));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> VersionConstraint.parse("!1.0"));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> VersionConstraint.parse("5000"));
+        }
+
+        @Test
+        void nonAsciiDigits() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> VersionConstraint.parse(">=\u0661.\u0660.\u0660"));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> VersionConstraint.parse("\u0661.0"));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> VersionConstraint.parse("[1.\u0660,2.0)"));
+        }
+
+        @Test
+        void toStringIsExpression() {
+            Assertions.assertEquals("[1.2.0, 2.0.0)", VersionConstraint.parse("[1.2.0, 2.0.0)").toString());
+        }
+    }
+
+    @Nested
+    class Set {
+
+        @Test
+        void resolve() {
+            VersionConstraintSet set = VersionConstraintSet.parse(List.of("<1.0", "[1.0,2.0)", "beta", ">=1.5"));
+            long[] mask = set.resolve(Version.beta(1, 6, 0, 0));
+            Assertions.assertFalse(VersionConstraintSet.isSet(mask, 0));
+            Assertions.assertTrue(VersionConstraintSet.isSet(mask, 1));
+            Assertions.assertTrue(VersionConstraintSet.isSet(mask, 2));
+            Assertions.assertTrue(VersionConstraintSet.isSet(mask, 3));
+            Assertions.assertEquals(4, set.size());
+            Assertions.assertEquals(1, set.maskLength());
+        }
+
+        @Test
+        void manyConstraints() {
+            List<VersionConstraint> constraints = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                constraints.add(VersionConstraint.parse(">=1." + i));
+            }
+            VersionConstraintSet set = new VersionConstraintSet(constraints);
+            long[] mask = new long[set.maskLength()];
+            set.resolve(Version.release(1, 70, 0, 0).getPacked(), mask);
+            for (int i = 0; i < 100; i++) {
+                Assertions.assertEquals(i <= 70, VersionConstraintSet.isSet(mask, i));
+            }
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> set.resolve(0L, new long[1]));
+        }
+    }
+}
@@ -179,4 +179,78 @@ final class VersionTest {
         assertEquals(3, v.getSub());
         assertEquals(4, v.getRev());
     }
+
+    @Test
+    void testVersionAboveLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new Version(VersionType.RELEASE, Version.MAX_NUMBER + 1, 1, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new Version(VersionType.RELEASE, 1, Version.MAX_NUMBER + 1, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new Version(VersionType.RELEASE, 1, 1, Version.MAX_NUMBER + 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new Version(VersionType.RELEASE, 1, 1, 1, Version.MAX_REV + 1));
+        Version max = Version.release(Version.MAX_NUMBER, Version.MAX_NUMBER, Version.MAX_NUMBER, Version.MAX_REV);
+        assertEquals(Version.MAX_NUMBER, max.getMajor());
+        assertEquals(Version.MAX_NUMBER, max.getMinor());
+        assertEquals(Version.MAX_NUMBER, max.getSub());
+        assertEquals(Version.MAX_REV, max.getRev());
+        assertTrue(max.getPacked() > 0);
+    }
+
+    @Test
+    void testCompareTo() {
+        assertTrue(Version.release(1, 0, 0, 0).compareTo(Version.alpha(2, 0, 0, 0)) < 0);
+        assertTrue(Version.release(1, 2, 0, 0).compareTo(Version.release(1, 1, 9, 9)) > 0);
+        assertTrue(Version.release(1, 1, 2, 0).compareTo(Version.release(1, 1, 1, 9)) > 0);
+        assertTrue(Version.alpha(1, 1, 1, 9).compareTo(Version.beta(1, 1, 1, 0)) < 0);
+        assertTrue(Version.beta(1, 1, 1, 9).compareTo(Version.release(1, 1, 1, 0)) < 0);
+        assertTrue(Version.release(1, 1, 1, 1).compareTo(Version.release(1, 1, 1, 2)) < 0);
+        assertEquals(0, Version.beta(1, 2, 3, 4).compareTo(Version.beta(1, 2, 3, 4)));
+    }
+
+    @Test
+    void testFromPacked() {
+        Version v = Version.beta(1, 2, 3, 4);
+        assertEquals(v, Version.fromPacked(v.getPacked()));
+        assertThrows(IllegalArgumentException.class, () -> Version.fromPacked(-1));
+        assertThrows(IllegalArgumentException.class, () -> Version.fromPacked(3L << 25));
+    }
+
+    @Test
+    void testParse() {
+        assertEquals(Version.alpha(1, 2, 3, 4), Version.parse("alpha.1.2.3.4"));
+        assertEquals(Version.beta(10, 20, 30, 40), Version.parse("BETA.10.20.30.40"));
+        assertEquals(Version.release(0, 0, 0, 12345), Version.parse("release.0.0.0.12345"));
+        assertEquals(Version.release(1, 2, 3, 4), Version.parse(new StringBuilder("any.1.2.3.4")));
+    }
+
+    @Test
+    void testParseBytes() {
+        byte[] bytes = "xxalpha.1.2.3.4yy".getBytes(java.nio.charset.StandardCharsets.US_ASCII);
+        assertEquals(Version.alpha(1, 2, 3, 4), Version.parse(bytes, 2, 13));
+        assertEquals(Version.beta(1, 2, 3, 4).getPacked(), Version.parsePacked("Beta.1.2.3.4".getBytes(), 0, 12));
+        assertThrows(IndexOutOfBoundsException.class, () -> Version.parsePacked(bytes, 10, 10));
+    }
+
+    @Test
+    void testParseInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> Version.parse("alpha.1.2.3"));
+        assertThrows(IllegalArgumentException.class, () -> Version.parse("alpha.1.2.3.4.5"));
+        assertThrows(IllegalArgumentException.class, () -> Version.parse("alpha.1..3.4"));
+        assertThrows(IllegalArgumentException.class, () -> Version.parse("alpha.1.-2.3.4"));
+        assertThrows(IllegalArgumentException.class, () -> Version.parse("alpha.4096.2.3.4"));
+        assertThrows(IllegalArgumentException.class, () -> Version.parse("alpha.1.2.3.99999999999"));
+        assertThrows(IllegalArgumentException.class, () -> Version.parse("alpha"));
+        assertThrows(IllegalArgumentException.class, () -> Version.parse("a.1.2.3.4".getBytes(), 0, 8));
+    }
+
+    @Test
+    void testCachedInstances() {
+        assertSame(Version.parse("beta.1.2.3.4"), Version.parse("beta.1.2.3.4"));
+        assertSame(Version.beta(1, 2, 3, 4), Version.parse("beta.1.2.3.4"));
+        assertSame(Version.beta(1, 2, 3, 4), Version.fromPacked(Version.beta(1, 2, 3, 4).getPacked()));
+        assertEquals(Version.beta(1, 2, 3, 4), new Version(VersionType.BETA, 1, 2, 3, 4));
+    }
+
+    @Test
+    void invalidNegativeValueOf() {
+        assertThrows(IllegalArgumentException.class, () -> VersionType.valueOf(-1));
+    }
 }
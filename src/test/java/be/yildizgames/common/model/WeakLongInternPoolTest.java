@@ -0,0 +1,127 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class WeakLongInternPoolTest {
+
+    private static WeakLongInternPool<long[]> givenAPool() {
+        return new WeakLongInternPool<>(v -> new long[]{v}, 4);
+    }
+
+    @Nested
+    class Intern {
+
+        @Test
+        void happyFlow() {
+            WeakLongInternPool<long[]> pool = givenAPool();
+            long[] interned = pool.intern(5L);
+            Assertions.assertEquals(5L, interned[0]);
+            Assertions.assertEquals(1, pool.size());
+        }
+
+        @Test
+        void cached() {
+            WeakLongInternPool<long[]> pool = givenAPool();
+            long[] interned = pool.intern(-3L);
+            Assertions.assertSame(interned, pool.intern(-3L));
+        }
+
+        @Test
+        void resized() {
+            WeakLongInternPool<long[]> pool = givenAPool();
+            long[][] interned = new long[1000][];
+            for (int i = 0; i < interned.length; i++) {
+                interned[i] = pool.intern(i * 31L);
+            }
+            for (int i = 0; i < interned.length; i++) {
+                Assertions.assertSame(interned[i], pool.intern(i * 31L));
+            }
+            Assertions.assertEquals(1000, pool.size());
+        }
+
+        @Test
+        void concurrent() throws Exception {
+            WeakLongInternPool<long[]> pool = givenAPool();
+            int threads = 8;
+            int values = 20_000;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<long[][]>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    long[][] interned = new long[values][];
+                    for (int i = 0; i < values; i++) {
+                        interned[i] = pool.intern(i);
+                    }
+                    return interned;
+                }));
+            }
+            start.countDown();
+            long[][] first = results.get(0).get();
+            for (Future<long[][]> result : results) {
+                long[][] other = result.get();
+                for (int i = 0; i < values; i++) {
+                    Assertions.assertSame(first[i], other[i]);
+                }
+            }
+            executor.shutdown();
+        }
+    }
+
+    @Nested
+    class Reclaim {
+
+        @Test
+        void unreferenced() throws InterruptedException {
+            WeakLongInternPool<long[]> pool = givenAPool();
+            long[] kept = pool.intern(-1L);
+            for (int i = 0; i < 10_000; i++) {
+                pool.intern(i);
+            }
+            for (int attempt = 0; attempt < 50 && pool.size() > 1; attempt++) {
+                System.gc();
+                Thread.sleep(20);
+            }
+            Assertions.assertEquals(1, pool.size());
+            Assertions.assertSame(kept, pool.intern(-1L));
+            Assertions.assertNull(pool.get(5L));
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class WorldEntityRegistryTest {
+
+    private record Entity(EntityId getId) implements EntityIdentifiable {
+    }
+
+    @Nested
+    class Load {
+
+        @Test
+        void happyFlow() {
+            WorldEntityRegistry<Entity> registry = new WorldEntityRegistry<>();
+            WorldEntityRegistry.Shard<Entity> shard = registry.load(WorldId.valueOf(1), Runnable::run);
+            Assertions.assertSame(shard, registry.shard(WorldId.valueOf(1)));
+            Assertions.assertEquals(WorldId.valueOf(1), shard.getWorld());
+            Assertions.assertTrue(shard.isLoaded());
+            Assertions.assertTrue(registry.worlds().contains(WorldId.valueOf(1)));
+        }
+
+        @Test
+        void alreadyLoaded() {
+            WorldEntityRegistry<Entity> registry = new WorldEntityRegistry<>();
+            registry.load(WorldId.valueOf(1));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> registry.load(WorldId.valueOf(1)));
+            registry.unload(WorldId.valueOf(1));
+        }
+
+        @Test
+        void invalid() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new WorldEntityRegistry<Entity>(-1, 1));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new WorldEntityRegistry<Entity>(1, 0));
+        }
+    }
+
+    @Nested
+    class Register {
+
+        @Test
+        void worldsAreIsolated() {
+            WorldEntityRegistry<Entity> registry = new WorldEntityRegistry<>();
+            registry.load(WorldId.valueOf(1), Runnable::run);
+            registry.load(WorldId.valueOf(2), Runnable::run);
+            Entity e = new Entity(EntityId.valueOf(5));
+            Assertions.assertNull(registry.register(WorldId.valueOf(1), e));
+            Assertions.assertSame(e, registry.get(WorldId.valueOf(1), 5L));
+            Assertions.assertNull(registry.get(WorldId.valueOf(2), 5L));
+            Assertions.assertEquals(1, registry.size());
+            Assertions.assertSame(e, registry.remove(WorldId.valueOf(1), 5L));
+            Assertions.assertEquals(0, registry.size());
+        }
+
+        @Test
+        void worldNotLoaded() {
+            WorldEntityRegistry<Entity> registry = new WorldEntityRegistry<>();
+            Entity e = new Entity(EntityId.valueOf(5));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> registry.register(WorldId.valueOf(3), e));
+            Assertions.assertNull(registry.get(WorldId.valueOf(3), 5L));
+            Assertions.assertNull(registry.remove(WorldId.valueOf(3), 5L));
+        }
+    }
+
+    @Nested
+    class Unload {
+
+        @Test
+        void dropsEntries() throws Exception {
+            WorldEntityRegistry<Entity> registry = new WorldEntityRegistry<>();
+            WorldEntityRegistry.Shard<Entity> shard = registry.load(WorldId.valueOf(1), Runnable::run);
+            for (long i = 0; i < 100; i++) {
+                registry.register(WorldId.valueOf(1), new Entity(EntityId.valueOf(i)));
+            }
+            Assertions.assertTrue(registry.unload(WorldId.valueOf(1)));
+            shard.whenCleared().get(10, TimeUnit.SECONDS);
+            Assertions.assertFalse(shard.isLoaded());
+            Assertions.assertEquals(0, shard.size());
+            Assertions.assertNull(registry.shard(WorldId.valueOf(1)));
+            Assertions.assertFalse(registry.unload(WorldId.valueOf(1)));
+            Assertions.assertThrows(IllegalStateException.class, () -> shard.execute(() -> {}));
+            Assertions.assertThrows(IllegalStateException.class, () -> shard.submit(s -> {}));
+            Assertions.assertThrows(IllegalStateException.class, () -> shard.register(new Entity(EntityId.valueOf(1))));
+        }
+
+        @Test
+        void pendingTasksRunBeforeClear() throws Exception {
+            WorldEntityRegistry<Entity> registry = new WorldEntityRegistry<>();
+            WorldEntityRegistry.Shard<Entity> shard = registry.load(WorldId.valueOf(2));
+            CountDownLatch blocker = new CountDownLatch(1);
+            shard.register(new Entity(EntityId.valueOf(1)));
+            shard.execute(() -> {
+                try {
+                    blocker.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            AtomicInteger seen = new AtomicInteger(-1);
+            AtomicReference<Throwable> registerError = new AtomicReference<>();
+            CompletableFuture<Void> pending = shard.submit(s -> {
+                seen.set(s.size());
+                try {
+                    s.register(new Entity(EntityId.valueOf(2)));
+                } catch (IllegalStateException e) {
+                    registerError.set(e);
+                }
+            });
+            registry.unload(WorldId.valueOf(2));
+            blocker.countDown();
+            pending.get(10, TimeUnit.SECONDS);
+            shard.whenCleared().get(10, TimeUnit.SECONDS);
+            Assertions.assertEquals(1, seen.get());
+            Assertions.assertNotNull(registerError.get());
+            Assertions.assertEquals(0, shard.size());
+        }
+
+        @Test
+        void waitsForTaskBeingEnqueued() throws Exception {
+            WorldEntityRegistry<Entity> registry = new WorldEntityRegistry<>();
+            List<Runnable> queue = new CopyOnWriteArrayList<>();
+            CountDownLatch enqueuing = new CountDownLatch(1);
+            CountDownLatch enqueue = new CountDownLatch(1);
+            WorldEntityRegistry.Shard<Entity> shard = registry.load(WorldId.valueOf(4), task -> {
+                if (queue.isEmpty()) {
+                    enqueuing.countDown();
+                    try {
+                        enqueue.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                queue.add(task);
+            });
+            shard.register(new Entity(EntityId.valueOf(1)));
+            AtomicInteger seen = new AtomicInteger(-1);
+            ExecutorService caller = Executors.newSingleThreadExecutor();
+            caller.execute(() -> shard.execute(() -> seen.set(shard.size())));
+            enqueuing.await();
+            ExecutorService unloader = Executors.newSingleThreadExecutor();
+            Future<?> unload = unloader.submit(() -> registry.unload(WorldId.valueOf(4)));
+            Thread.sleep(100);
+            Assertions.assertTrue(shard.isLoaded());
+            enqueue.countDown();
+            unload.get(10, TimeUnit.SECONDS);
+            caller.shutdown();
+            unloader.shutdown();
+            queue.forEach(Runnable::run);
+            Assertions.assertEquals(1, seen.get());
+            Assertions.assertTrue(shard.whenCleared().isDone());
+            Assertions.assertEquals(0, shard.size());
+        }
+
+        @Test
+        void rejectedExecutor() {
+            WorldEntityRegistry<Entity> registry = new WorldEntityRegistry<>();
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            WorldEntityRegistry.Shard<Entity> shard = registry.load(WorldId.valueOf(3), executor);
+            shard.register(new Entity(EntityId.valueOf(1)));
+            executor.shutdown();
+            Assertions.assertThrows(RejectedExecutionException.class, () -> shard.execute(() -> {}));
+            registry.unload(WorldId.valueOf(3));
+            Assertions.assertTrue(shard.whenCleared().isDone());
+            Assertions.assertEquals(0, shard.size());
+        }
+    }
+
+    @Nested
+    class Execute {
+
+        @Test
+        void dedicatedThread() throws Exception {
+            WorldEntityRegistry<Entity> registry = new WorldEntityRegistry<>();
+            WorldEntityRegistry.Shard<Entity> shard = registry.load(WorldId.valueOf(7));
+            AtomicReference<Thread> thread = new AtomicReference<>();
+            CompletableFuture<Void> future = shard.submit(s -> {
+                s.register(new Entity(EntityId.valueOf(1)));
+                thread.set(Thread.currentThread());
+            });
+            future.get(10, TimeUnit.SECONDS);
+            Assertions.assertEquals("world-7", thread.get().getName());
+            Assertions.assertTrue(thread.get().isDaemon());
+            Assertions.assertNotNull(registry.get(WorldId.valueOf(7), 1L));
+            registry.unload(WorldId.valueOf(7));
+        }
+    }
+}
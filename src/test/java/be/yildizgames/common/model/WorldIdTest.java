@@ -28,6 +28,7 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -36,6 +37,20 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
  */
 class WorldIdTest {
 
+    @Nested
+    class ValueOf {
+
+        @Test
+        void cached() {
+            assertSame(WorldId.valueOf(7), WorldId.valueOf(7));
+        }
+
+        @Test
+        void world() {
+            assertSame(WorldId.WORLD, WorldId.valueOf(0));
+        }
+    }
+
     @Nested
     class IsWorld {
 